@@ -26,6 +26,7 @@ import com.seleniumtests.customexception.DriverExceptions;
 import com.seleniumtests.driver.DriverConfig;
 import com.seleniumtests.driver.WebUIDriver;
 import com.seleniumtests.reporter.TestLogging;
+import com.seleniumtests.util.helper.WaitHelper;
 
 public abstract class AbstractWebDriverFactory {
 
@@ -33,6 +34,10 @@ public abstract class AbstractWebDriverFactory {
     protected DriverConfig webDriverConfig;
 
     protected WebDriver driver;
+    
+    // timeouts last sent to driver, so that they are not sent again at each test when they did not change
+    private long appliedImplicitWaitTimeout = -1;
+    private long appliedPageLoadTimeout = -1;
 
     public AbstractWebDriverFactory(final DriverConfig cfg) {
         this.webDriverConfig = cfg;
@@ -62,14 +67,41 @@ public abstract class AbstractWebDriverFactory {
         final DriverConfig cfg = this.getWebDriverConfig();
 
         driver = createNativeDriver();
+        updateTimeouts(cfg);
 
+        this.setWebDriver(driver);
+        return driver;
+    }
+    
+    /**
+     * Set implicit wait and page load timeouts of driver, bounded by the time left for the current test.
+     * Done when driver is created, and again when a test starts with a driver created before (see {@link WebUIDriver#applyTestTimeouts()})
+     * @param cfg
+     */
+    public void applyTimeouts(final DriverConfig cfg) {
         setImplicitWaitTimeout(cfg.getImplicitWaitTimeout());
         if (cfg.getPageLoadTimeout() >= 0) {
-            setPageLoadTimeout(cfg.getPageLoadTimeout());
+            setPageLoadTimeout(WaitHelper.boundTimeout(cfg.getPageLoadTimeout()));
         }
-
-        this.setWebDriver(driver);
-        return driver;
+    }
+    
+    /**
+     * Applies timeouts (see {@link #applyTimeouts(DriverConfig)}) only if they differ from the ones last applied through this method. 
+     * When test has no time budget, or enough time left, nothing is sent to driver
+     * @param cfg
+     * @return true if timeouts have been sent to driver
+     */
+    public boolean updateTimeouts(final DriverConfig cfg) {
+        long implicitWaitTimeout = WaitHelper.boundTimeoutMs((long) (cfg.getImplicitWaitTimeout() * 1000));
+        long pageLoadTimeout = cfg.getPageLoadTimeout() >= 0 ? WaitHelper.boundTimeout(cfg.getPageLoadTimeout()) : -1;
+        if (implicitWaitTimeout == appliedImplicitWaitTimeout && pageLoadTimeout == appliedPageLoadTimeout) {
+            return false;
+        }
+        
+        applyTimeouts(cfg);
+        appliedImplicitWaitTimeout = implicitWaitTimeout;
+        appliedPageLoadTimeout = pageLoadTimeout;
+        return true;
     }
 
     protected void setPageLoadTimeout(final long timeout) {
@@ -93,7 +125,10 @@ public abstract class AbstractWebDriverFactory {
         return webDriverConfig;
     }
 
-    public void setImplicitWaitTimeout(final double timeout) {
+    public void setImplicitWaitTimeout(final double implicitWaitTimeout) {
+    	
+    	// an element search should not last longer than the test itself
+    	double timeout = WaitHelper.boundTimeoutMs((long) (implicitWaitTimeout * 1000)) / 1000.0;
         if (timeout < 1) {
             driver.manage().timeouts().implicitlyWait((long) (timeout * 1000), TimeUnit.MILLISECONDS);
         } else {
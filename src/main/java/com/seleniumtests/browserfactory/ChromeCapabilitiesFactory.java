@@ -16,6 +16,7 @@ package com.seleniumtests.browserfactory;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Paths;
 
 import org.openqa.selenium.Platform;
@@ -31,6 +32,8 @@ import com.seleniumtests.util.FileUtility;
 import com.seleniumtests.util.OSUtility;
 
 public class ChromeCapabilitiesFactory extends ICapabilitiesFactory {
+	
+	private File userDataDir = null;
 
     public DesiredCapabilities createCapabilities(final DriverConfig webDriverConfig) {
 
@@ -42,6 +45,20 @@ public class ChromeCapabilitiesFactory extends ICapabilitiesFactory {
         if (webDriverConfig.getUserAgentOverride() != null) {
             options.addArguments("--user-agent=" + webDriverConfig.getUserAgentOverride());
         }
+        
+        // headless chrome cannot be maximized, so give it a fixed size to get the same screenshots as in windowed mode
+        if (webDriverConfig.isHeadlessBrowser()) {
+        	options.addArguments("--headless");
+        	options.addArguments("--disable-gpu");
+        	options.addArguments(String.format("--window-size=%d,%d", DriverConfig.HEADLESS_WINDOW_WIDTH, DriverConfig.HEADLESS_WINDOW_HEIGHT));
+        }
+        
+        if (webDriverConfig.getChromeProfileTemplatePath() != null && webDriverConfig.getMode() == DriverMode.LOCAL) {
+        	userDataDir = createUserDataDir(webDriverConfig.getChromeProfileTemplatePath());
+        	if (userDataDir != null) {
+        		options.addArguments("--user-data-dir=" + userDataDir.getAbsolutePath());
+        	}
+        }
 
         capability.setCapability(ChromeOptions.CAPABILITY, options);
 
@@ -94,6 +111,41 @@ public class ChromeCapabilitiesFactory extends ICapabilitiesFactory {
         return capability;
     }
 
+    /**
+     * Creates a per session copy of the profile template, so that chrome does not do its first run work 
+     * (profile creation, component update, caches) on each start
+     * @param templatePath	path of the profile directory, prepared once
+     * @return the copy, or null if it could not be created (chrome then uses a new empty profile)
+     */
+    protected File createUserDataDir(final String templatePath) {
+    	File template = new File(templatePath);
+    	if (!template.isDirectory()) {
+    		logger.warn("Chrome profile template " + templatePath + " not found, use default");
+    		return null;
+    	}
+    	
+    	File sessionDir = null;
+    	try {
+    		sessionDir = Files.createTempDirectory("chromeProfile").toFile();
+    		FileUtility.cloneDirectory(template, sessionDir);
+    		return sessionDir;
+    	} catch (IOException e) {
+    		logger.warn("Cannot copy chrome profile template: " + e.getMessage());
+    		if (sessionDir != null) {
+    			FileUtility.deleteDirectory(sessionDir);
+    		}
+    		return null;
+    	}
+    }
+    
+    /**
+     * Profile copy created for the session, to be deleted once browser has been closed
+     * @return
+     */
+    public File getUserDataDir() {
+    	return userDataDir;
+    }
+
     public void handleExtractResources() throws IOException {
         String dir = Paths.get(SeleniumTestsContext.getRootPath(), "tools", "drivers", Platform.getCurrent().family().toString().toLowerCase()).toString();
         dir = FileUtility.decodePath(dir);
@@ -22,15 +22,30 @@ import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 
 import com.seleniumtests.driver.DriverConfig;
+import com.seleniumtests.util.FileUtility;
 
 public class ChromeDriverFactory extends AbstractWebDriverFactory implements IWebDriverFactory {
 
+    private ChromeCapabilitiesFactory capabilitiesFactory = null;
+
     public ChromeDriverFactory(final DriverConfig cfg) {
         super(cfg);
     }
 
     protected WebDriver createNativeDriver() {
-        return new ChromeDriver(new ChromeCapabilitiesFactory().createCapabilities(webDriverConfig));
+    	capabilitiesFactory = new ChromeCapabilitiesFactory();
+        return new ChromeDriver(capabilitiesFactory.createCapabilities(webDriverConfig));
+    }
+    
+    /**
+     * Quit browser and remove the profile copy it used
+     */
+    @Override
+    public void cleanUp() {
+    	super.cleanUp();
+    	if (capabilitiesFactory != null && capabilitiesFactory.getUserDataDir() != null) {
+    		FileUtility.deleteDirectory(capabilitiesFactory.getUserDataDir());
+    	}
     }
 
 }
@@ -17,7 +17,11 @@ package com.seleniumtests.browserfactory;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
+import org.openqa.selenium.firefox.FirefoxBinary;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxProfile;
 import org.openqa.selenium.remote.CapabilityType;
@@ -25,6 +29,7 @@ import org.openqa.selenium.remote.DesiredCapabilities;
 
 import com.seleniumtests.browserfactory.customprofile.FireFoxProfileMarker;
 import com.seleniumtests.driver.DriverConfig;
+import com.seleniumtests.driver.DriverMode;
 import com.seleniumtests.driver.JavaScriptError;
 import com.seleniumtests.reporter.TestLogging;
 import com.seleniumtests.util.FileUtility;
@@ -93,6 +98,10 @@ public class FirefoxCapabilitiesFactory extends ICapabilitiesFactory {
         FirefoxProfile profile = getFirefoxProfile(webDriverConfig);
         configProfile(profile, webDriverConfig);
         capability.setCapability(FirefoxDriver.PROFILE, profile);
+        
+        if (webDriverConfig.isHeadlessBrowser()) {
+        	configHeadless(capability, webDriverConfig);
+        }
 
         if (webDriverConfig.isEnableJavascript()) {
             capability.setJavascriptEnabled(true);
@@ -118,6 +127,33 @@ public class FirefoxCapabilitiesFactory extends ICapabilitiesFactory {
         return capability;
     }
 
+    /**
+     * Start firefox without display. MOZ_HEADLESS variable is used by local FirefoxDriver, "-headless" argument
+     * by geckodriver. Binary is only set in local mode, as it's the one installed on this computer
+     * @param capability
+     * @param webDriverConfig
+     */
+    protected void configHeadless(final DesiredCapabilities capability, final DriverConfig webDriverConfig) {
+    	if (webDriverConfig.getMode() == DriverMode.LOCAL) {
+	    	FirefoxBinary binary;
+	    	if (webDriverConfig.getFirefoxBinPath() != null) {
+	    		binary = new FirefoxBinary(new File(webDriverConfig.getFirefoxBinPath()));
+	    	} else {
+	    		binary = new FirefoxBinary();
+	    	}
+	    	binary.setEnvironmentProperty("MOZ_HEADLESS", "1");
+	    	binary.setEnvironmentProperty("MOZ_HEADLESS_WIDTH", Integer.toString(DriverConfig.HEADLESS_WINDOW_WIDTH));
+	    	binary.setEnvironmentProperty("MOZ_HEADLESS_HEIGHT", Integer.toString(DriverConfig.HEADLESS_WINDOW_HEIGHT));
+	    	capability.setCapability(FirefoxDriver.BINARY, binary);
+    	}
+    	
+    	Map<String, Object> firefoxOptions = new HashMap<>();
+    	firefoxOptions.put("args", Arrays.asList("-headless", 
+    											"--width=" + DriverConfig.HEADLESS_WINDOW_WIDTH, 
+    											"--height=" + DriverConfig.HEADLESS_WINDOW_HEIGHT));
+    	capability.setCapability("moz:firefoxOptions", firefoxOptions);
+    }
+
     protected FirefoxProfile createFirefoxProfile(final String path) {
         if (path != null) {
             return new FirefoxProfile(new File(path));
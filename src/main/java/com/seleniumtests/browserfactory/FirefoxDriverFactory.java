@@ -109,10 +109,7 @@ public class FirefoxDriverFactory extends AbstractWebDriverFactory implements IW
 
         // Implicit Waits to handle dynamic element. The default value is 5
         // seconds.
-        setImplicitWaitTimeout(cfg.getImplicitWaitTimeout());
-        if (cfg.getPageLoadTimeout() >= 0) {
-            setPageLoadTimeout(cfg.getPageLoadTimeout());
-        }
+        updateTimeouts(cfg);
 
         this.setWebDriver(driver);
         return driver;
@@ -125,7 +122,7 @@ public class FirefoxDriverFactory extends AbstractWebDriverFactory implements IW
      */
     protected WebDriver createWebDriverWithTimeout() {
         long time = 0;
-        while (time < getTimeout()) {
+        while (time < getTimeout() && WaitHelper.hasRemainingTestTime()) {
             try {
                 driver = createNativeDriver();
                 return driver;
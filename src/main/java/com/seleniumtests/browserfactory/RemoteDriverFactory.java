@@ -105,10 +105,7 @@ public class RemoteDriverFactory extends AbstractWebDriverFactory implements IWe
                 driver = new ScreenShotRemoteWebDriver(url, capability);
         }
 
-        setImplicitWaitTimeout(webDriverConfig.getImplicitWaitTimeout());
-        if (webDriverConfig.getPageLoadTimeout() >= 0) {
-            setPageLoadTimeout(webDriverConfig.getPageLoadTimeout(), webDriverConfig.getBrowser());
-        }
+        updateTimeouts(webDriverConfig);
 
         this.setWebDriver(driver);
 
@@ -147,6 +144,14 @@ public class RemoteDriverFactory extends AbstractWebDriverFactory implements IWe
         return driver;
     }
 
+    @Override
+    public void applyTimeouts(final DriverConfig cfg) {
+        setImplicitWaitTimeout(cfg.getImplicitWaitTimeout());
+        if (cfg.getPageLoadTimeout() >= 0) {
+            setPageLoadTimeout(WaitHelper.boundTimeout(cfg.getPageLoadTimeout()), cfg.getBrowser());
+        }
+    }
+
     protected void setPageLoadTimeout(final long timeout, final BrowserType type) {
         switch (type) {
 
@@ -74,6 +74,7 @@ public abstract class SeleniumTestPlan {
         logger.info(Thread.currentThread() + " Start method " + method.getName());
         SeleniumTestsContextManager.initThreadContext(testContex, xmlTest);
         SeleniumTestsContextManager.getThreadContext().setTestMethodSignature(buildMethodSignature(method, parameters));
+        WebUIDriver.applyTestTimeouts();
     }
 
     @AfterSuite(alwaysRun = true)
@@ -26,9 +26,10 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
-import org.apache.commons.io.FileUtils;
 import org.apache.log4j.Logger;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -39,6 +40,7 @@ import org.testng.ITestResult;
 import org.testng.xml.XmlSuite;
 
 import com.seleniumtests.core.config.ConfigReader;
+import com.seleniumtests.core.config.LayeredConfiguration;
 import com.seleniumtests.customexception.ConfigurationException;
 import com.seleniumtests.driver.BrowserType;
 import com.seleniumtests.driver.DriverMode;
@@ -70,6 +72,8 @@ public class SeleniumTestsContext {
     public static final String IMPLICIT_WAIT_TIME_OUT = "implicitWaitTimeOut";	// attente implicite du navigateur
     public static final String EXPLICIT_WAIT_TIME_OUT = "explicitWaitTimeOut";	// attente explicite du navigateur
     public static final String PAGE_LOAD_TIME_OUT = "pageLoadTimeout";			// temps d'attente de chargement d'une page
+    public static final String TEST_TIME_BUDGET = "testTimeBudget";				// durée maximale (secondes) d'un test. Toutes les attentes sont bornées par le temps restant. 0 pour désactiver
+    public static final String BROWSER_COMMAND_TIMEOUT = "browserCommandTimeout";	// durée maximale (secondes) d'une commande avant que le navigateur soit considéré comme gelé. 0 pour désactiver
     public static final String WEB_DRIVER_GRID = "webDriverGrid";				// adresse du serveur seleniumGrid
     public static final String RUN_MODE = "runMode";							// local ou grid. Pourrait également contenir sauceLabs / testDroid
     public static final String BROWSER = "browser";								// navigateur utilisé. Sur Android, le navigateur par défaut est "Browser"
@@ -80,7 +84,9 @@ public class SeleniumTestsContext {
     public static final String FIREFOX_BINARY_PATH = "firefoxBinaryPath";		// chemin vers le binaire firefox (firefox portable ou pour utiliser une version spécifique
     public static final String CHROME_DRIVER_PATH = "chromeDriverPath";			// chemin vers chromeDriver si on souhaite utiliser une version différente
     public static final String CHROME_BINARY_PATH = "chromeBinaryPath";			// chemin vers le binaire chrome lorsque celui-ci n'est pas installé de manière normale
+    public static final String CHROME_PROFILE_TEMPLATE_PATH = "chromeProfileTemplatePath";	// profile chrome préparé une fois, copié pour chaque session pour accélérer le démarrage
     public static final String IE_DRIVER_PATH = "ieDriverPath";					// chemin vers le driver Internet Explorer
+    public static final String HEADLESS_BROWSER = "headless";					// exécution du navigateur sans affichage (chrome et firefox uniquement)
     public static final String USER_AGENT = "userAgent";						// user agent utilisé pour les tests. Permet d'écraser le user-agent par défaut du navigateur, sur firefox et chrome uniquement
 
     public static final String Set_Assume_Untrusted_Certificate_Issuer = "setAssumeUntrustedCertificateIssuer"; // Firefox uniquement pour qu'il ne prenne pas en compte les certificats invalides 
@@ -98,8 +104,10 @@ public class SeleniumTestsContext {
 
     public static final String REPORT_GENERATION_CONFIG = "reportGenerationConfig";
     public static final String OPEN_REPORT_IN_BROWSER = "openReportInBrowser";
+    public static final String REPORT_RENDERING_THREADS = "reportRenderingThreads";	// nombre de threads générant le détail des tests dans le rapport. 1 pour une génération séquentielle. Par défaut, le nombre de processeurs
     public static final String CAPTURE_SNAPSHOT = "captureSnapshot";
     public static final String ENABLE_EXCEPTION_LISTENER = "enableExceptionListener";	// TODO: voir son effet, activé par défaut
+    public static final String DRIVER_EXCEPTION_RULES = "driverExceptionRules";	// règles supplémentaires de traitement des exceptions du driver, sous la forme 'ACTION=regex;ACTION=regex'. ACTION parmi IGNORE, END_SESSION, END_GRID_SESSION, REPORT
 
     public static final String DP_TAGS_INCLUDE = "dpTagsInclude";				// 
     public static final String DP_TAGS_EXCLUDE = "dpTagsExclude";				// Utilisé pour la lecture de fichiers CSV/XLS des DataProvider TODO: a étudier comment cela fonctionne
@@ -142,12 +150,120 @@ public class SeleniumTestsContext {
     // Testdroid specific properties
     public static final String PROJECT_NAME = "projectName";					// TestDroid nécessite un nom de projet dans lequel l'automatisation aura lieu	
 
+    private long testDeadline = 0;
     private LinkedList<TearDownService> tearDownServices = new LinkedList<TearDownService>();
     private Map<ITestResult, List<Throwable>> verificationFailuresMap = new HashMap<ITestResult, List<Throwable>>();
 
-    /* Data object to store all context data */
-    private Map<String, Object> contextDataMap = Collections.synchronizedMap(new HashMap<String, Object>());
-    private Map<String, String> testVariables = Collections.synchronizedMap(new HashMap<String, String>());
+    /* Parameters resolved in constructor, stored in parameterValues array at the index of their KnownParameter, so that getters
+     * do not look them up by name. contextDataMap only contains custom attributes */
+    private enum KnownParameter {
+    	TEST_DATA_FILE(SeleniumTestsContext.TEST_DATA_FILE, String.class),
+    	WEB_SESSION_TIME_OUT(SeleniumTestsContext.WEB_SESSION_TIME_OUT, Integer.class),
+    	IMPLICIT_WAIT_TIME_OUT(SeleniumTestsContext.IMPLICIT_WAIT_TIME_OUT, Integer.class),
+    	EXPLICIT_WAIT_TIME_OUT(SeleniumTestsContext.EXPLICIT_WAIT_TIME_OUT, Integer.class),
+    	PAGE_LOAD_TIME_OUT(SeleniumTestsContext.PAGE_LOAD_TIME_OUT, Integer.class),
+    	BROWSER_COMMAND_TIMEOUT(SeleniumTestsContext.BROWSER_COMMAND_TIMEOUT, Integer.class),
+    	TEST_TIME_BUDGET(SeleniumTestsContext.TEST_TIME_BUDGET, Integer.class),
+    	WEB_DRIVER_GRID(SeleniumTestsContext.WEB_DRIVER_GRID, String.class),
+    	RUN_MODE(SeleniumTestsContext.RUN_MODE, String.class),
+    	BROWSER(SeleniumTestsContext.BROWSER, String.class),
+    	BROWSER_VERSION(SeleniumTestsContext.BROWSER_VERSION, String.class),
+    	FIREFOX_USER_PROFILE_PATH(SeleniumTestsContext.FIREFOX_USER_PROFILE_PATH, String.class),
+    	USE_DEFAULT_FIREFOX_PROFILE(SeleniumTestsContext.USE_DEFAULT_FIREFOX_PROFILE, Boolean.class),
+    	OPERA_USER_PROFILE_PATH(SeleniumTestsContext.OPERA_USER_PROFILE_PATH, String.class),
+    	FIREFOX_BINARY_PATH(SeleniumTestsContext.FIREFOX_BINARY_PATH, String.class),
+    	CHROME_DRIVER_PATH(SeleniumTestsContext.CHROME_DRIVER_PATH, String.class),
+    	CHROME_PROFILE_TEMPLATE_PATH(SeleniumTestsContext.CHROME_PROFILE_TEMPLATE_PATH, String.class),
+    	IE_DRIVER_PATH(SeleniumTestsContext.IE_DRIVER_PATH, String.class),
+    	USER_AGENT(SeleniumTestsContext.USER_AGENT, String.class),
+    	HEADLESS_BROWSER(SeleniumTestsContext.HEADLESS_BROWSER, Boolean.class),
+    	Set_Assume_Untrusted_Certificate_Issuer(SeleniumTestsContext.Set_Assume_Untrusted_Certificate_Issuer, Boolean.class),
+    	Set_Accept_Untrusted_Certificates(SeleniumTestsContext.Set_Accept_Untrusted_Certificates, Boolean.class),
+    	ENABLE_JAVASCRIPT(SeleniumTestsContext.ENABLE_JAVASCRIPT, Boolean.class),
+    	NTLM_AUTH_TRUSTED_URIS(SeleniumTestsContext.NTLM_AUTH_TRUSTED_URIS, String.class),
+    	BROWSER_DOWNLOAD_DIR(SeleniumTestsContext.BROWSER_DOWNLOAD_DIR, String.class),
+    	ADD_JS_ERROR_COLLECTOR_EXTENSION(SeleniumTestsContext.ADD_JS_ERROR_COLLECTOR_EXTENSION, Boolean.class),
+    	WEB_PROXY_ENABLED(SeleniumTestsContext.WEB_PROXY_ENABLED, Boolean.class),
+    	WEB_PROXY_TYPE(SeleniumTestsContext.WEB_PROXY_TYPE, String.class),
+    	WEB_PROXY_ADDRESS(SeleniumTestsContext.WEB_PROXY_ADDRESS, String.class),
+    	REPORT_GENERATION_CONFIG(SeleniumTestsContext.REPORT_GENERATION_CONFIG, String.class),
+    	OPEN_REPORT_IN_BROWSER(SeleniumTestsContext.OPEN_REPORT_IN_BROWSER, String.class),
+    	REPORT_RENDERING_THREADS(SeleniumTestsContext.REPORT_RENDERING_THREADS, Integer.class),
+    	CAPTURE_SNAPSHOT(SeleniumTestsContext.CAPTURE_SNAPSHOT, Boolean.class),
+    	ENABLE_EXCEPTION_LISTENER(SeleniumTestsContext.ENABLE_EXCEPTION_LISTENER, Boolean.class),
+    	DRIVER_EXCEPTION_RULES(SeleniumTestsContext.DRIVER_EXCEPTION_RULES, String.class),
+    	DP_TAGS_INCLUDE(SeleniumTestsContext.DP_TAGS_INCLUDE, String.class),
+    	DP_TAGS_EXCLUDE(SeleniumTestsContext.DP_TAGS_EXCLUDE, String.class),
+    	SSH_COMMAND_WAIT(SeleniumTestsContext.SSH_COMMAND_WAIT, Integer.class),
+    	SOFT_ASSERT_ENABLED(SeleniumTestsContext.SOFT_ASSERT_ENABLED, Boolean.class),
+    	WEB_DRIVER_LISTENER(SeleniumTestsContext.WEB_DRIVER_LISTENER, String.class),
+    	APPIUM_SERVER_URL(SeleniumTestsContext.APPIUM_SERVER_URL, String.class),
+    	DEVICE_NAME(SeleniumTestsContext.DEVICE_NAME, String.class),
+    	DEVICE_LIST(SeleniumTestsContext.DEVICE_LIST, String.class),
+    	APP(SeleniumTestsContext.APP, String.class),
+    	CUCUMBER_TAGS(SeleniumTestsContext.CUCUMBER_TAGS, String.class),
+    	CUCUMBER_TESTS(SeleniumTestsContext.CUCUMBER_TESTS, String.class),
+    	CUCUMBER_IMPLEMENTATION_PKG(SeleniumTestsContext.CUCUMBER_IMPLEMENTATION_PKG, String.class),
+    	TEST_ENV(SeleniumTestsContext.TEST_ENV, String.class),
+    	APP_PACKAGE(SeleniumTestsContext.APP_PACKAGE, String.class),
+    	APP_ACTIVITY(SeleniumTestsContext.APP_ACTIVITY, String.class),
+    	APP_WAIT_ACTIVITY(SeleniumTestsContext.APP_WAIT_ACTIVITY, String.class),
+    	NEW_COMMAND_TIMEOUT(SeleniumTestsContext.NEW_COMMAND_TIMEOUT, Integer.class),
+    	VERSION(SeleniumTestsContext.VERSION, String.class),
+    	PLATFORM(SeleniumTestsContext.PLATFORM, String.class),
+    	CLOUD_API_KEY(SeleniumTestsContext.CLOUD_API_KEY, String.class),
+    	PROJECT_NAME(SeleniumTestsContext.PROJECT_NAME, String.class),
+    	TEST_TYPE(SeleniumTestsContext.TEST_TYPE, TestType.class);
+    	
+    	private final String key;
+    	private final Class<?> type;
+    	
+    	private KnownParameter(final String key, final Class<?> type) {
+    		this.key = key;
+    		this.type = type;
+    	}
+    	
+    	/**
+    	 * Values coming from test parameters are strings, they are parsed once when stored
+    	 */
+    	private Object convert(final Object value) {
+    		if (!(value instanceof String) || type == String.class) {
+    			return value;
+    		} else if (type == Boolean.class) {
+    			
+    			// same parsing as test parameters: anything else than "true", ignoring case, is false
+    			return Boolean.parseBoolean((String) value);
+    		} else if (type == Integer.class) {
+    			try {
+    				return Integer.valueOf(((String) value).trim());
+    			} catch (NumberFormatException e) {
+    				return value;
+    			}
+    		}
+    		return value;
+    	}
+    }
+    private static final Map<String, KnownParameter> KNOWN_PARAMETERS = new HashMap<String, KnownParameter>();
+    static {
+    	for (KnownParameter parameter: KnownParameter.values()) {
+    		KNOWN_PARAMETERS.put(parameter.key, parameter);
+    	}
+    }
+    private final Object[] parameterValues;
+    
+    /* Data object to store custom context data. As null values are not allowed, they are stored as NULL_VALUE */
+    private static final Object NULL_VALUE = new Object();
+    private Map<String, Object> contextDataMap = new ConcurrentHashMap<String, Object>();
+    
+    /* Data resolved once for the test (XmlTest), shared by contexts of all its methods. contextDataMap then only contains
+     * attributes modified by test method */
+    private final Map<String, Object> resolvedDataMap;
+    private volatile Map<String, Object> snapshot = null;
+    
+    /* parameters and system properties from which context has been resolved */
+    private final Map<String, String> resolvedParameters;
+    private final Map<String, String> resolvedProperties = new HashMap<String, String>();
+    private Map<String, String> testVariables = new ConcurrentHashMap<String, String>();
 
     private ITestContext testNGContext = null;
 
@@ -241,6 +357,9 @@ public class SeleniumTestsContext {
 
     public SeleniumTestsContext(final ITestContext context) {
         this.testNGContext = context;
+        this.resolvedDataMap = Collections.emptyMap();
+        this.parameterValues = new Object[KnownParameter.values().length];
+        this.resolvedParameters = getTestParameters();
         
         // initialize folders
         if (context != null && context.getCurrentXmlTest() != null) {
@@ -252,6 +371,8 @@ public class SeleniumTestsContext {
         setImplicitWaitTimeout(getIntValueForTest(IMPLICIT_WAIT_TIME_OUT, System.getProperty(IMPLICIT_WAIT_TIME_OUT)));
         setExplicitWaitTimeout(getIntValueForTest(EXPLICIT_WAIT_TIME_OUT, System.getProperty(EXPLICIT_WAIT_TIME_OUT)));
         setPageLoadTimeout(getIntValueForTest(PAGE_LOAD_TIME_OUT, System.getProperty(PAGE_LOAD_TIME_OUT)));
+        setBrowserCommandTimeout(getIntValueForTest(BROWSER_COMMAND_TIMEOUT, System.getProperty(BROWSER_COMMAND_TIMEOUT)));
+        setTestTimeBudget(getIntValueForTest(TEST_TIME_BUDGET, System.getProperty(TEST_TIME_BUDGET)));
         setWebDriverGrid(getValueForTest(WEB_DRIVER_GRID, System.getProperty(WEB_DRIVER_GRID)));
         setRunMode(getValueForTest(RUN_MODE, System.getProperty(RUN_MODE)));
         setBrowser(getValueForTest(BROWSER, System.getProperty(BROWSER)));
@@ -261,8 +382,10 @@ public class SeleniumTestsContext {
         setOperaUserProfilePath(getValueForTest(OPERA_USER_PROFILE_PATH, System.getProperty(OPERA_USER_PROFILE_PATH)));
         setFirefoxBinary(getValueForTest(FIREFOX_BINARY_PATH, System.getProperty(FIREFOX_BINARY_PATH)));
         setChromeDriverPath(getValueForTest(CHROME_DRIVER_PATH, System.getProperty(CHROME_DRIVER_PATH)));
+        setChromeProfileTemplatePath(getValueForTest(CHROME_PROFILE_TEMPLATE_PATH, System.getProperty(CHROME_PROFILE_TEMPLATE_PATH)));
         setIEDriverPath(getValueForTest(IE_DRIVER_PATH, System.getProperty(IE_DRIVER_PATH)));
         setUserAgent(getValueForTest(USER_AGENT, System.getProperty(USER_AGENT)));
+        setHeadlessBrowser(getBoolValueForTest(HEADLESS_BROWSER, System.getProperty(HEADLESS_BROWSER)));
         setAssumeUntrustedCertificateIssuer(getBoolValueForTest(Set_Assume_Untrusted_Certificate_Issuer, System.getProperty(Set_Assume_Untrusted_Certificate_Issuer)));
         setAcceptUntrustedCertificates(getBoolValueForTest(Set_Accept_Untrusted_Certificates, System.getProperty(Set_Accept_Untrusted_Certificates)));
         setJavascriptEnabled(getBoolValueForTest(ENABLE_JAVASCRIPT, System.getProperty(ENABLE_JAVASCRIPT)));
@@ -280,9 +403,11 @@ public class SeleniumTestsContext {
         setReportGenerationConfig(getValueForTest(REPORT_GENERATION_CONFIG, System.getProperty(REPORT_GENERATION_CONFIG)));
 
         setOpenReportInBrowser(getValueForTest(OPEN_REPORT_IN_BROWSER, System.getProperty(OPEN_REPORT_IN_BROWSER)));
+        setReportRenderingThreads(getIntValueForTest(REPORT_RENDERING_THREADS, System.getProperty(REPORT_RENDERING_THREADS)));
 
         setCaptureSnapshot(getBoolValueForTest(CAPTURE_SNAPSHOT, System.getProperty(CAPTURE_SNAPSHOT)));
         setEnableExceptionListener(getBoolValueForTest(ENABLE_EXCEPTION_LISTENER, System.getProperty(ENABLE_EXCEPTION_LISTENER)));
+        setDriverExceptionRules(getValueForTest(DRIVER_EXCEPTION_RULES, System.getProperty(DRIVER_EXCEPTION_RULES)));
 
         setDpTagsInclude(getValueForTest(DP_TAGS_INCLUDE, System.getProperty(DP_TAGS_INCLUDE)));
         setDpTagsExclude(getValueForTest(DP_TAGS_EXCLUDE, System.getProperty(DP_TAGS_EXCLUDE)));
@@ -346,6 +471,64 @@ public class SeleniumTestsContext {
         }
     }
     
+    /**
+     * Creates the context of a test method from a resolved one. Parameters are not resolved again, they are shared 
+     * with the resolved context and only attributes modified by the method are stored in this context
+     * @param resolvedContext	context built from test parameters, which must not be modified afterwards
+     */
+    public SeleniumTestsContext(final SeleniumTestsContext resolvedContext) {
+    	this.testNGContext = resolvedContext.testNGContext;
+    	this.resolvedDataMap = resolvedContext.getSnapshot();
+    	this.parameterValues = resolvedContext.parameterValues.clone();
+    	this.resolvedParameters = resolvedContext.resolvedParameters;
+    	this.resolvedProperties.putAll(resolvedContext.resolvedProperties);
+    	this.testVariables.putAll(resolvedContext.testVariables);
+    	
+    	// budget starts with the test method
+    	setTestTimeBudget(getTestTimeBudget());
+    }
+    
+    /**
+     * Returns an immutable view of all attributes of this context
+     */
+    private Map<String, Object> getSnapshot() {
+    	if (snapshot == null) {
+    		Map<String, Object> allAttributes = new HashMap<String, Object>(resolvedDataMap);
+    		allAttributes.putAll(contextDataMap);
+    		snapshot = Collections.unmodifiableMap(allAttributes);
+    	}
+    	return snapshot;
+    }
+    
+    /**
+     * Tells whether this context still reflects the test parameters and system properties it has been resolved from
+     * @return false if one of them changed since context creation
+     */
+    public boolean isResolutionUpToDate() {
+    	if (!resolvedParameters.equals(getTestParameters())) {
+    		return false;
+    	}
+    	for (Entry<String, String> property: resolvedProperties.entrySet()) {
+    		if (!Objects.equals(System.getProperty(property.getKey()), property.getValue())) {
+    			return false;
+    		}
+    	}
+    	return true;
+    }
+    
+    /**
+     * Parameters of the current test, including those of the suite
+     */
+    private Map<String, String> getTestParameters() {
+    	if (testNGContext == null) {
+    		return Collections.emptyMap();
+    	} else if (testNGContext.getCurrentXmlTest() == null) {
+    		return new HashMap<String, String>(testNGContext.getSuite().getXmlSuite().getParameters());
+    	} else {
+    		return testNGContext.getCurrentXmlTest().getAllParameters();
+    	}
+    }
+    
     /**
      * From platform name, in case of Desktop platform, do nothing and in case of mobile, extract OS version from name
      *
@@ -382,21 +565,21 @@ public class SeleniumTestsContext {
     private void configureTestType() {
     	if (getPlatform().toLowerCase().startsWith("android")) {
         	if (getApp().isEmpty()) { // a browser name should be defined
-        		setAttribute(TEST_TYPE, TestType.APPIUM_WEB_ANDROID);
+        		setValue(KnownParameter.TEST_TYPE, TestType.APPIUM_WEB_ANDROID);
         	} else {
-        		setAttribute(TEST_TYPE, TestType.APPIUM_APP_ANDROID);
+        		setValue(KnownParameter.TEST_TYPE, TestType.APPIUM_APP_ANDROID);
         	}
         } else if (getPlatform().toLowerCase().startsWith("ios")) {
         	if (getApp().isEmpty()) { // a browser name should be defined
-        		setAttribute(TEST_TYPE, TestType.APPIUM_WEB_IOS);
+        		setValue(KnownParameter.TEST_TYPE, TestType.APPIUM_WEB_IOS);
         	} else {
-        		setAttribute(TEST_TYPE, TestType.APPIUM_APP_IOS);
+        		setValue(KnownParameter.TEST_TYPE, TestType.APPIUM_APP_IOS);
         	}
         } else {
         	if (getBrowser().isEmpty()) {
-        		setAttribute(TEST_TYPE, TestType.NON_GUI);
+        		setValue(KnownParameter.TEST_TYPE, TestType.NON_GUI);
         	} else {
-        		setAttribute(TEST_TYPE, TestType.WEB);
+        		setValue(KnownParameter.TEST_TYPE, TestType.WEB);
         	}
         }
     }
@@ -407,7 +590,7 @@ public class SeleniumTestsContext {
     private void updateDeviceMobileVersion() {
     	HashMap<String, String> deviceList = getDeviceList();
     	if (getDeviceName() != null && !getDeviceName().isEmpty() && !deviceList.isEmpty()) {
-    		setAttribute(PLATFORM, deviceList.get(getDeviceName()));
+    		setValue(KnownParameter.PLATFORM, deviceList.get(getDeviceName()));
     	}
     }
 
@@ -435,43 +618,55 @@ public class SeleniumTestsContext {
     }
 
     public Boolean getAddJSErrorCollectorExtension() {
-        return (Boolean) getAttribute(ADD_JS_ERROR_COLLECTOR_EXTENSION);
+        return (Boolean) getValue(KnownParameter.ADD_JS_ERROR_COLLECTOR_EXTENSION);
     }
 
     public Object getAttribute(final String name) {
+    	KnownParameter parameter = KNOWN_PARAMETERS.get(name);
+    	if (parameter != null) {
+    		return parameterValues[parameter.ordinal()];
+    	}
+    	
         Object obj = contextDataMap.get(name);
-        return obj == null ? null : obj;
+        if (obj == null) {
+        	obj = resolvedDataMap.get(name);
+        }
+        return obj == NULL_VALUE ? null : obj;
     }
 
     public String getBrowserDownloadDir() {
-        if (getAttribute(BROWSER_DOWNLOAD_DIR) != null) {
-            return (String) getAttribute(BROWSER_DOWNLOAD_DIR);
+        if (getValue(KnownParameter.BROWSER_DOWNLOAD_DIR) != null) {
+            return (String) getValue(KnownParameter.BROWSER_DOWNLOAD_DIR);
         } else {
             return this.getOutputDirectory() + "\\downloads\\";
         }
     }
 
     public boolean getCaptureSnapshot() {
-        if (getAttribute(CAPTURE_SNAPSHOT) == null) {
+        if (getValue(KnownParameter.CAPTURE_SNAPSHOT) == null) {
 
             // IE grid default value set to false
             if (this.getRunMode().equalsIgnoreCase("ExistingGrid")
                     && (this.getBrowser().contains("iexplore") || this.getBrowser().contains("safari"))) {
-                this.setAttribute(CAPTURE_SNAPSHOT, false);
+                this.setValue(KnownParameter.CAPTURE_SNAPSHOT, false);
             } else {
-                this.setAttribute(CAPTURE_SNAPSHOT, true);
+                this.setValue(KnownParameter.CAPTURE_SNAPSHOT, true);
             }
         }
 
-        return (Boolean) getAttribute(CAPTURE_SNAPSHOT);
+        return (Boolean) getValue(KnownParameter.CAPTURE_SNAPSHOT);
     }
 
     public boolean getEnableExceptionListener() {
-        return (Boolean) getAttribute(ENABLE_EXCEPTION_LISTENER);
+        return (Boolean) getValue(KnownParameter.ENABLE_EXCEPTION_LISTENER);
+    }
+    
+    public String getDriverExceptionRules() {
+    	return (String) getValue(KnownParameter.DRIVER_EXCEPTION_RULES);
     }
     
     public boolean getJsErrorCollectorExtension() {
-    	return (Boolean) getAttribute(ADD_JS_ERROR_COLLECTOR_EXTENSION);
+    	return (Boolean) getValue(KnownParameter.ADD_JS_ERROR_COLLECTOR_EXTENSION);
     }
 
     public String getChromeBinPath() {
@@ -479,21 +674,25 @@ public class SeleniumTestsContext {
     }
 
     public String getChromeDriverPath() {
-        return (String) getAttribute(CHROME_DRIVER_PATH);
+        return (String) getValue(KnownParameter.CHROME_DRIVER_PATH);
+    }
+    
+    public String getChromeProfileTemplatePath() {
+    	return (String) getValue(KnownParameter.CHROME_PROFILE_TEMPLATE_PATH);
     }
 
     public String getDPTagsExclude() {
-        return (String) getAttribute(DP_TAGS_EXCLUDE);
+        return (String) getValue(KnownParameter.DP_TAGS_EXCLUDE);
     }
 
     public String getDPTagsInclude() {
-        return (String) getAttribute(DP_TAGS_INCLUDE);
+        return (String) getValue(KnownParameter.DP_TAGS_INCLUDE);
     }
 
     public int getExplicitWaitTimeout() {
         Integer timeout;
         try {
-            timeout = (Integer) getAttribute(EXPLICIT_WAIT_TIME_OUT);
+            timeout = (Integer) getValue(KnownParameter.EXPLICIT_WAIT_TIME_OUT);
         } catch (Exception e) {
             timeout = 15;
         }
@@ -506,52 +705,60 @@ public class SeleniumTestsContext {
     }
 
     public String getFirefoxBinPath() {
-        return (String) getAttribute(FIREFOX_BINARY_PATH);
+        return (String) getValue(KnownParameter.FIREFOX_BINARY_PATH);
     }
 
     public String getFirefoxUserProfilePath() {
-        return (String) getAttribute(FIREFOX_USER_PROFILE_PATH);
+        return (String) getValue(KnownParameter.FIREFOX_USER_PROFILE_PATH);
     }
 
     public String getIEDriverPath() {
-        return (String) getAttribute(IE_DRIVER_PATH);
+        return (String) getValue(KnownParameter.IE_DRIVER_PATH);
     }
 
     public int getImplicitWaitTimeout() {
         try {
-            return (Integer) getAttribute(IMPLICIT_WAIT_TIME_OUT);
+            return (Integer) getValue(KnownParameter.IMPLICIT_WAIT_TIME_OUT);
         } catch (Exception e) {
             return 5;
         }
     }
 
     public String getNtlmAuthTrustedUris() {
-        return (String) getAttribute(NTLM_AUTH_TRUSTED_URIS);
+        return (String) getValue(KnownParameter.NTLM_AUTH_TRUSTED_URIS);
     }
 
     public String getReportGenerationConfig() {
-        return (String) getAttribute(REPORT_GENERATION_CONFIG);
+        return (String) getValue(KnownParameter.REPORT_GENERATION_CONFIG);
     }
 
     public String getOpenReportInBrowser() {
-        return (String) getAttribute(OPEN_REPORT_IN_BROWSER);
+        return (String) getValue(KnownParameter.OPEN_REPORT_IN_BROWSER);
+    }
+
+    public int getReportRenderingThreads() {
+        return (Integer) getValue(KnownParameter.REPORT_RENDERING_THREADS);
     }
 	
 	public Boolean getAssumeUntrustedCertificateIssuer() {
-        return (Boolean) getAttribute(Set_Assume_Untrusted_Certificate_Issuer);
+        return (Boolean) getValue(KnownParameter.Set_Assume_Untrusted_Certificate_Issuer);
     }
 	
 	public Boolean getJavascriptEnabled() {
-		return (Boolean) getAttribute(ENABLE_JAVASCRIPT);
+		return (Boolean) getValue(KnownParameter.ENABLE_JAVASCRIPT);
+	}
+	
+	public Boolean isHeadlessBrowser() {
+		return (Boolean) getValue(KnownParameter.HEADLESS_BROWSER);
 	}
 
 	public Boolean getAcceptUntrustedCertificates() {
-        return (Boolean) getAttribute(Set_Accept_Untrusted_Certificates);
+        return (Boolean) getValue(KnownParameter.Set_Accept_Untrusted_Certificates);
     }
 
 
     public String getOperaUserProfilePath() {
-        return (String) getAttribute(OPERA_USER_PROFILE_PATH);
+        return (String) getValue(KnownParameter.OPERA_USER_PROFILE_PATH);
     }
 
     public String getOutputDirectory() {
@@ -560,15 +767,34 @@ public class SeleniumTestsContext {
 
     public int getPageLoadTimeout() {
         try {
-            return (Integer) getAttribute(PAGE_LOAD_TIME_OUT);
+            return (Integer) getValue(KnownParameter.PAGE_LOAD_TIME_OUT);
         } catch (Exception e) {
             return 90;
         }
     }
 
+    public int getTestTimeBudget() {
+    	return (Integer) getValue(KnownParameter.TEST_TIME_BUDGET);
+    }
+    
+    /**
+     * Time left before the test budget is exhausted
+     * @return remaining time in milliseconds, Long.MAX_VALUE if no budget is set
+     */
+    public long getRemainingTestTime() {
+    	if (testDeadline <= 0) {
+    		return Long.MAX_VALUE;
+    	}
+    	return Math.max(0, testDeadline - System.currentTimeMillis());
+    }
+
+    public int getBrowserCommandTimeout() {
+    	return (Integer) getValue(KnownParameter.BROWSER_COMMAND_TIMEOUT);
+    }
+
     public int getSshCommandWait() {
         try {
-            return (Integer) getAttribute(SSH_COMMAND_WAIT);
+            return (Integer) getValue(KnownParameter.SSH_COMMAND_WAIT);
         } catch (Exception e) {
             return 5000; // Default
         }
@@ -599,34 +825,34 @@ public class SeleniumTestsContext {
     }
 
     public String getTestDataFile() {
-        return (String) getAttribute(TEST_DATA_FILE);
+        return (String) getValue(KnownParameter.TEST_DATA_FILE);
     }
 
     public TestType getTestType() {
-        return (TestType) getAttribute(TEST_TYPE);
+        return (TestType) getValue(KnownParameter.TEST_TYPE);
     }
 
     public String getCucumberTags() {
-    	return (String) getAttribute(CUCUMBER_TAGS);
+    	return (String) getValue(KnownParameter.CUCUMBER_TAGS);
     }
     
     public List<String> getCucumberTests() {
     	List<String> tests = new ArrayList<String>();
-    	if (((String)getAttribute(CUCUMBER_TESTS)).isEmpty()) {
+    	if (((String)getValue(KnownParameter.CUCUMBER_TESTS)).isEmpty()) {
     		return tests;
     	}
-    	for (String test: ((String)getAttribute(CUCUMBER_TESTS)).replace("\"", "").replace("&nbsp;", " ").split(",")) {
+    	for (String test: ((String)getValue(KnownParameter.CUCUMBER_TESTS)).replace("\"", "").replace("&nbsp;", " ").split(",")) {
     		tests.add(test.trim());
     	}
     	return tests;
     }
     
     public String getCucmberPkg() {
-    	return (String) getAttribute(CUCUMBER_IMPLEMENTATION_PKG);
+    	return (String) getValue(KnownParameter.CUCUMBER_IMPLEMENTATION_PKG);
     }
     
     public String getTestEnv() {
-    	return (String) getAttribute(TEST_ENV);
+    	return (String) getValue(KnownParameter.TEST_ENV);
     }
     
     public String getTestMethodSignature() {
@@ -642,11 +868,11 @@ public class SeleniumTestsContext {
     }
 
     public String getWebDriverListener() {
-        return (String) getAttribute(WEB_DRIVER_LISTENER);
+        return (String) getValue(KnownParameter.WEB_DRIVER_LISTENER);
     }
 
     public String getUserAgent() {
-        return (String) getAttribute(USER_AGENT);
+        return (String) getValue(KnownParameter.USER_AGENT);
     }
 
     public List<Throwable> getVerificationFailures(final ITestResult result) {
@@ -656,37 +882,37 @@ public class SeleniumTestsContext {
     }
 
     public String getWebBrowserVersion() {
-        return (String) getAttribute(BROWSER_VERSION);
+        return (String) getValue(KnownParameter.BROWSER_VERSION);
     }
 
     public String getWebDriverGrid() {
-        return (String) getAttribute(WEB_DRIVER_GRID);
+        return (String) getValue(KnownParameter.WEB_DRIVER_GRID);
     }
 
     public String getWebProxyAddress() {
-        return (String) getAttribute(WEB_PROXY_ADDRESS);
+        return (String) getValue(KnownParameter.WEB_PROXY_ADDRESS);
     }
 
     public String getWebProxyType() {
-        return (String) getAttribute(WEB_PROXY_TYPE);
+        return (String) getValue(KnownParameter.WEB_PROXY_TYPE);
     }
 
     public String getBrowser() {
-        return (String) getAttribute(BROWSER);
+        return (String) getValue(KnownParameter.BROWSER);
     }
 
     public String getRunMode() {
-        return (String) getAttribute(RUN_MODE);
+        return (String) getValue(KnownParameter.RUN_MODE);
     }
     
     @SuppressWarnings("unchecked")
 	public HashMap<String, String> getDeviceList() {
     	HashMap<String, String> deviceList = new HashMap<String, String>();
-    	if (getAttribute(DEVICE_LIST) == null || getAttribute(DEVICE_LIST).equals("{}")) {
+    	if (getValue(KnownParameter.DEVICE_LIST) == null || getValue(KnownParameter.DEVICE_LIST).equals("{}")) {
     		return deviceList;
     	}
     	
-    	JSONObject devList = new JSONObject((String)getAttribute(DEVICE_LIST));
+    	JSONObject devList = new JSONObject((String)getValue(KnownParameter.DEVICE_LIST));
     	for (String key: ((Set<String>)devList.keySet())) {
     		deviceList.put(key, devList.getString(key));
     	}
@@ -694,11 +920,11 @@ public class SeleniumTestsContext {
     }
 
     public int getWebSessionTimeout() {
-        return (Integer) getAttribute(WEB_SESSION_TIME_OUT);
+        return (Integer) getValue(KnownParameter.WEB_SESSION_TIME_OUT);
     }
 
     public String getAppiumServerURL() {
-        return (String) getAttribute(APPIUM_SERVER_URL);
+        return (String) getValue(KnownParameter.APPIUM_SERVER_URL);
     }
 
     public String getMobilePlatformVersion() {
@@ -706,47 +932,62 @@ public class SeleniumTestsContext {
     }
 
     public String getDeviceName() {
-        return (String) getAttribute(DEVICE_NAME);
+        return (String) getValue(KnownParameter.DEVICE_NAME);
     }
 
     public String getApp() {
-        return (String) getAttribute(APP);
+        return (String) getValue(KnownParameter.APP);
     }
 
     public String getAppPackage() {
-        return (String) getAttribute(APP_PACKAGE);
+        return (String) getValue(KnownParameter.APP_PACKAGE);
     }
 
     public String getAppActivity() {
-        return (String) getAttribute(APP_ACTIVITY);
+        return (String) getValue(KnownParameter.APP_ACTIVITY);
     }
     
     public String getAppWaitActivity() {
-    	return (String) getAttribute(APP_WAIT_ACTIVITY);
+    	return (String) getValue(KnownParameter.APP_WAIT_ACTIVITY);
     }
 
     public int getNewCommandTimeout() {
-        return (Integer) getAttribute(NEW_COMMAND_TIMEOUT);
+        return (Integer) getValue(KnownParameter.NEW_COMMAND_TIMEOUT);
     }
 
     public String getVersion() {
-        return (String) getAttribute(VERSION);
+        return (String) getValue(KnownParameter.VERSION);
     }
 
     public String getPlatform() {
-        return (String) getAttribute(PLATFORM);
+        return (String) getValue(KnownParameter.PLATFORM);
     }
     
     public String getCloudApiKey() {
-    	return (String) getAttribute(CLOUD_API_KEY);
+    	return (String) getValue(KnownParameter.CLOUD_API_KEY);
     }
     
     public String getProjectName() {
-    	return (String) getAttribute(PROJECT_NAME);
+    	return (String) getValue(KnownParameter.PROJECT_NAME);
     }
     
-    public HashMap<String, String> getConfiguration() {
-    	return (HashMap<String, String>) getAttribute(TEST_CONFIG);
+    /**
+     * Returns the test configuration itself, changes made on it are seen by the test. It's no more a HashMap as configuration
+     * is layered on top of the shared config.ini values (see {@link LayeredConfiguration})
+     * @deprecated use {@link #getTestConfiguration()}
+     */
+    @Deprecated
+    public Map<String, String> getConfiguration() {
+    	return getTestConfiguration();
+    }
+    
+    /**
+     * Returns configuration of the current test: config.ini values for the environment, overridden by test variables
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+	public Map<String, String> getTestConfiguration() {
+    	return (Map<String, String>) getAttribute(TEST_CONFIG);
     }
     
     //Methods for ID_Mapping
@@ -795,7 +1036,7 @@ public class SeleniumTestsContext {
     
     public boolean isUseFirefoxDefaultProfile() {
         try {
-            return (Boolean) getAttribute(USE_DEFAULT_FIREFOX_PROFILE);
+            return (Boolean) getValue(KnownParameter.USE_DEFAULT_FIREFOX_PROFILE);
         } catch (Exception e) {
             return true; // Default
         }
@@ -804,7 +1045,7 @@ public class SeleniumTestsContext {
 
     public boolean isSoftAssertEnabled() {
         try {
-            return (Boolean) getAttribute(SOFT_ASSERT_ENABLED);
+            return (Boolean) getValue(KnownParameter.SOFT_ASSERT_ENABLED);
         } catch (Exception e) {
             return false; // Default
         }
@@ -812,14 +1053,27 @@ public class SeleniumTestsContext {
 
     public boolean isWebProxyEnabled() {
         try {
-            return (Boolean) getAttribute(WEB_PROXY_ENABLED);
+            return (Boolean) getValue(KnownParameter.WEB_PROXY_ENABLED);
         } catch (Exception e) {
             return false; // Default
         }
     }
 
+    private Object getValue(final KnownParameter parameter) {
+    	return parameterValues[parameter.ordinal()];
+    }
+    
+    private void setValue(final KnownParameter parameter, final Object value) {
+    	parameterValues[parameter.ordinal()] = parameter.convert(value);
+    }
+
     public void setAttribute(final String name, final Object value) {
-        contextDataMap.put(name, value);
+    	KnownParameter parameter = KNOWN_PARAMETERS.get(name);
+    	if (parameter != null) {
+    		setValue(parameter, value);
+    		return;
+    	}
+        contextDataMap.put(name, value == null ? NULL_VALUE : value);
     }
 
     /**
@@ -841,8 +1095,9 @@ public class SeleniumTestsContext {
                 String attributeName = entry.getKey();
 
                 
-                if (!contextDataMap.containsKey(entry.getKey())) {
+                if (!KNOWN_PARAMETERS.containsKey(attributeName) && !contextDataMap.containsKey(attributeName)) {
                     String sysPropertyValue = System.getProperty(entry.getKey());
+                    resolvedProperties.put(attributeName, sysPropertyValue);
                     String suiteValue = entry.getValue();
                     setContextAttribute(attributeName, sysPropertyValue, suiteValue, null);
                     testVariables.put(attributeName, getAttribute(attributeName).toString());
@@ -862,6 +1117,7 @@ public class SeleniumTestsContext {
      * @param  defaultValue
      */
     private String getValueForTest(final String attributeName, final String sysPropertyValue) {
+    	resolvedProperties.put(attributeName, sysPropertyValue);
     	String suiteValue = null;
         if (testNGContext != null && testNGContext.getCurrentXmlTest() != null) {
         	
@@ -906,7 +1162,7 @@ public class SeleniumTestsContext {
     private void setContextAttribute(final String attributeName, final String sysPropertyValue, final String suiteValue,
             final String defaultValue) {
 
-        contextDataMap.put(attributeName,
+        setAttribute(attributeName,
             (sysPropertyValue != null ? sysPropertyValue : (suiteValue != null ? suiteValue : defaultValue)));
 
     }
@@ -915,39 +1171,58 @@ public class SeleniumTestsContext {
     	if (testDataFile == null) {
     		testDataFile = "testCase";
     	}
-        setAttribute(TEST_DATA_FILE, testDataFile);
+        setValue(KnownParameter.TEST_DATA_FILE, testDataFile);
     }
     
     public void setWebSessionTimeout(Integer timeout) {
     	if (timeout == null) {
     		timeout = 90000;
     	}
-    	setAttribute(WEB_SESSION_TIME_OUT, timeout);
+    	setValue(KnownParameter.WEB_SESSION_TIME_OUT, timeout);
     }
 
     public void setImplicitWaitTimeout(Integer timeout) {
     	if (timeout == null) {
     		timeout = 5;
     	}
-        setAttribute(IMPLICIT_WAIT_TIME_OUT, timeout);
+        setValue(KnownParameter.IMPLICIT_WAIT_TIME_OUT, timeout);
     }
     
     public void setExplicitWaitTimeout(Integer timeout) {
     	if (timeout == null) {
     		timeout = 15;
     	}
-        setAttribute(EXPLICIT_WAIT_TIME_OUT, timeout);
+        setValue(KnownParameter.EXPLICIT_WAIT_TIME_OUT, timeout);
     }
 
     public void setPageLoadTimeout(Integer timeout) {
     	if (timeout == null) {
     		timeout = 90;
     	}
-        setAttribute(PAGE_LOAD_TIME_OUT, timeout);
+        setValue(KnownParameter.PAGE_LOAD_TIME_OUT, timeout);
+    }
+    
+    /**
+     * Set the time budget of the test. As context is created for each test method, deadline starts now
+     * @param budget	budget in seconds, 0 for no limit
+     */
+    public void setTestTimeBudget(Integer budget) {
+    	if (budget == null) {
+    		budget = 0;
+    	}
+    	testDeadline = budget > 0 ? System.currentTimeMillis() + budget * 1000L : 0;
+    	setValue(KnownParameter.TEST_TIME_BUDGET, budget);
+    }
+    
+    public void setBrowserCommandTimeout(Integer timeout) {
+    	if (timeout == null) {
+    		timeout = 180;
+    	}
+    	setValue(KnownParameter.BROWSER_COMMAND_TIMEOUT, timeout);
     }
     
     public void setWebDriverGrid(final String driverGrid) {
-        setAttribute(WEB_DRIVER_GRID, driverGrid);
+        setValue(KnownParameter.WEB_DRIVER_GRID, driverGrid);
     }
     
     public void setRunMode(String runMode) {
@@ -956,7 +1231,7 @@ public class SeleniumTestsContext {
     	} 
     	DriverMode.fromString(runMode);
 
-        setAttribute(RUN_MODE, runMode);
+        setValue(KnownParameter.RUN_MODE, runMode);
     }
 
     public void setBrowser(String browser) {
@@ -964,198 +1239,220 @@ public class SeleniumTestsContext {
     		browser = "*firefox";
     	} 
     	BrowserType.getBrowserType(browser);
-    	setAttribute(BROWSER, browser);
+    	setValue(KnownParameter.BROWSER, browser);
     }
     
     public void setBrowserVersion(String browserVersion) {
-    	setAttribute(BROWSER_VERSION, browserVersion);
+    	setValue(KnownParameter.BROWSER_VERSION, browserVersion);
     }
     
     public void setFirefoxUserProfilePath(String ffPath) {
-    	setAttribute(FIREFOX_USER_PROFILE_PATH, ffPath);
+    	setValue(KnownParameter.FIREFOX_USER_PROFILE_PATH, ffPath);
     }
     
     public void setUseDefaultFirefoxProfile(Boolean useDefaultffProfile) {
 		if (useDefaultffProfile == null) {
 			useDefaultffProfile = true;
     	}
-    	setAttribute(USE_DEFAULT_FIREFOX_PROFILE, useDefaultffProfile);
+    	setValue(KnownParameter.USE_DEFAULT_FIREFOX_PROFILE, useDefaultffProfile);
     }
     
     public void setOperaUserProfilePath(String path) {
-    	setAttribute(OPERA_USER_PROFILE_PATH, path);
+    	setValue(KnownParameter.OPERA_USER_PROFILE_PATH, path);
     }
     
     public void setFirefoxBinary(String path) {
-    	setAttribute(FIREFOX_BINARY_PATH, path);
+    	setValue(KnownParameter.FIREFOX_BINARY_PATH, path);
     }
     
     public void setChromeDriverPath(String path) {
-    	setAttribute(CHROME_DRIVER_PATH, path);
+    	setValue(KnownParameter.CHROME_DRIVER_PATH, path);
+    }
+    
+    public void setChromeProfileTemplatePath(String path) {
+    	setValue(KnownParameter.CHROME_PROFILE_TEMPLATE_PATH, path);
     }
     
     public void setIEDriverPath(String path) {
-    	setAttribute(IE_DRIVER_PATH, path);
+    	setValue(KnownParameter.IE_DRIVER_PATH, path);
     }
     
     public void setUserAgent(String path) {
-    	setAttribute(USER_AGENT, path);
+    	setValue(KnownParameter.USER_AGENT, path);
     }
     
     public void setAssumeUntrustedCertificateIssuer(Boolean assume) {
     	if (assume == null) {
     		assume = true;
     	}
-    	setAttribute(Set_Assume_Untrusted_Certificate_Issuer, assume);
+    	setValue(KnownParameter.Set_Assume_Untrusted_Certificate_Issuer, assume);
     }
     
     public void setAcceptUntrustedCertificates(Boolean accept) {
     	if (accept == null) {
     		accept = true;
     	}
-    	setAttribute(Set_Accept_Untrusted_Certificates, accept);
+    	setValue(KnownParameter.Set_Accept_Untrusted_Certificates, accept);
     }
     
     public void setJavascriptEnabled(Boolean enabled) {
     	if (enabled == null) {
     		enabled = true;
     	}
-    	setAttribute(ENABLE_JAVASCRIPT, enabled);
+    	setValue(KnownParameter.ENABLE_JAVASCRIPT, enabled);
+    }
+   
+    public void setHeadlessBrowser(Boolean headless) {
+    	if (headless == null) {
+    		headless = false;
+    	}
+    	setValue(KnownParameter.HEADLESS_BROWSER, headless);
     }
    
     public void setNtlmAuthTrustedUris(String uris) {
-    	setAttribute(NTLM_AUTH_TRUSTED_URIS, uris);
+    	setValue(KnownParameter.NTLM_AUTH_TRUSTED_URIS, uris);
     }
     
     public void setBrowserDownloadDir(String downloadDir) {
-    	setAttribute(BROWSER_DOWNLOAD_DIR, downloadDir);
+    	setValue(KnownParameter.BROWSER_DOWNLOAD_DIR, downloadDir);
     }
     
     public void setJsErrorCollectorExtension(Boolean enabled) {
     	if (enabled == null) {
     		enabled = false;
     	}
-    	setAttribute(ADD_JS_ERROR_COLLECTOR_EXTENSION, enabled);
+    	setValue(KnownParameter.ADD_JS_ERROR_COLLECTOR_EXTENSION, enabled);
     }
    
     public void setWebProxyEnabled(Boolean enabled) {
     	if (enabled == null) {
     		enabled = false;
     	}
-    	setAttribute(WEB_PROXY_ENABLED, enabled);
+    	setValue(KnownParameter.WEB_PROXY_ENABLED, enabled);
     }
     
     public void setProxyType(String proxyType) {
-    	setAttribute(WEB_PROXY_TYPE, proxyType);
+    	setValue(KnownParameter.WEB_PROXY_TYPE, proxyType);
     }
     
     public void setProxyAddress(String proxyAddress) {
-    	setAttribute(WEB_PROXY_ADDRESS, proxyAddress);
+    	setValue(KnownParameter.WEB_PROXY_ADDRESS, proxyAddress);
     }
     
     public void setReportGenerationConfig(String config) {
     	if (config == null) {
     		config = "summaryPerSuite";
     	}
-    	setAttribute(REPORT_GENERATION_CONFIG, config);
+    	setValue(KnownParameter.REPORT_GENERATION_CONFIG, config);
     }
     
     public void setOpenReportInBrowser(String browserName) {
-    	setAttribute(OPEN_REPORT_IN_BROWSER, browserName);
+    	setValue(KnownParameter.OPEN_REPORT_IN_BROWSER, browserName);
+    }
+
+    public void setReportRenderingThreads(Integer threads) {
+    	if (threads == null || threads < 1) {
+    		threads = Runtime.getRuntime().availableProcessors();
+    	}
+    	setValue(KnownParameter.REPORT_RENDERING_THREADS, threads);
     }
     
     public void setCaptureSnapshot(Boolean capture) {
     	if (capture == null) {
     		capture = true;
     	}
-    	setAttribute(CAPTURE_SNAPSHOT, capture);
+    	setValue(KnownParameter.CAPTURE_SNAPSHOT, capture);
     }
     
     public void setEnableExceptionListener(Boolean enable) {
     	if (enable == null) {
     		enable = true;
     	}
-    	setAttribute(ENABLE_EXCEPTION_LISTENER, enable);
+    	setValue(KnownParameter.ENABLE_EXCEPTION_LISTENER, enable);
+    }
+    
+    public void setDriverExceptionRules(String rules) {
+    	setValue(KnownParameter.DRIVER_EXCEPTION_RULES, rules);
     }
     
     public void setDpTagsInclude(String tags) {
-    	setAttribute(DP_TAGS_INCLUDE, tags);
+    	setValue(KnownParameter.DP_TAGS_INCLUDE, tags);
     }
     
     public void setDpTagsExclude(String tags) {
-    	setAttribute(DP_TAGS_EXCLUDE, tags);
+    	setValue(KnownParameter.DP_TAGS_EXCLUDE, tags);
     }
     
     public void setSshCommandWait(Integer waitInMs) {
     	if (waitInMs == null) {
     		waitInMs = 5000;
     	}
-    	setAttribute(SSH_COMMAND_WAIT, waitInMs);
+    	setValue(KnownParameter.SSH_COMMAND_WAIT, waitInMs);
     }
     
     public void setSoftAssertEnabled(Boolean enable) {
     	if (enable == null) {
     		enable = true;
     	}
-    	setAttribute(SOFT_ASSERT_ENABLED, enable);
+    	setValue(KnownParameter.SOFT_ASSERT_ENABLED, enable);
     }
     
     public void setWebDriverListener(String listener) {
-    	setAttribute(WEB_DRIVER_LISTENER, listener);
+    	setValue(KnownParameter.WEB_DRIVER_LISTENER, listener);
     }
     
     public void setAppiumServerUrl(String url) {
-    	setAttribute(APPIUM_SERVER_URL, url);
+    	setValue(KnownParameter.APPIUM_SERVER_URL, url);
     }
     
     public void setDeviceName(String name) {
-    	setAttribute(DEVICE_NAME, name);
+    	setValue(KnownParameter.DEVICE_NAME, name);
     }
 
     public void setDeviceList(String list) {
     	if (list == null) {
     		list = "{}";
     	}
-    	setAttribute(DEVICE_LIST, list);
+    	setValue(KnownParameter.DEVICE_LIST, list);
     }
     
     public void setApp(String app) {
     	if (app == null) {
     		app = "";
     	}
-    	setAttribute(APP, app);
+    	setValue(KnownParameter.APP, app);
     }
     
     public void setCucumberTags(String tags) {
     	if (tags == null) {
     		tags = "";
     	}
-    	setAttribute(CUCUMBER_TAGS, tags);
+    	setValue(KnownParameter.CUCUMBER_TAGS, tags);
     }
     
     public void setCucumberTests(String tests) {
     	if (tests == null) {
     		tests = "";
     	}
-    	setAttribute(CUCUMBER_TESTS, tests);
+    	setValue(KnownParameter.CUCUMBER_TESTS, tests);
     }
     
     public void setCucumberImplementationPackage(String pkg) {
     	if (pkg == null && (!getCucumberTests().isEmpty() || !getCucumberTags().isEmpty())) {
     		throw new ConfigurationException("cucumberPackage parameter not defined whereas cucumberTests or cucumberTags are defined");
     	}
-    	setAttribute(CUCUMBER_IMPLEMENTATION_PKG, pkg);
+    	setValue(KnownParameter.CUCUMBER_IMPLEMENTATION_PKG, pkg);
     }
     
     public void setTestEnv(String tests) {
     	if (tests == null) {
     		tests = "DEV";
     	}
-    	setAttribute(TEST_ENV, tests);
+    	setValue(KnownParameter.TEST_ENV, tests);
     }
 
     public void setAppPackage(String pkg) {
-    	setAttribute(APP_PACKAGE, pkg);
+    	setValue(KnownParameter.APP_PACKAGE, pkg);
     }
     
     public void setTestMethodSignature(String signature) {
@@ -1163,37 +1460,37 @@ public class SeleniumTestsContext {
     }
 
     public void setAppActivity(String name) {
-    	setAttribute(APP_ACTIVITY, name);
+    	setValue(KnownParameter.APP_ACTIVITY, name);
     }
 
     public void setAppWaitActivity(String name) {
-    	setAttribute(APP_WAIT_ACTIVITY, name);
+    	setValue(KnownParameter.APP_WAIT_ACTIVITY, name);
     }
     
     public void setNewCommandTimeout(Integer timeout) {
     	if (timeout == null) {
     		timeout = 120;
     	}
-        setAttribute(NEW_COMMAND_TIMEOUT, timeout);
+        setValue(KnownParameter.NEW_COMMAND_TIMEOUT, timeout);
     }
     
     public void setVersion(String version) {
-    	setAttribute(VERSION, version);
+    	setValue(KnownParameter.VERSION, version);
     }
     
     public void setPlatform(String platform) {
     	if (platform == null) {
     		platform = Platform.getCurrent().toString();
     	}
-        setAttribute(PLATFORM, platform);
+        setValue(KnownParameter.PLATFORM, platform);
     }
     
     public void setCloudApiKey(String key) {
-    	setAttribute(CLOUD_API_KEY, key);
+    	setValue(KnownParameter.CLOUD_API_KEY, key);
     }
     
     public void setTestType(final TestType testType) {
-        setAttribute(TEST_TYPE, testType);
+        setValue(KnownParameter.TEST_TYPE, testType);
     }
     
     /**
@@ -1201,7 +1498,7 @@ public class SeleniumTestsContext {
      * @param name
      */
     public void setProjectName(String name) {
-    	setAttribute(PROJECT_NAME, name);
+    	setValue(KnownParameter.PROJECT_NAME, name);
     }
     
     public void setMobilePlatformVersion(final String version) {
@@ -1212,16 +1509,16 @@ public class SeleniumTestsContext {
      * Read configuration from environment specific data and undefined parameters present un testng xml file
      */
 	public void setTestConfiguration() {
-    	Map<String, String> testConfig;
+    	Map<String, String> iniConfig;
 		try {
-			testConfig = new ConfigReader().readConfig(FileUtils.openInputStream(new File(CONFIG_PATH + File.separator + "config.ini")));
+			iniConfig = new ConfigReader().readConfig(new File(CONFIG_PATH + File.separator + "config.ini"), getTestEnv());
 		} catch (IOException e1) {
 			TestLogging.warning("no valid config.ini file for this application");
-			testConfig = new HashMap<String, String>();
+			iniConfig = Collections.emptyMap();
 		}
 		
-		testConfig.putAll(testVariables);
-    	setAttribute(TEST_CONFIG, testConfig);
+		// ini configuration is shared between tests, test variables are layered on top of it
+    	setAttribute(TEST_CONFIG, new LayeredConfiguration(iniConfig, testVariables));
     }
 
 }
@@ -15,17 +15,15 @@
 package com.seleniumtests.core;
 
 import java.io.File;
-import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.testng.ITestContext;
 import org.testng.xml.XmlTest;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 
 import com.seleniumtests.driver.TestType;
 import com.seleniumtests.util.TestConfigurationParser;
@@ -36,15 +34,19 @@ import com.seleniumtests.util.TestConfigurationParser;
 public class SeleniumTestsContextManager {
 
     // context listener
-    private static List<IContextAttributeListener> contextAttributeListeners = Collections.synchronizedList(
-            new ArrayList<IContextAttributeListener>());
+    private static List<IContextAttributeListener> contextAttributeListeners = new CopyOnWriteArrayList<IContextAttributeListener>();
 
     // global level context
-    private static SeleniumTestsContext globalContext;
+    private static volatile SeleniumTestsContext globalContext;
 
     // test level context
-    private static Map<String, SeleniumTestsContext> testLevelContext = Collections.synchronizedMap(
-            new HashMap<String, SeleniumTestsContext>());
+    private static Map<String, SeleniumTestsContext> testLevelContext = new ConcurrentHashMap<String, SeleniumTestsContext>();
+
+    // contexts resolved from parameters, one per test (XmlTest) name so that finished TestNG contexts are not kept. Thread contexts are created from them
+    private static Map<String, SeleniumTestsContext> resolvedContexts = new ConcurrentHashMap<String, SeleniumTestsContext>();
+    
+    // resolved context used when there is no TestNG context
+    private static volatile SeleniumTestsContext defaultResolvedContext = null;
 
     // thread level SeleniumTestsContext
     private static ThreadLocal<SeleniumTestsContext> threadLocalContext = new ThreadLocal<SeleniumTestsContext>();
@@ -108,7 +110,7 @@ public class SeleniumTestsContextManager {
                 File suiteFile = new File(iTestContext.getSuite().getXmlSuite().getFileName());
                 String configFile = suiteFile.getPath().replace(suiteFile.getName(), "") + iTestContext.getSuite().getParameter("testConfig");
                 
-                TestConfigurationParser configParser = new TestConfigurationParser(configFile);
+                TestConfigurationParser configParser = TestConfigurationParser.getInstance(configFile);
                 Map<String, String> parameters;
                 
                 if (iTestContext.getCurrentXmlTest() != null) {
@@ -116,37 +118,23 @@ public class SeleniumTestsContextManager {
                 } else {
                 	parameters = iTestContext.getSuite().getXmlSuite().getParameters();
                 }
-
-                // insert parameters
-	            for (Node node: configParser.getParameterNodes()) {
-		            parameters.put(node.getAttributes().getNamedItem("name").getNodeValue(),
-		            		       node.getAttributes().getNamedItem("value").getNodeValue());
-		        }
                 
                 // get configuration for services. Only insert paramters corresponding to the right service defined in runMode
                 String runMode = System.getProperty(SeleniumTestsContext.RUN_MODE) != null ?
                 		System.getProperty(SeleniumTestsContext.RUN_MODE): iTestContext.getSuite().getParameter(SeleniumTestsContext.RUN_MODE) != null ?
-                				iTestContext.getSuite().getParameter(SeleniumTestsContext.TEST_CONFIGURATION) : "LOCAL";
-                for (Node node: configParser.getServiceNodes()) {
-                	if (node.getAttributes().getNamedItem("name").getNodeValue().equalsIgnoreCase(runMode)) {
-                		NodeList nList = node.getChildNodes();
-                		for (int i = 0; i < nList.getLength(); i++ ) {
-                			Node paramNode = nList.item(i);
-                			if (paramNode.getNodeName().equals("parameter")) {
-	                			parameters.put(paramNode.getAttributes().getNamedItem("name").getNodeValue(),
-	                						   paramNode.getAttributes().getNamedItem("value").getNodeValue());
-                			}
-                		}
-                	}
-                }
-                
-                // 
-                parameters.put(SeleniumTestsContext.DEVICE_LIST, configParser.getDeviceNodesAsJson());
+                				iTestContext.getSuite().getParameter(SeleniumTestsContext.RUN_MODE) : "LOCAL";
+
+                // insert parameters. Only changed values are written, so that merging again an unchanged configuration does nothing
+                boolean updated = mergeParameters(parameters, configParser.getParameters());
+                updated = mergeParameters(parameters, configParser.getServiceParameters(runMode)) || updated;
+                updated = mergeParameters(parameters, Collections.singletonMap(SeleniumTestsContext.DEVICE_LIST, configParser.getDeviceNodesAsJson())) || updated;
                     
-                if (iTestContext.getCurrentXmlTest() != null) {
-                	iTestContext.getCurrentXmlTest().getSuite().setParameters(parameters);
-                } else {
-                	iTestContext.getSuite().getXmlSuite().setParameters(parameters);
+                if (updated) {
+	                if (iTestContext.getCurrentXmlTest() != null) {
+	                	iTestContext.getCurrentXmlTest().getSuite().setParameters(parameters);
+	                } else {
+	                	iTestContext.getSuite().getXmlSuite().setParameters(parameters);
+	                }
                 }
             }
         }
@@ -154,6 +142,23 @@ public class SeleniumTestsContextManager {
         return iTestContext;
     }
 
+    /**
+     * Copy configuration parameters into suite parameters
+     * @param parameters		suite parameters
+     * @param configParameters	parameters read from configuration file
+     * @return true if suite parameters have been modified
+     */
+    private static boolean mergeParameters(final Map<String, String> parameters, final Map<String, String> configParameters) {
+    	boolean updated = false;
+    	for (Entry<String, String> param: configParameters.entrySet()) {
+    		if (!param.getValue().equals(parameters.get(param.getKey()))) {
+    			parameters.put(param.getKey(), param.getValue());
+    			updated = true;
+    		}
+    	}
+    	return updated;
+    }
+
     public static void initTestLevelContext(final ITestContext testNGCtx, final XmlTest xmlTest) {
         SeleniumTestsContext seleniumTestsCtx = new SeleniumTestsContext(testNGCtx);
         if (xmlTest != null) {
@@ -185,7 +190,7 @@ public class SeleniumTestsContextManager {
 
     public static void initThreadContext(ITestContext testNGCtx, final XmlTest xmlTest) {
     	testNGCtx = getContextFromConfigFile(testNGCtx);
-    	SeleniumTestsContext seleniumTestsCtx = new SeleniumTestsContext(testNGCtx);
+    	SeleniumTestsContext seleniumTestsCtx = new SeleniumTestsContext(getResolvedContext(testNGCtx));
         loadCustomizedContextAttribute(testNGCtx, seleniumTestsCtx);
 
 // COMMENTED as SeleniumTestContext now look for parameter value in currentXmlTest for every param
@@ -213,6 +218,29 @@ public class SeleniumTestsContextManager {
     public static void initThreadContext(final XmlTest xmlTest) {
         initThreadContext(globalContext.getTestNGContext(), xmlTest);
     }
+    
+    /**
+     * Returns the context resolved from parameters of this test. It's built once per test and built again only if
+     * parameters or system properties changed
+     * @param testNGCtx
+     * @return
+     */
+    private static SeleniumTestsContext getResolvedContext(final ITestContext testNGCtx) {
+    	SeleniumTestsContext resolvedCtx = testNGCtx == null ? defaultResolvedContext : resolvedContexts.get(getResolvedContextKey(testNGCtx));
+    	if (resolvedCtx == null || resolvedCtx.getTestNGContext() != testNGCtx || !resolvedCtx.isResolutionUpToDate()) {
+    		resolvedCtx = new SeleniumTestsContext(testNGCtx);
+    		if (testNGCtx == null) {
+    			defaultResolvedContext = resolvedCtx;
+    		} else {
+    			resolvedContexts.put(getResolvedContextKey(testNGCtx), resolvedCtx);
+    		}
+    	}
+    	return resolvedCtx;
+    }
+    
+    private static String getResolvedContextKey(final ITestContext testNGCtx) {
+    	return testNGCtx.getSuite().getName() + "/" + testNGCtx.getName();
+    }
 
     private static void loadCustomizedContextAttribute(final ITestContext testNGCtx,
             final SeleniumTestsContext seleniumTestsCtx) {
@@ -13,11 +13,18 @@
 
 package com.seleniumtests.core.config;
 
+import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.io.FileUtils;
 
 import org.apache.log4j.Logger;
 import org.ini4j.Config;
@@ -32,6 +39,48 @@ public class ConfigReader {
 	
 	private static final String GLOBAL_SECTION_NAME = "General";
 	private static final Logger logger = TestLogging.getLogger(ConfigReader.class);
+	
+	// configurations already read, by file and environment
+	private static final Map<String, CachedConfiguration> configurations = new ConcurrentHashMap<String, CachedConfiguration>();
+	
+	private static class CachedConfiguration {
+		private final long lastModified;
+		private final long length;
+		private final Map<String, String> configuration;
+		
+		public CachedConfiguration(final File iniFile, final Map<String, String> configuration) {
+			this.lastModified = iniFile.lastModified();
+			this.length = iniFile.length();
+			this.configuration = Collections.unmodifiableMap(configuration);
+		}
+		
+		public boolean isUpToDate(final File iniFile) {
+			return lastModified == iniFile.lastModified() && length == iniFile.length();
+		}
+	}
+	
+	/**
+	 * Returns configuration for the environment. File is read only once for each environment, and again when it changes
+	 * @param iniFile
+	 * @param environment
+	 * @return	immutable configuration, shared between tests
+	 * @throws IOException	when file cannot be read
+	 */
+	public Map<String, String> readConfig(final File iniFile, final String environment) throws IOException {
+		if (!iniFile.isFile()) {
+			throw new FileNotFoundException(iniFile.getAbsolutePath());
+		}
+		
+		String key = iniFile.getAbsolutePath() + File.pathSeparator + environment;
+		CachedConfiguration cachedConfiguration = configurations.get(key);
+		if (cachedConfiguration == null || !cachedConfiguration.isUpToDate(iniFile)) {
+			try (InputStream iniFileStream = FileUtils.openInputStream(iniFile)) {
+				cachedConfiguration = new CachedConfiguration(iniFile, readConfig(iniFileStream, environment));
+			}
+			configurations.put(key, cachedConfiguration);
+		}
+		return cachedConfiguration.configuration;
+	}
 
 	public HashMap<String, String> readConfig(InputStream iniFileStream) {
 		return readConfig(iniFileStream, SeleniumTestsContextManager.getThreadContext().getTestEnv());
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2016 www.infotel.com
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.seleniumtests.core.config;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Configuration of a test: test variables layered on top of a base configuration which is shared between tests
+ * (see {@link ConfigReader#readConfig(java.io.File, String)}). Base configuration is never copied nor modified, values
+ * written in this map only go to the test layer and keys removed from base configuration are only hidden for this test
+ */
+public class LayeredConfiguration extends AbstractMap<String, String> {
+
+	private final Map<String, String> baseConfiguration;
+	private final Map<String, String> testConfiguration;
+	private final Set<Object> removedKeys;
+
+	/**
+	 * @param baseConfiguration		shared configuration, read only
+	 * @param testVariables			variables specific to the test, they override base configuration
+	 */
+	public LayeredConfiguration(final Map<String, String> baseConfiguration, final Map<String, String> testVariables) {
+		this.baseConfiguration = baseConfiguration;
+		this.testConfiguration = new HashMap<String, String>(testVariables);
+		this.removedKeys = new HashSet<Object>();
+	}
+
+	@Override
+	public synchronized String get(final Object key) {
+		if (testConfiguration.containsKey(key)) {
+			return testConfiguration.get(key);
+		}
+		return removedKeys.contains(key) ? null : baseConfiguration.get(key);
+	}
+
+	@Override
+	public synchronized boolean containsKey(final Object key) {
+		return testConfiguration.containsKey(key) || (!removedKeys.contains(key) && baseConfiguration.containsKey(key));
+	}
+
+	@Override
+	public synchronized String put(final String key, final String value) {
+		String previousValue = get(key);
+		testConfiguration.put(key, value);
+		removedKeys.remove(key);
+		return previousValue;
+	}
+
+	/**
+	 * Keys of the base configuration are marked as removed in the test layer, base configuration is left untouched
+	 */
+	@Override
+	public synchronized String remove(final Object key) {
+		String previousValue = get(key);
+		testConfiguration.remove(key);
+		if (baseConfiguration.containsKey(key)) {
+			removedKeys.add(key);
+		}
+		return previousValue;
+	}
+
+	@Override
+	public synchronized void clear() {
+		testConfiguration.clear();
+		removedKeys.addAll(baseConfiguration.keySet());
+	}
+
+	/**
+	 * Read only view of the merged configuration
+	 */
+	@Override
+	public synchronized Set<Entry<String, String>> entrySet() {
+		Map<String, String> configuration = new HashMap<String, String>(baseConfiguration);
+		configuration.keySet().removeAll(removedKeys);
+		configuration.putAll(testConfiguration);
+		return Collections.unmodifiableMap(configuration).entrySet();
+	}
+}
@@ -77,6 +77,7 @@ public class CucumberRunner {
         logger.info(Thread.currentThread() + " Start method " + method.getName());
         SeleniumTestsContextManager.initThreadContext(testContex, xmlTest);
         SeleniumTestsContextManager.getThreadContext().setTestMethodSignature(buildMethodSignature(method, parameters));
+        WebUIDriver.applyTestTimeouts();
     }
 
     @Test(groups = "cucumber", description = "Cucumber scenario", dataProvider = "scenarios")
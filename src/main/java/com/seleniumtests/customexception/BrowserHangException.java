@@ -0,0 +1,31 @@
+/*
+ * Copyright 2016 www.infotel.com
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.seleniumtests.customexception;
+
+/**
+ * Raised when browser has been declared frozen by the watchdog. This is an infrastructure problem, not 
+ * an application one: the browser has been killed and a new one will be created for next test
+ */
+public class BrowserHangException extends WebSessionEndedException {
+
+	private static final long serialVersionUID = 3318527443071294410L;
+
+	public BrowserHangException(final String message) {
+		super(message);
+	}
+	
+	public BrowserHangException(final String message, final Throwable ex) {
+		super(message, ex);
+	}
+}
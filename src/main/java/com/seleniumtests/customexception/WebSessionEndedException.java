@@ -26,4 +26,12 @@ public class WebSessionEndedException extends WebDriverException {
     public WebSessionEndedException(final Throwable ex) {
         super(ex);
     }
+
+    public WebSessionEndedException(final String message) {
+        super(message);
+    }
+
+    public WebSessionEndedException(final String message, final Throwable ex) {
+        super(message, ex);
+    }
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2016 www.infotel.com
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.seleniumtests.driver;
+
+import org.apache.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+
+import com.seleniumtests.customexception.BrowserHangException;
+import com.seleniumtests.reporter.TestLogging;
+
+/**
+ * Watches the commands sent to the browser. When one of them lasts longer than the allowed duration, browser 
+ * is declared frozen and killed. Then, every command fails immediately with a {@link BrowserHangException} 
+ * instead of waiting for all the timeouts and replays. A new browser is created for the next test.
+ * 
+ * Browser is not probed with extra commands as driver is not thread safe: the running command acts as the probe.
+ * Commands are timed by {@link com.seleniumtests.driver.stats.InstrumentedCommandExecutor}, so that all of them are watched, 
+ * not only those firing driver events
+ */
+public class BrowserWatchdog implements Runnable {
+	
+	private static final Logger logger = TestLogging.getLogger(BrowserWatchdog.class);
+	private static final long CHECK_INTERVAL = 1000;
+	
+	private final WebDriver driver;
+	private final long maxCommandDuration;
+	private final long checkInterval;
+	private volatile long commandStart = 0;
+	private volatile String currentCommand = null;
+	private volatile boolean browserDead = false;
+	private volatile boolean stopped = false;
+	private Thread watchdogThread;
+	
+	/**
+	 * @param driver				the native driver, which will be killed if frozen
+	 * @param maxCommandDuration	max duration of a command, in milliseconds
+	 */
+	public BrowserWatchdog(final WebDriver driver, final long maxCommandDuration) {
+		this.driver = driver;
+		this.maxCommandDuration = maxCommandDuration;
+		this.checkInterval = Math.max(10, Math.min(CHECK_INTERVAL, maxCommandDuration / 5));
+	}
+	
+	public void start() {
+		watchdogThread = new Thread(this, "BrowserWatchdog-" + Thread.currentThread().getName());
+		watchdogThread.setDaemon(true);
+		watchdogThread.start();
+	}
+	
+	public void stop() {
+		stopped = true;
+		if (watchdogThread != null) {
+			watchdogThread.interrupt();
+		}
+	}
+	
+	public boolean isBrowserDead() {
+		return browserDead;
+	}
+
+	@Override
+	public void run() {
+		while (!stopped) {
+			try {
+				Thread.sleep(checkInterval);
+			} catch (InterruptedException e) {
+				return;
+			}
+			
+			long start = commandStart;
+			if (start > 0 && System.currentTimeMillis() - start > maxCommandDuration) {
+				killBrowser();
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * Quit is done in its own thread as it may also be blocked by the frozen browser
+	 */
+	private void killBrowser() {
+		browserDead = true;
+		logger.error(String.format("Browser did not reply to '%s' within %d ms, it's declared frozen and is killed", 
+									currentCommand, maxCommandDuration));
+		
+		Thread killer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					driver.quit();
+				} catch (Exception e) {
+					logger.warn("Error while killing frozen browser: " + e.getMessage());
+				}
+			}
+		}, "BrowserKiller-" + watchdogThread.getName());
+		killer.setDaemon(true);
+		killer.start();
+	}
+	
+	/**
+	 * Called before a command is sent to the browser
+	 * @param command	name of the command
+	 * @throws BrowserHangException	if browser has already been killed
+	 */
+	public void commandStarted(final String command) {
+		if (browserDead) {
+			throw new BrowserHangException(String.format("Browser has been killed because it froze on '%s', cannot execute '%s'", 
+															currentCommand, command));
+		}
+		currentCommand = command;
+		commandStart = System.currentTimeMillis();
+	}
+	
+	public void commandFinished() {
+		commandStart = 0;
+	}
+
+	/**
+	 * Once browser is dead, any error is reported as a browser hang so that it's not retried
+	 */
+	public void commandFailed(final Throwable ex) {
+		if (browserDead && !(ex instanceof BrowserHangException)) {
+			throw new BrowserHangException("Browser has been killed because it froze on '" + currentCommand + "'", ex);
+		}
+	}
+}
@@ -31,6 +31,7 @@ public class CustomEventFiringWebDriver extends EventFiringWebDriver {
     private FileDetector fileDetector = new UselessFileDetector();
     private WebDriver driver = null;
     private Set<String> currentHandles;
+    private boolean newWindowExpected = false;
 
     public CustomEventFiringWebDriver(final WebDriver driver) {
         super(driver);
@@ -64,4 +65,23 @@ public class CustomEventFiringWebDriver extends EventFiringWebDriver {
     public Set<String> getCurrentHandles() {
 		return currentHandles;
 	}
+    
+    /**
+     * @return true if {@link com.seleniumtests.uipage.BasePage#expectNewWindow()} has been called and new window has not been selected yet
+     */
+    public boolean isNewWindowExpected() {
+    	return newWindowExpected;
+    }
+    
+    public void setNewWindowExpected(final boolean newWindowExpected) {
+    	this.newWindowExpected = newWindowExpected;
+    }
+    
+    /**
+     * Record known handles without asking browser, when caller has just retrieved them
+     * @param handles
+     */
+    public void setCurrentHandles(final Set<String> handles) {
+    	currentHandles = handles;
+    }
 }
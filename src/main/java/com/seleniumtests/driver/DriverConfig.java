@@ -44,17 +44,25 @@ public class DriverConfig {
     private String ieDriverPath;
     private String chromeDriverPath;
     private String chromeBinPath;
+    private String chromeProfileTemplatePath;
     private int webSessionTimeout = 90 * 1000;
     public static final int DEFAULT_IMPLICIT_WAIT_TIMEOUT = 5;
     public static final int DEFAULT_EXPLICIT_WAIT_TIME_OUT = 15;
     public static final int DEFAULT_PAGE_LOAD_TIMEOUT = 90;
+    public static final int DEFAULT_BROWSER_COMMAND_TIMEOUT = 180;
+    
+    // size of the browser window when headless, as it cannot be maximized without a display
+    public static final int HEADLESS_WINDOW_WIDTH = 1920;
+    public static final int HEADLESS_WINDOW_HEIGHT = 1080;
     private double implicitWaitTimeout = DEFAULT_IMPLICIT_WAIT_TIMEOUT;
     private int explicitWaitTimeout = DEFAULT_EXPLICIT_WAIT_TIME_OUT;
     private int pageLoadTimeout = DEFAULT_PAGE_LOAD_TIMEOUT;
+    private int browserCommandTimeout = DEFAULT_BROWSER_COMMAND_TIMEOUT;
     private String outputDirectory;
     private String browserVersion;
     private Platform webPlatform;
     private String userAgentOverride;
+    private boolean headlessBrowser = false;
     private String ntlmAuthTrustedUris;
     private String browserDownloadDir;
     private boolean addJSErrorCollectorExtension = false;
@@ -129,6 +137,10 @@ public class DriverConfig {
         return chromeDriverPath;
     }
 
+    public String getChromeProfileTemplatePath() {
+        return chromeProfileTemplatePath;
+    }
+
     public WebDriver getDriver() {
         return driver;
     }
@@ -195,6 +207,10 @@ public class DriverConfig {
         return outputDirectory;
     }
 
+    public int getBrowserCommandTimeout() {
+        return browserCommandTimeout;
+    }
+
     public int getPageLoadTimeout() {
         return pageLoadTimeout;
     }
@@ -221,6 +237,10 @@ public class DriverConfig {
         return proxyHost;
     }
 
+    public boolean isHeadlessBrowser() {
+        return headlessBrowser;
+    }
+
     public String getUserAgentOverride() {
         return this.userAgentOverride;
     }
@@ -277,6 +297,10 @@ public class DriverConfig {
         this.chromeDriverPath = chromeDriverPath;
     }
 
+    public void setChromeProfileTemplatePath(final String chromeProfileTemplatePath) {
+        this.chromeProfileTemplatePath = chromeProfileTemplatePath;
+    }
+
     public void setDriver(final WebDriver driver) {
         this.driver = driver;
     }
@@ -325,6 +349,10 @@ public class DriverConfig {
         this.outputDirectory = outputDirectory;
     }
 
+    public void setBrowserCommandTimeout(final int browserCommandTimeout) {
+        this.browserCommandTimeout = browserCommandTimeout;
+    }
+
     public void setPageLoadTimeout(final int pageLoadTimeout) {
         this.pageLoadTimeout = pageLoadTimeout;
     }
@@ -345,6 +373,10 @@ public class DriverConfig {
         this.setAssumeUntrustedCertificateIssuer = setAssumeUntrustedCertificateIssuer;
     }
 
+    public void setHeadlessBrowser(final boolean headlessBrowser) {
+        this.headlessBrowser = headlessBrowser;
+    }
+
     public void setUserAgentOverride(final String userAgentOverride) {
         this.userAgentOverride = userAgentOverride;
     }
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2016 www.infotel.com
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.seleniumtests.driver;
+
+/**
+ * Callbacks of {@link org.openqa.selenium.support.events.WebDriverEventListener}
+ */
+public enum DriverEvent {
+	BEFORE_NAVIGATE_TO,
+	AFTER_NAVIGATE_TO,
+	BEFORE_NAVIGATE_BACK,
+	AFTER_NAVIGATE_BACK,
+	BEFORE_NAVIGATE_FORWARD,
+	AFTER_NAVIGATE_FORWARD,
+	BEFORE_NAVIGATE_REFRESH,
+	AFTER_NAVIGATE_REFRESH,
+	BEFORE_FIND_BY,
+	AFTER_FIND_BY,
+	BEFORE_CLICK_ON,
+	AFTER_CLICK_ON,
+	BEFORE_CHANGE_VALUE_OF,
+	AFTER_CHANGE_VALUE_OF,
+	BEFORE_SCRIPT,
+	AFTER_SCRIPT,
+	ON_EXCEPTION;
+	
+	/**
+	 * @return true for callbacks called before the action is sent to driver
+	 */
+	public boolean isBefore() {
+		return name().startsWith("BEFORE_");
+	}
+}
@@ -14,25 +14,55 @@
 
 package com.seleniumtests.driver;
 
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
 import org.apache.log4j.Logger;
 import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
-import org.openqa.selenium.UnsupportedCommandException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
-import org.openqa.selenium.support.events.WebDriverEventListener;
 
 import com.seleniumtests.core.SeleniumTestsContextManager;
 import com.seleniumtests.customexception.WebSessionEndedException;
 import com.seleniumtests.driver.screenshots.ScreenshotUtil;
 import com.seleniumtests.reporter.TestLogging;
 
-public class DriverExceptionListener implements WebDriverEventListener {
+public class DriverExceptionListener implements SelectiveWebDriverEventListener {
 	
 	private static final Logger logger = TestLogging.getLogger(DriverExceptionListener.class);
 	
+	// clicks are not listened: window handles are only recorded when a new window is expected (see BasePage.expectNewWindow)
+	private static final Set<DriverEvent> HANDLED_EVENTS = Collections.unmodifiableSet(EnumSet.of(DriverEvent.AFTER_CHANGE_VALUE_OF, 
+																										DriverEvent.ON_EXCEPTION));
+	
+	private static final ThreadLocal<Boolean> blurDoneByCaller = ThreadLocal.withInitial(() -> false);
+	
+	private final ExceptionClassifier classifier;
+	
+	public DriverExceptionListener() {
+		classifier = ExceptionClassifier.getInstance(SeleniumTestsContextManager.getThreadContext().getDriverExceptionRules());
+	}
+	
+	public Set<DriverEvent> getHandledEvents() {
+		return HANDLED_EVENTS;
+	}
+	
+    /**
+     * Tells that value changes of the current thread are done by a caller which blurs the field itself 
+     * (HtmlElement.sendKeys does it without the extra call to get the tag name)
+     * @param blurDone
+     */
+    public static void setBlurDoneByCaller(final boolean blurDone) {
+    	blurDoneByCaller.set(blurDone);
+    }
+    
+    /**
+     * Make input fields lose focus once value has been changed directly through the driver
+     */
     public void afterChangeValueOf(final WebElement element, final WebDriver driver) {
-    	if (SeleniumTestsContextManager.isWebTest() && element.getTagName().equalsIgnoreCase("input")) {
+    	if (SeleniumTestsContextManager.isWebTest() && !blurDoneByCaller.get() && element.getTagName().equalsIgnoreCase("input")) {
     		try {
     			((JavascriptExecutor) driver).executeScript("arguments[0].blur();", element);
     		} catch (Exception e) {	}
@@ -53,11 +83,7 @@ public class DriverExceptionListener implements WebDriverEventListener {
 
     public void beforeChangeValueOf(final WebElement arg0, final WebDriver arg1) { }
 
-    public void beforeClickOn(final WebElement arg0, final WebDriver driver) {
-    	if (SeleniumTestsContextManager.isWebTest()) {
-    		((CustomEventFiringWebDriver)WebUIDriver.getWebDriver()).updateWindowsHandles();
-    	}
-    }
+    public void beforeClickOn(final WebElement arg0, final WebDriver driver) { }
 
     public void beforeFindBy(final By arg0, final WebElement arg1, final WebDriver arg2) { }
 
@@ -75,61 +101,28 @@ public class DriverExceptionListener implements WebDriverEventListener {
 
     public void onException(final Throwable ex, final WebDriver arg1) {
     	
-        if (ex.getMessage() == null) {
-            return;
-        } else if (ex.getMessage().contains("Element must be user-editable in order to clear it")) {
-            return;
-        } else if (ex.getMessage().contains("Element is not clickable at point")) {
-            return;
-        } else if (ex instanceof UnsupportedCommandException) {
-            return;
-        } else if (ex.getMessage().contains(" read-only")) {
-            return;
-        } else if (ex.getMessage().contains("No response on ECMAScript evaluation command")) { // Opera
-
-            // customexception
-            for (int i = 0; i < ex.getStackTrace().length; i++) {
-                String method = ex.getStackTrace()[i].getMethodName();
-                if (method.contains("getTitle") || method.contains("getWindowHandle") || method.contains("click")
-                        || method.contains("getPageSource")) {
-                    return;
-                }
-            }
-
-            logger.error(ex);
-            // return;
-        } else if (ex.getMessage().contains("Error communicating with the remote browser. It may have died.")) {
-
-            // Session has lost connection, remove it then ignore quit() method.
-            if (WebUIDriver.getWebUIDriver().getConfig().getMode() == DriverMode.ExistingGrid) {
-                WebUIDriver.setWebDriver(null);
-                throw new WebSessionEndedException(ex);
-            }
-
-            return;
-        } else if (ex instanceof org.openqa.selenium.remote.UnreachableBrowserException) {
-            return;
-        } else if (ex instanceof org.openqa.selenium.UnsupportedCommandException) {
-            return;
-        } else {
-            String message = ex.getMessage().split("\\n")[0];
-            logger.warn("Got exception:" + message);
-            if (message.matches("Session (/S*) was terminated due to(.|\\n)*")
-                    || message.matches("cannot forward the request Connection to(.|\\n)*")) {
-                WebUIDriver.setWebDriver(null); // can't quit anymore, save time.
-
-                // since the session was
-                // terminated.
-                throw new WebSessionEndedException(ex);
-            }
-        }
+    	switch (classifier.classify(ex)) {
+    		case IGNORE:
+    			return;
+    		case END_GRID_SESSION:
+    			
+    			// Session has lost connection, remove it then ignore quit() method.
+    			if (WebUIDriver.getWebUIDriver().getConfig().getMode() == DriverMode.ExistingGrid) {
+    				WebUIDriver.setWebDriver(null);
+    				throw new WebSessionEndedException(ex);
+    			}
+    			return;
+    		case END_SESSION:
+    			logger.warn("Got exception:" + ex.getMessage().split("\\n")[0]);
+    			WebUIDriver.setWebDriver(null); // can't quit anymore, save time.
+    			throw new WebSessionEndedException(ex);
+    		default:
+    			logger.warn("Got exception:" + ex.getMessage().split("\\n")[0]);
+    	}
 
-        for (int i = 0; i < ex.getStackTrace().length; i++) // avoid dead loop
-        {
-            String method = ex.getStackTrace()[i].getMethodName();
-            if (method.contains("getScreenshotAs") || method.contains("captureWebPageSnapshot")) {
-                return;
-            }
+        // avoid dead loop
+        if (ExceptionClassifier.isRaisedByCapture(ex)) {
+        	return;
         }
 
         if (arg1 != null) {
@@ -143,7 +136,4 @@ public class DriverExceptionListener implements WebDriverEventListener {
             }
         }
     }
-
-
-	
 }
@@ -0,0 +1,212 @@
+/*
+ * Copyright 2016 www.infotel.com
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.seleniumtests.driver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+
+import com.seleniumtests.customexception.ConfigurationException;
+
+/**
+ * Decides what to do with an exception raised by the driver, from a table of rules built once.
+ * Rules are evaluated in order, first matching one gives the action. An exception matching no rule is
+ * reported ({@link Action#REPORT}).
+ *
+ * Additional rules can be configured through "driverExceptionRules" parameter: a list of 'ACTION=regex' separated by ';'
+ * e.g: "IGNORE=^stale element reference;END_SESSION=^Session lost". These rules are evaluated before the default ones
+ */
+public class ExceptionClassifier {
+
+	public enum Action {
+		/** exception is expected, nothing to do */
+		IGNORE,
+		/** browser session is lost, it won't be used anymore */
+		END_SESSION,
+		/** browser session is lost, only when running on an existing grid. Ignored otherwise */
+		END_GRID_SESSION,
+		/** exception is logged and page is captured */
+		REPORT
+	}
+
+	/**
+	 * One line of the classification table. Every criteria which is set must match
+	 */
+	public static class Rule {
+		private final Class<? extends Throwable> exceptionType;
+		private final String messagePart;
+		private final Pattern messagePattern;
+		private final Pattern stackMethodPattern;
+		private final Action action;
+
+		/**
+		 * @param exceptionType			type of exception (or its parents). null for any
+		 * @param messagePart			text which must be contained in message. null for any
+		 * @param messagePattern		pattern searched in the first line of message. null for any
+		 * @param stackMethodPattern	pattern searched in the method names of stack trace. null for any
+		 * @param action
+		 */
+		public Rule(Class<? extends Throwable> exceptionType, String messagePart, Pattern messagePattern, Pattern stackMethodPattern, Action action) {
+			this.exceptionType = exceptionType;
+			this.messagePart = messagePart;
+			this.messagePattern = messagePattern;
+			this.stackMethodPattern = stackMethodPattern;
+			this.action = action;
+		}
+
+		public static Rule ofType(Class<? extends Throwable> exceptionType, Action action) {
+			return new Rule(exceptionType, null, null, null, action);
+		}
+
+		public static Rule containing(String messagePart, Action action) {
+			return new Rule(null, messagePart, null, null, action);
+		}
+
+		public static Rule matching(String regex, Action action) {
+			return new Rule(null, null, Pattern.compile(regex), null, action);
+		}
+
+		boolean matches(final Throwable ex, final String message, final String firstLine) {
+			return (exceptionType == null || exceptionType.isInstance(ex))
+					&& (messagePart == null || message.contains(messagePart))
+					&& (messagePattern == null || messagePattern.matcher(firstLine).find())
+					&& (stackMethodPattern == null || isInStack(ex, stackMethodPattern));
+		}
+
+		public Action getAction() {
+			return action;
+		}
+	}
+
+	public static final String RULE_SEPARATOR = ";";
+
+	/**
+	 * Opera: no response when some commands are sent while page is loading
+	 */
+	private static final Pattern OPERA_TOLERATED_METHODS = Pattern.compile("getTitle|getWindowHandle|click|getPageSource");
+
+	/**
+	 * exception raised while capturing page. Capturing again would loop
+	 */
+	private static final Pattern CAPTURE_METHODS = Pattern.compile("getScreenshotAs|captureWebPageSnapshot");
+
+	private static final List<Rule> DEFAULT_RULES = Collections.unmodifiableList(buildDefaultRules());
+	private static final ExceptionClassifier DEFAULT_CLASSIFIER = new ExceptionClassifier(DEFAULT_RULES);
+	private static final Map<String, ExceptionClassifier> configuredClassifiers = new ConcurrentHashMap<>();
+
+	private final Rule[] rules;
+
+	public ExceptionClassifier(final List<Rule> rules) {
+		this.rules = rules.toArray(new Rule[rules.size()]);
+	}
+
+	private static List<Rule> buildDefaultRules() {
+		List<Rule> rules = new ArrayList<>();
+		rules.add(Rule.containing("Element must be user-editable in order to clear it", Action.IGNORE));
+		rules.add(Rule.containing("Element is not clickable at point", Action.IGNORE));
+		rules.add(Rule.ofType(UnsupportedCommandException.class, Action.IGNORE));
+		rules.add(Rule.containing(" read-only", Action.IGNORE));
+		rules.add(new Rule(null, "No response on ECMAScript evaluation command", null, OPERA_TOLERATED_METHODS, Action.IGNORE));
+		rules.add(Rule.containing("No response on ECMAScript evaluation command", Action.REPORT));
+		rules.add(Rule.containing("Error communicating with the remote browser. It may have died.", Action.END_GRID_SESSION));
+		rules.add(Rule.ofType(UnreachableBrowserException.class, Action.IGNORE));
+		rules.add(Rule.matching("^Session \\S* was terminated due to", Action.END_SESSION));
+		rules.add(Rule.matching("^cannot forward the request Connection to", Action.END_SESSION));
+		return rules;
+	}
+
+	/**
+	 * Returns the classifier with default rules
+	 */
+	public static ExceptionClassifier getDefault() {
+		return DEFAULT_CLASSIFIER;
+	}
+
+	/**
+	 * Returns the classifier for configured rules, evaluated before the default ones. Classifier is built only once
+	 * for a given configuration
+	 * @param configuredRules	'ACTION=regex' list, separated by ';'. May be null
+	 */
+	public static ExceptionClassifier getInstance(final String configuredRules) {
+		if (configuredRules == null || configuredRules.trim().isEmpty()) {
+			return DEFAULT_CLASSIFIER;
+		}
+		return configuredClassifiers.computeIfAbsent(configuredRules, ExceptionClassifier::parse);
+	}
+
+	private static ExceptionClassifier parse(final String configuredRules) {
+		List<Rule> rules = new ArrayList<>();
+		for (String ruleDefinition: configuredRules.split(RULE_SEPARATOR)) {
+			if (ruleDefinition.trim().isEmpty()) {
+				continue;
+			}
+			String[] ruleParts = ruleDefinition.split("=", 2);
+			if (ruleParts.length != 2) {
+				throw new ConfigurationException(String.format("Exception rule '%s' should be in format ACTION=regex", ruleDefinition));
+			}
+			try {
+				rules.add(Rule.matching(ruleParts[1], Action.valueOf(ruleParts[0].trim().toUpperCase())));
+			} catch (IllegalArgumentException e) {
+				throw new ConfigurationException(String.format("Exception rule '%s' is invalid: %s", ruleDefinition, e.getMessage()));
+			}
+		}
+		rules.addAll(DEFAULT_RULES);
+		return new ExceptionClassifier(rules);
+	}
+
+	/**
+	 * Gives the action to perform for this exception
+	 * @param ex
+	 * @return
+	 */
+	public Action classify(final Throwable ex) {
+		String message = ex.getMessage();
+		if (message == null) {
+			return Action.IGNORE;
+		}
+
+		int endOfLine = message.indexOf('\n');
+		String firstLine = endOfLine < 0 ? message : message.substring(0, endOfLine);
+		for (Rule rule: rules) {
+			if (rule.matches(ex, message, firstLine)) {
+				return rule.action;
+			}
+		}
+		return Action.REPORT;
+	}
+
+	/**
+	 * Returns true if exception has been raised while capturing page
+	 * @param ex
+	 * @return
+	 */
+	public static boolean isRaisedByCapture(final Throwable ex) {
+		return isInStack(ex, CAPTURE_METHODS);
+	}
+
+	private static boolean isInStack(final Throwable ex, final Pattern methodPattern) {
+		for (StackTraceElement element: ex.getStackTrace()) {
+			if (methodPattern.matcher(element.getMethodName()).find()) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
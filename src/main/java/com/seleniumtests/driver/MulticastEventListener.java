@@ -0,0 +1,165 @@
+/*
+ * Copyright 2016 www.infotel.com
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.seleniumtests.driver;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.WebDriverEventListener;
+
+/**
+ * Dispatches driver events to an ordered list of listeners, so that only one event firing driver is needed 
+ * whatever the number of listeners.
+ * Listeners are called in the same order as when each one had its own event firing driver wrapping the previous one: 
+ * 'before' callbacks from the last registered listener to the first, 'after' and exception callbacks from the first to the last.
+ * Listeners implementing {@link SelectiveWebDriverEventListener} only receive the events they declare, others receive all events
+ */
+public class MulticastEventListener implements WebDriverEventListener {
+	
+	private static final WebDriverEventListener[] NO_LISTENER = new WebDriverEventListener[0];
+	
+	private final Map<DriverEvent, WebDriverEventListener[]> listenersByEvent = new EnumMap<>(DriverEvent.class);
+	
+	public MulticastEventListener(final List<WebDriverEventListener> listeners) {
+		for (DriverEvent event: DriverEvent.values()) {
+			List<WebDriverEventListener> eventListeners = new ArrayList<>();
+			for (WebDriverEventListener listener: listeners) {
+				if (!(listener instanceof SelectiveWebDriverEventListener) 
+						|| ((SelectiveWebDriverEventListener) listener).getHandledEvents().contains(event)) {
+					eventListeners.add(listener);
+				}
+			}
+			if (event.isBefore()) {
+				Collections.reverse(eventListeners);
+			}
+			listenersByEvent.put(event, eventListeners.toArray(NO_LISTENER));
+		}
+	}
+	
+	/**
+	 * @param event
+	 * @return listeners to call for this event, in calling order
+	 */
+	public WebDriverEventListener[] getListeners(final DriverEvent event) {
+		return listenersByEvent.get(event);
+	}
+
+	public void beforeNavigateTo(final String url, final WebDriver driver) {
+		for (WebDriverEventListener listener: getListeners(DriverEvent.BEFORE_NAVIGATE_TO)) {
+			listener.beforeNavigateTo(url, driver);
+		}
+	}
+
+	public void afterNavigateTo(final String url, final WebDriver driver) {
+		for (WebDriverEventListener listener: getListeners(DriverEvent.AFTER_NAVIGATE_TO)) {
+			listener.afterNavigateTo(url, driver);
+		}
+	}
+
+	public void beforeNavigateBack(final WebDriver driver) {
+		for (WebDriverEventListener listener: getListeners(DriverEvent.BEFORE_NAVIGATE_BACK)) {
+			listener.beforeNavigateBack(driver);
+		}
+	}
+
+	public void afterNavigateBack(final WebDriver driver) {
+		for (WebDriverEventListener listener: getListeners(DriverEvent.AFTER_NAVIGATE_BACK)) {
+			listener.afterNavigateBack(driver);
+		}
+	}
+
+	public void beforeNavigateForward(final WebDriver driver) {
+		for (WebDriverEventListener listener: getListeners(DriverEvent.BEFORE_NAVIGATE_FORWARD)) {
+			listener.beforeNavigateForward(driver);
+		}
+	}
+
+	public void afterNavigateForward(final WebDriver driver) {
+		for (WebDriverEventListener listener: getListeners(DriverEvent.AFTER_NAVIGATE_FORWARD)) {
+			listener.afterNavigateForward(driver);
+		}
+	}
+
+	public void beforeNavigateRefresh(final WebDriver driver) {
+		for (WebDriverEventListener listener: getListeners(DriverEvent.BEFORE_NAVIGATE_REFRESH)) {
+			listener.beforeNavigateRefresh(driver);
+		}
+	}
+
+	public void afterNavigateRefresh(final WebDriver driver) {
+		for (WebDriverEventListener listener: getListeners(DriverEvent.AFTER_NAVIGATE_REFRESH)) {
+			listener.afterNavigateRefresh(driver);
+		}
+	}
+
+	public void beforeFindBy(final By by, final WebElement element, final WebDriver driver) {
+		for (WebDriverEventListener listener: getListeners(DriverEvent.BEFORE_FIND_BY)) {
+			listener.beforeFindBy(by, element, driver);
+		}
+	}
+
+	public void afterFindBy(final By by, final WebElement element, final WebDriver driver) {
+		for (WebDriverEventListener listener: getListeners(DriverEvent.AFTER_FIND_BY)) {
+			listener.afterFindBy(by, element, driver);
+		}
+	}
+
+	public void beforeClickOn(final WebElement element, final WebDriver driver) {
+		for (WebDriverEventListener listener: getListeners(DriverEvent.BEFORE_CLICK_ON)) {
+			listener.beforeClickOn(element, driver);
+		}
+	}
+
+	public void afterClickOn(final WebElement element, final WebDriver driver) {
+		for (WebDriverEventListener listener: getListeners(DriverEvent.AFTER_CLICK_ON)) {
+			listener.afterClickOn(element, driver);
+		}
+	}
+
+	public void beforeChangeValueOf(final WebElement element, final WebDriver driver) {
+		for (WebDriverEventListener listener: getListeners(DriverEvent.BEFORE_CHANGE_VALUE_OF)) {
+			listener.beforeChangeValueOf(element, driver);
+		}
+	}
+
+	public void afterChangeValueOf(final WebElement element, final WebDriver driver) {
+		for (WebDriverEventListener listener: getListeners(DriverEvent.AFTER_CHANGE_VALUE_OF)) {
+			listener.afterChangeValueOf(element, driver);
+		}
+	}
+
+	public void beforeScript(final String script, final WebDriver driver) {
+		for (WebDriverEventListener listener: getListeners(DriverEvent.BEFORE_SCRIPT)) {
+			listener.beforeScript(script, driver);
+		}
+	}
+
+	public void afterScript(final String script, final WebDriver driver) {
+		for (WebDriverEventListener listener: getListeners(DriverEvent.AFTER_SCRIPT)) {
+			listener.afterScript(script, driver);
+		}
+	}
+
+	public void onException(final Throwable ex, final WebDriver driver) {
+		for (WebDriverEventListener listener: getListeners(DriverEvent.ON_EXCEPTION)) {
+			listener.onException(ex, driver);
+		}
+	}
+}
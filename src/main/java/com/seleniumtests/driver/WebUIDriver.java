@@ -17,6 +17,7 @@ package com.seleniumtests.driver;
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.log4j.Logger;
 import org.openqa.selenium.Platform;
@@ -24,6 +25,7 @@ import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.support.events.WebDriverEventListener;
 
+import com.seleniumtests.browserfactory.AbstractWebDriverFactory;
 import com.seleniumtests.browserfactory.AppiumDriverFactory;
 import com.seleniumtests.browserfactory.ChromeDriverFactory;
 import com.seleniumtests.browserfactory.FirefoxDriverFactory;
@@ -36,6 +38,7 @@ import com.seleniumtests.browserfactory.SauceLabsDriverFactory;
 import com.seleniumtests.browserfactory.TestDroidDriverFactory;
 import com.seleniumtests.core.SeleniumTestsContextManager;
 import com.seleniumtests.customexception.DriverExceptions;
+import com.seleniumtests.driver.stats.InstrumentedCommandExecutor;
 import com.seleniumtests.reporter.TestLogging;
 import com.seleniumtests.util.helper.WaitHelper;
 
@@ -51,6 +54,7 @@ public class WebUIDriver {
     private DriverConfig config = new DriverConfig();
     private WebDriver driver;
     private IWebDriverFactory webDriverBuilder;
+    private BrowserWatchdog watchdog;
 
     public String getNode() {
         return node;
@@ -61,8 +65,17 @@ public class WebUIDriver {
     }
 
     public static void cleanUp() {
-        IWebDriverFactory iWebDriverFactory = getWebUIDriver().webDriverBuilder;
-        if (iWebDriverFactory != null) {
+        WebUIDriver uiDriver = getWebUIDriver();
+        IWebDriverFactory iWebDriverFactory = uiDriver.webDriverBuilder;
+        
+        if (uiDriver.watchdog != null) {
+        	uiDriver.watchdog.stop();
+        }
+        
+        // a frozen browser has already been killed by the watchdog, calling quit again could block
+        if (uiDriver.watchdog != null && uiDriver.watchdog.isBrowserDead()) {
+        	logger.info("browser has been killed by watchdog, do not quit it");
+        } else if (iWebDriverFactory != null) {
             iWebDriverFactory.cleanUp();
         } else {
             WebDriver driver = driverSession.get();
@@ -81,6 +94,24 @@ public class WebUIDriver {
         uxDriverSession.remove();
     }
 
+    /**
+     * Bound the timeouts of the driver of this thread by the time budget of the test which starts. 
+     * Driver may have been created by a previous test, with timeouts bounded by the time left for that test.
+     * Nothing is sent to driver if timeouts are the same as for the previous test
+     */
+    public static void applyTestTimeouts() {
+        WebUIDriver uiDriver = uxDriverSession.get();
+        if (uiDriver == null || driverSession.get() == null || !(uiDriver.webDriverBuilder instanceof AbstractWebDriverFactory)) {
+        	return;
+        }
+        
+        try {
+        	((AbstractWebDriverFactory) uiDriver.webDriverBuilder).updateTimeouts(uiDriver.config);
+        } catch (WebDriverException e) {
+        	logger.warn("Cannot set driver timeouts: " + e.getMessage());
+        }
+    }
+
 	/**
      * Returns native WebDriver which can be converted to RemoteWebDriver.
      *
@@ -202,12 +233,43 @@ public class WebUIDriver {
         return driver;
     }
 
+    /**
+     * Name under which driver command statistics are gathered
+     * @return
+     */
+    private String getNodeName() {
+    	if (config.getMode() == DriverMode.LOCAL) {
+    		return "local";
+    	} else if (config.getMode() == DriverMode.ExistingGrid && config.getHubUrl() != null) {
+    		return config.getHubUrl();
+    	} else {
+    		return config.getMode().name();
+    	}
+    }
+
     protected WebDriver handleListeners(WebDriver driver) {
-        ArrayList<WebDriverEventListener> listeners = config.getWebDriverListeners();
-        if (listeners != null && listeners.size() > 0) {
-            for (int i = 0; i < config.getWebDriverListeners().size(); i++) {
-                driver = new CustomEventFiringWebDriver(driver).register(listeners.get(i));
-            }
+    	if (node == null) {
+    		node = getNodeName();
+    	}
+    	driver = InstrumentedCommandExecutor.instrument(driver, node);
+    	
+    	List<WebDriverEventListener> listeners = new ArrayList<>();
+    	
+    	// watchdog is only useful for browsers. It times every command sent through the instrumented executor
+    	InstrumentedCommandExecutor executor = InstrumentedCommandExecutor.getInstrumentedExecutor(driver);
+    	if (config.getBrowserCommandTimeout() > 0 && !config.getTestType().isMobile() && executor != null) {
+    		watchdog = new BrowserWatchdog(driver, config.getBrowserCommandTimeout() * 1000L);
+    		executor.setWatchdog(watchdog);
+    		watchdog.start();
+    	}
+    	
+        if (config.getWebDriverListeners() != null) {
+        	listeners.addAll(config.getWebDriverListeners());
+        }
+        
+        // a single event firing driver dispatches to all listeners
+        if (!listeners.isEmpty()) {
+        	driver = new CustomEventFiringWebDriver(driver).register(new MulticastEventListener(listeners));
         }
 
         return driver;
@@ -320,6 +382,10 @@ public class WebUIDriver {
         return config.getUserAgentOverride();
     }
 
+    public BrowserWatchdog getWatchdog() {
+        return watchdog;
+    }
+
     public IWebDriverFactory getWebDriverBuilder() {
         return webDriverBuilder;
     }
@@ -356,6 +422,7 @@ public class WebUIDriver {
 
         String chromeDriverPath = SeleniumTestsContextManager.getThreadContext().getChromeDriverPath();
         config.setChromeDriverPath(chromeDriverPath);
+        config.setChromeProfileTemplatePath(SeleniumTestsContextManager.getThreadContext().getChromeProfileTemplatePath());
 
         String ieDriverPath = SeleniumTestsContextManager.getThreadContext().getIEDriverPath();
         config.setIeDriverPath(ieDriverPath);
@@ -369,6 +436,7 @@ public class WebUIDriver {
         int explicitWaitTimeout = SeleniumTestsContextManager.getThreadContext().getExplicitWaitTimeout();
         config.setExplicitWaitTimeout(explicitWaitTimeout);
         config.setPageLoadTimeout(SeleniumTestsContextManager.getThreadContext().getPageLoadTimeout());
+        config.setBrowserCommandTimeout(SeleniumTestsContextManager.getThreadContext().getBrowserCommandTimeout());
 
         String outputDirectory = SeleniumTestsContextManager.getGlobalContext().getOutputDirectory();
         config.setOutputDirectory(outputDirectory);
@@ -412,6 +480,7 @@ public class WebUIDriver {
         }
 
         config.setUserAgentOverride(ua);
+        config.setHeadlessBrowser(SeleniumTestsContextManager.getThreadContext().isHeadlessBrowser());
 
         String listeners = SeleniumTestsContextManager.getThreadContext().getWebDriverListener();
         if (SeleniumTestsContextManager.getThreadContext().getEnableExceptionListener()) {
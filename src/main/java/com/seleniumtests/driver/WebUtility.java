@@ -19,6 +19,7 @@ import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.Point;
 import org.openqa.selenium.WebDriver;
 
+import com.seleniumtests.core.SeleniumTestsContextManager;
 import com.seleniumtests.reporter.TestLogging;
 
 import io.appium.java_client.android.AndroidDriver;
@@ -52,6 +53,13 @@ public class WebUtility {
         	if (driver instanceof AndroidDriver || driver instanceof IOSDriver) {
                 return;
             }
+        	
+        	// there is no screen to fit in headless mode, use the size the browser was started with
+        	if (SeleniumTestsContextManager.getThreadContext().isHeadlessBrowser()) {
+        		driver.manage().window().setPosition(new Point(0, 0));
+        		driver.manage().window().setSize(new Dimension(DriverConfig.HEADLESS_WINDOW_WIDTH, DriverConfig.HEADLESS_WINDOW_HEIGHT));
+        		return;
+        	}
 
             driver.manage().window().maximize();
         } catch (Exception ex) {
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2016 www.infotel.com
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.seleniumtests.driver;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.log4j.Logger;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import com.seleniumtests.driver.stats.InstrumentedCommandExecutor;
+import com.seleniumtests.reporter.TestLogging;
+
+/**
+ * Detects new windows from the page itself: window.open calls and clicks on links / forms with a target are
+ * signaled by a hook installed in the page, so that browser is not polled for its window handles while nothing happens
+ */
+public class WindowTracker {
+
+	private static final Logger logger = TestLogging.getLogger(WindowTracker.class);
+	
+	/**
+	 * Script timeout of a session when none has been set (webdriver specification)
+	 */
+	public static final long DEFAULT_SCRIPT_TIMEOUT = 30000;
+
+	public static final String OPENED = "opened";
+	public static final String TIMEOUT = "timeout";
+	public static final String NOT_TRACKED = "notTracked";
+
+	private static final String INSTALL_HOOK_SCRIPT =
+			  "if (!window.__seleniumRobotWindowTracker) {"
+			+ "  var tracker = window.__seleniumRobotWindowTracker = {opened: 0, callbacks: []};"
+			+ "  var notify = function() {"
+			+ "    tracker.opened++;"
+			+ "    var callbacks = tracker.callbacks;"
+			+ "    tracker.callbacks = [];"
+			+ "    for (var i = 0; i < callbacks.length; i++) { callbacks[i](); }"
+			+ "  };"
+			+ "  var isNewWindowTarget = function(target) {"
+			+ "    return target && target !== '_self' && target !== '_parent' && target !== '_top';"
+			+ "  };"
+			+ "  var originalOpen = window.open;"
+			+ "  window.open = function() {"
+			+ "    var newWindow = originalOpen.apply(window, arguments);"
+			+ "    setTimeout(notify, 0);"
+			+ "    return newWindow;"
+			+ "  };"
+			+ "  document.addEventListener('click', function(event) {"
+			+ "    var element = event.target;"
+			+ "    while (element && element.tagName !== 'A' && element.tagName !== 'AREA') { element = element.parentNode; }"
+			+ "    if (element && isNewWindowTarget(element.target)) { setTimeout(notify, 0); }"
+			+ "  }, true);"
+			+ "  document.addEventListener('submit', function(event) {"
+			+ "    if (isNewWindowTarget(event.target.target)) { setTimeout(notify, 0); }"
+			+ "  }, true);"
+			+ "}";
+
+	private static final String WAIT_OPENING_SCRIPT =
+			  "var callback = arguments[arguments.length - 1];"
+			+ "var tracker = window.__seleniumRobotWindowTracker;"
+			+ "if (!tracker) {"
+			+ "  callback('" + NOT_TRACKED + "');"
+			+ "} else if (tracker.opened > 0) {"
+			+ "  tracker.opened = 0;"
+			+ "  callback('" + OPENED + "');"
+			+ "} else {"
+			+ "  tracker.callbacks.push(function() { tracker.opened = 0; callback('" + OPENED + "'); });"
+			+ "  setTimeout(function() { callback('" + TIMEOUT + "'); }, arguments[0]);"
+			+ "}";
+
+	private static final String WAIT_READY_SCRIPT =
+			  "var callback = arguments[arguments.length - 1];"
+			+ "if (document.readyState === 'complete' && window.location.href !== 'about:blank') {"
+			+ "  callback(window.location.href);"
+			+ "} else {"
+			+ "  window.addEventListener('load', function() { callback(window.location.href); });"
+			+ "  setTimeout(function() { callback(window.location.href); }, arguments[0]);"
+			+ "}";
+
+	private final WebDriver driver;
+
+	public WindowTracker(final WebDriver driver) {
+		this.driver = driver;
+	}
+
+	/**
+	 * Install the hook in the current page. It's lost when page changes
+	 */
+	public void track() {
+		try {
+			((JavascriptExecutor) driver).executeScript(INSTALL_HOOK_SCRIPT);
+		} catch (Exception e) {
+			logger.debug("Cannot track window opening: " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Wait for the page to signal that a window has been opened, with a single browser call
+	 * @param waitMs	max time to wait
+	 * @return OPENED, TIMEOUT, or NOT_TRACKED if hook is not present in page (not installed or page changed)
+	 */
+	public String waitForWindowOpening(final int waitMs) {
+		try {
+			Object status = executeAsyncScript(WAIT_OPENING_SCRIPT, waitMs);
+			return status == null ? NOT_TRACKED : status.toString();
+		} catch (Exception e) {
+			return NOT_TRACKED;
+		}
+	}
+
+	/**
+	 * Wait for the document of the current window to be loaded, with a single browser call
+	 * @param waitMs
+	 * @return the address of the window
+	 */
+	public String waitForDocumentReady(final int waitMs) {
+		try {
+			Object address = executeAsyncScript(WAIT_READY_SCRIPT, waitMs);
+			return address == null ? "" : address.toString();
+		} catch (Exception e) {
+			logger.debug("Cannot wait for document: " + e.getMessage());
+			return driver.getCurrentUrl();
+		}
+	}
+
+	/**
+	 * Execute a script waiting at most waitMs. Script timeout of the session is raised for this script only, 
+	 * and set back to its configured value afterwards
+	 */
+	private Object executeAsyncScript(final String script, final int waitMs) {
+		long configuredTimeout = getConfiguredScriptTimeout();
+		driver.manage().timeouts().setScriptTimeout(waitMs + 1000L, TimeUnit.MILLISECONDS);
+		try {
+			return ((JavascriptExecutor) driver).executeAsyncScript(script, waitMs);
+		} finally {
+			driver.manage().timeouts().setScriptTimeout(configuredTimeout, TimeUnit.MILLISECONDS);
+		}
+	}
+	
+	/**
+	 * Selenium cannot read timeouts back, the last one sent to the session is recorded by the instrumented executor
+	 */
+	private long getConfiguredScriptTimeout() {
+		InstrumentedCommandExecutor executor = InstrumentedCommandExecutor.getInstrumentedExecutor(driver);
+		Long scriptTimeout = executor == null ? null : executor.getScriptTimeout();
+		return scriptTimeout == null ? DEFAULT_SCRIPT_TIMEOUT : scriptTimeout;
+	}
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2016 www.infotel.com
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.seleniumtests.driver.stats;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+
+import org.apache.commons.io.FileUtils;
+import org.json.JSONObject;
+import org.testng.ITestResult;
+
+import com.seleniumtests.util.StringUtility;
+
+/**
+ * Latency histograms of the commands sent to the driver, by command name (findElement, clickElement, executeScript, ...)
+ * Statistics are gathered per test (stored in the TestNG result) and per node
+ */
+public class CommandStatistics {
+	
+	public static final String TEST_RESULT_ATTRIBUTE = "commandStatistics";
+
+	private static Map<String, CommandStatistics> testStatistics = Collections.synchronizedMap(new LinkedHashMap<String, CommandStatistics>());
+	private static Map<String, CommandStatistics> nodeStatistics = Collections.synchronizedMap(new TreeMap<String, CommandStatistics>());
+	
+	private final Map<String, LatencyHistogram> histograms = new TreeMap<>();
+	
+	/**
+	 * @param command			name of the driver command
+	 * @param durationMicros	duration in microseconds
+	 */
+	public void record(final String command, final long durationMicros) {
+		LatencyHistogram histogram;
+		synchronized (histograms) {
+			histogram = histograms.get(command);
+			if (histogram == null) {
+				histogram = new LatencyHistogram();
+				histograms.put(command, histogram);
+			}
+		}
+		histogram.record(durationMicros);
+	}
+	
+	/**
+	 * @return a copy of the histograms, sorted by command name
+	 */
+	public Map<String, LatencyHistogram> getHistograms() {
+		synchronized (histograms) {
+			return new TreeMap<>(histograms);
+		}
+	}
+	
+	/**
+	 * @return the number of commands sent to the driver
+	 */
+	public long getCommandCount() {
+		long count = 0;
+		for (LatencyHistogram histogram: getHistograms().values()) {
+			count += histogram.getTotalCount();
+		}
+		return count;
+	}
+	
+	public JSONObject toJson() {
+		JSONObject commands = new JSONObject();
+		for (Entry<String, LatencyHistogram> entry: getHistograms().entrySet()) {
+			commands.put(entry.getKey(), entry.getValue().toJson());
+		}
+		JSONObject json = new JSONObject();
+		json.put("commandCount", getCommandCount());
+		json.put("commands", commands);
+		return json;
+	}
+	
+	/**
+	 * Get statistics of the test, creating them on first call
+	 * @param result	TestNG result of the test
+	 * @return
+	 */
+	public static CommandStatistics getTestStatistics(final ITestResult result) {
+		synchronized (result) {
+			CommandStatistics statistics = (CommandStatistics) result.getAttribute(TEST_RESULT_ATTRIBUTE);
+			if (statistics == null) {
+				statistics = new CommandStatistics();
+				result.setAttribute(TEST_RESULT_ATTRIBUTE, statistics);
+				String signature = StringUtility.constructMethodSignature(result.getMethod().getConstructorOrMethod().getMethod(), 
+																			result.getParameters());
+				testStatistics.put(signature, statistics);
+			}
+			return statistics;
+		}
+	}
+	
+	/**
+	 * Get statistics of the test if driver commands were sent during it
+	 * @param result
+	 * @return null if no statistics exist
+	 */
+	public static CommandStatistics getExistingTestStatistics(final ITestResult result) {
+		return (CommandStatistics) result.getAttribute(TEST_RESULT_ATTRIBUTE);
+	}
+	
+	public static CommandStatistics getNodeStatistics(final String node) {
+		synchronized (nodeStatistics) {
+			CommandStatistics statistics = nodeStatistics.get(node);
+			if (statistics == null) {
+				statistics = new CommandStatistics();
+				nodeStatistics.put(node, statistics);
+			}
+			return statistics;
+		}
+	}
+	
+	/**
+	 * Write statistics of all tests and nodes in a JSON file
+	 * @param file
+	 * @throws IOException
+	 */
+	public static void exportToJson(final File file) throws IOException {
+		JSONObject tests = new JSONObject();
+		synchronized (testStatistics) {
+			for (Entry<String, CommandStatistics> entry: testStatistics.entrySet()) {
+				tests.put(entry.getKey(), entry.getValue().toJson());
+			}
+		}
+		JSONObject nodes = new JSONObject();
+		synchronized (nodeStatistics) {
+			for (Entry<String, CommandStatistics> entry: nodeStatistics.entrySet()) {
+				nodes.put(entry.getKey(), entry.getValue().toJson());
+			}
+		}
+		
+		JSONObject json = new JSONObject();
+		json.put("tests", tests);
+		json.put("nodes", nodes);
+		FileUtils.write(file, json.toString(2));
+	}
+	
+	public static void reset() {
+		testStatistics.clear();
+		nodeStatistics.clear();
+	}
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2016 www.infotel.com
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.seleniumtests.driver.stats;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+
+import org.apache.log4j.Logger;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.internal.WrapsDriver;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.CommandExecutor;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.Response;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+import com.seleniumtests.driver.BrowserWatchdog;
+import com.seleniumtests.reporter.TestLogging;
+
+/**
+ * Command executor measuring the duration of each command sent to the browser, at protocol level, so that
+ * all commands are seen (element commands, screenshots, page source, ...)
+ * When a {@link BrowserWatchdog} is set, it's told about each command so that a frozen browser is detected whatever the command
+ */
+public class InstrumentedCommandExecutor implements CommandExecutor {
+	
+	private static final Logger logger = TestLogging.getLogger(InstrumentedCommandExecutor.class);
+	
+	private final CommandExecutor executor;
+	private final CommandStatistics nodeStatistics;
+	private volatile BrowserWatchdog watchdog;
+	private volatile Long scriptTimeout = null;
+	
+	public InstrumentedCommandExecutor(final CommandExecutor executor, final String node) {
+		this.executor = executor;
+		this.nodeStatistics = CommandStatistics.getNodeStatistics(node);
+	}
+
+	@Override
+	public Response execute(final Command command) throws IOException {
+		BrowserWatchdog currentWatchdog = watchdog;
+		
+		// quit must reach a dead browser so that it's killed
+		boolean watched = currentWatchdog != null && !DriverCommand.QUIT.equals(command.getName());
+		if (watched) {
+			currentWatchdog.commandStarted(command.getName());
+		}
+		
+		recordTimeouts(command);
+		
+		long start = System.nanoTime();
+		try {
+			return executor.execute(command);
+		} catch (IOException | RuntimeException e) {
+			if (watched) {
+				currentWatchdog.commandFailed(e);
+			}
+			throw e;
+		} finally {
+			if (watched) {
+				currentWatchdog.commandFinished();
+			}
+			
+			long duration = (System.nanoTime() - start) / 1000;
+			nodeStatistics.record(command.getName(), duration);
+			
+			// commands may also be sent outside of tests (configuration methods)
+			ITestResult result = Reporter.getCurrentTestResult();
+			if (result != null) {
+				CommandStatistics.getTestStatistics(result).record(command.getName(), duration);
+			}
+		}
+	}
+	
+	/**
+	 * Keep the script timeout set on session, as it cannot be read back through selenium
+	 */
+	private void recordTimeouts(final Command command) {
+		Object timeout = null;
+		if (DriverCommand.SET_SCRIPT_TIMEOUT.equals(command.getName())) {
+			timeout = command.getParameters().get("ms");
+		} else if (DriverCommand.SET_TIMEOUT.equals(command.getName()) && "script".equals(command.getParameters().get("type"))) {
+			timeout = command.getParameters().get("ms");
+		}
+		if (timeout instanceof Number) {
+			scriptTimeout = ((Number) timeout).longValue();
+		}
+	}
+	
+	/**
+	 * @return the last script timeout set on session, in milliseconds, or null if none has been set
+	 */
+	public Long getScriptTimeout() {
+		return scriptTimeout;
+	}
+	
+	public CommandExecutor getExecutor() {
+		return executor;
+	}
+	
+	/**
+	 * Watchdog timing each command, null to stop watching
+	 */
+	public void setWatchdog(final BrowserWatchdog watchdog) {
+		this.watchdog = watchdog;
+	}
+	
+	/**
+	 * @return the instrumented executor of the driver, or null if driver has not been instrumented
+	 */
+	public static InstrumentedCommandExecutor getInstrumentedExecutor(final WebDriver driver) {
+		if (driver instanceof WrapsDriver) {
+			return getInstrumentedExecutor(((WrapsDriver) driver).getWrappedDriver());
+		}
+		if (driver instanceof RemoteWebDriver && ((RemoteWebDriver) driver).getCommandExecutor() instanceof InstrumentedCommandExecutor) {
+			return (InstrumentedCommandExecutor) ((RemoteWebDriver) driver).getCommandExecutor();
+		}
+		return null;
+	}
+	
+	/**
+	 * Replace the command executor of the driver by an instrumented one
+	 * Only drivers speaking the webdriver protocol (RemoteWebDriver and subclasses) can be instrumented
+	 * @param driver	the native driver
+	 * @param node		where the browser runs
+	 * @return the same driver
+	 */
+	public static WebDriver instrument(final WebDriver driver, final String node) {
+		if (!(driver instanceof RemoteWebDriver)) {
+			return driver;
+		}
+		
+		RemoteWebDriver remoteDriver = (RemoteWebDriver) driver;
+		if (remoteDriver.getCommandExecutor() instanceof InstrumentedCommandExecutor) {
+			return driver;
+		}
+		
+		try {
+			Method setCommandExecutor = RemoteWebDriver.class.getDeclaredMethod("setCommandExecutor", CommandExecutor.class);
+			setCommandExecutor.setAccessible(true);
+			setCommandExecutor.invoke(remoteDriver, new InstrumentedCommandExecutor(remoteDriver.getCommandExecutor(), node));
+		} catch (Exception e) {
+			logger.warn("Cannot instrument driver: " + e.getMessage());
+		}
+		return driver;
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2016 www.infotel.com
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.seleniumtests.driver.stats;
+
+import org.json.JSONObject;
+
+/**
+ * Latency histogram with log-linear buckets (as HdrHistogram does): each power of 2 is split into 8 buckets 
+ * so that recorded values are kept with a precision of 12.5% whatever their magnitude, with a fixed, small memory footprint.
+ * Values are in microseconds.
+ */
+public class LatencyHistogram {
+	
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int MAX_VALUE_BITS = 36;		// about 19 hours
+	private static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+	private static final int BUCKET_COUNT = (MAX_VALUE_BITS - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+	private final int[] counts = new int[BUCKET_COUNT];
+	private long totalCount = 0;
+	private long sum = 0;
+	private long min = Long.MAX_VALUE;
+	private long max = 0;
+	
+	static int bucketIndex(long value) {
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		return (shift + 1) * SUB_BUCKET_COUNT + (int) ((value >>> shift) - SUB_BUCKET_COUNT);
+	}
+	
+	/**
+	 * @return the highest value that falls in the bucket
+	 */
+	static long bucketHighestValue(int index) {
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int shift = index / SUB_BUCKET_COUNT - 1;
+		long subBucket = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+		return ((subBucket + 1) << shift) - 1;
+	}
+	
+	public synchronized void record(long value) {
+		long clamped = Math.min(Math.max(value, 0), MAX_VALUE);
+		counts[bucketIndex(clamped)]++;
+		totalCount++;
+		sum += clamped;
+		min = Math.min(min, clamped);
+		max = Math.max(max, clamped);
+	}
+	
+	public synchronized void add(final LatencyHistogram other) {
+		synchronized (other) {
+			for (int i = 0; i < BUCKET_COUNT; i++) {
+				counts[i] += other.counts[i];
+			}
+			totalCount += other.totalCount;
+			sum += other.sum;
+			min = Math.min(min, other.min);
+			max = Math.max(max, other.max);
+		}
+	}
+	
+	public synchronized long getTotalCount() {
+		return totalCount;
+	}
+	
+	public synchronized long getMin() {
+		return totalCount == 0 ? 0 : min;
+	}
+	
+	public synchronized long getMax() {
+		return max;
+	}
+	
+	public synchronized double getMean() {
+		return totalCount == 0 ? 0 : (double) sum / totalCount;
+	}
+	
+	/**
+	 * @param percentile	between 0 and 100
+	 * @return	the value below which the given percentage of values are, within histogram precision
+	 */
+	public synchronized long getValueAtPercentile(double percentile) {
+		if (totalCount == 0) {
+			return 0;
+		}
+		long countAtPercentile = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+		long cumulated = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			cumulated += counts[i];
+			if (cumulated >= countAtPercentile) {
+				return Math.min(bucketHighestValue(i), max);
+			}
+		}
+		return max;
+	}
+	
+	/**
+	 * Summary of the histogram, in milliseconds
+	 */
+	public synchronized JSONObject toJson() {
+		JSONObject summary = new JSONObject();
+		summary.put("count", totalCount);
+		summary.put("min", getMin() / 1000.0);
+		summary.put("mean", Math.round(getMean()) / 1000.0);
+		summary.put("p50", getValueAtPercentile(50) / 1000.0);
+		summary.put("p90", getValueAtPercentile(90) / 1000.0);
+		summary.put("p99", getValueAtPercentile(99) / 1000.0);
+		summary.put("max", max / 1000.0);
+		return summary;
+	}
+}
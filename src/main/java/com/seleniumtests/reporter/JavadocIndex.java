@@ -0,0 +1,117 @@
+/*
+ * Copyright 2016 www.infotel.com
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.seleniumtests.reporter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Descriptions of test methods, extracted from their javadoc at compile time by {@link JavadocIndexProcessor}.
+ * All index files found in classpath are read once
+ */
+public class JavadocIndex {
+
+	private static final Logger logger = TestLogging.getLogger(JavadocIndex.class);
+
+	public static final String INDEX_RESOURCE = "META-INF/seleniumRobot/javadoc.properties";
+
+	private static JavadocIndex instance = null;
+
+	private final Map<String, String> descriptions = new HashMap<>();
+
+	protected JavadocIndex(final ClassLoader classLoader) {
+		try {
+			Enumeration<URL> indexes = classLoader.getResources(INDEX_RESOURCE);
+			while (indexes.hasMoreElements()) {
+				URL index = indexes.nextElement();
+				Properties properties = new Properties();
+				try (InputStream stream = index.openStream()) {
+					properties.load(stream);
+				}
+				for (String key : properties.stringPropertyNames()) {
+					descriptions.put(key, properties.getProperty(key));
+				}
+			}
+		} catch (IOException e) {
+			logger.error("Cannot read javadoc index: " + e.getMessage());
+		}
+	}
+
+	public static synchronized JavadocIndex getInstance() {
+		if (instance == null) {
+			ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+			instance = new JavadocIndex(classLoader == null ? JavadocIndex.class.getClassLoader() : classLoader);
+		}
+		return instance;
+	}
+
+	/**
+	 * Returns the description of the method
+	 * @param method
+	 * @return	null if method has not been indexed, empty string if it has no javadoc
+	 */
+	public String getDescription(final Method method) {
+		List<String> parameterTypes = new ArrayList<>();
+		for (Class<?> type : method.getParameterTypes()) {
+			parameterTypes.add(type.getSimpleName());
+		}
+		return descriptions.get(key(method.getDeclaringClass().getName(), method.getName(), parameterTypes));
+	}
+
+	public int size() {
+		return descriptions.size();
+	}
+
+	/**
+	 * Key of a method in index
+	 * @param className			binary name of the class
+	 * @param methodName
+	 * @param parameterTypes	simple names of erased parameter types
+	 * @return
+	 */
+	public static String key(final String className, final String methodName, final List<String> parameterTypes) {
+		return className + "." + methodName + "(" + String.join(",", parameterTypes) + ")";
+	}
+
+	/**
+	 * Description part of a javadoc comment: lines before the first block tag, without leading spaces
+	 * @param docComment	comment, without comment delimiters and leading stars
+	 * @return
+	 */
+	public static String extractDescription(final String docComment) {
+		if (docComment == null) {
+			return "";
+		}
+
+		StringBuilder description = new StringBuilder();
+		for (String line : docComment.split("\r?\n")) {
+			String trimmedLine = line.trim();
+			if (trimmedLine.startsWith("@")) {
+				break;
+			}
+			description.append(trimmedLine).append('\n');
+		}
+		return description.toString().trim();
+	}
+}
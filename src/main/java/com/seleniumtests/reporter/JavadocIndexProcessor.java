@@ -0,0 +1,119 @@
+/*
+ * Copyright 2016 www.infotel.com
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.seleniumtests.reporter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Writes the description of TestNG test methods to {@link JavadocIndex#INDEX_RESOURCE} when tests are compiled, so that
+ * report does not have to parse test sources.
+ * It's registered as a service, so javac uses it for any project depending on seleniumRobot, unless annotation
+ * processing is disabled. In that case, report falls back to source parsing
+ */
+@SupportedAnnotationTypes("org.testng.annotations.Test")
+public class JavadocIndexProcessor extends AbstractProcessor {
+
+	private final Properties descriptions = new Properties();
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+		for (TypeElement annotation : annotations) {
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				if (element.getKind() == ElementKind.METHOD) {
+					index((ExecutableElement) element);
+
+				// @Test on class applies to all its public methods
+				} else if (element.getKind() == ElementKind.CLASS) {
+					for (ExecutableElement method : ElementFilter.methodsIn(element.getEnclosedElements())) {
+						if (method.getModifiers().contains(Modifier.PUBLIC)) {
+							index(method);
+						}
+					}
+				}
+			}
+		}
+
+		if (roundEnv.processingOver() && !descriptions.isEmpty()) {
+			writeIndex();
+		}
+
+		// @Test may be processed by others
+		return false;
+	}
+
+	private void index(final ExecutableElement method) {
+		TypeElement type = (TypeElement) method.getEnclosingElement();
+		List<String> parameterTypes = new ArrayList<>();
+		for (VariableElement parameter : method.getParameters()) {
+			parameterTypes.add(getSimpleName(processingEnv.getTypeUtils().erasure(parameter.asType())));
+		}
+
+		String key = JavadocIndex.key(processingEnv.getElementUtils().getBinaryName(type).toString(),
+									method.getSimpleName().toString(), parameterTypes);
+		descriptions.setProperty(key, JavadocIndex.extractDescription(processingEnv.getElementUtils().getDocComment(method)));
+	}
+
+	/**
+	 * Same name as {@link Class#getSimpleName()} at runtime
+	 */
+	private String getSimpleName(final TypeMirror type) {
+		if (type.getKind() == TypeKind.ARRAY) {
+			return getSimpleName(((ArrayType) type).getComponentType()) + "[]";
+		} else if (type.getKind() == TypeKind.DECLARED) {
+			return ((DeclaredType) type).asElement().getSimpleName().toString();
+		} else {
+			return type.toString();
+		}
+	}
+
+	private void writeIndex() {
+		try {
+			FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", JavadocIndex.INDEX_RESOURCE);
+			try (Writer writer = index.openWriter()) {
+				descriptions.store(writer, "Test descriptions, generated by " + getClass().getSimpleName());
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Cannot write javadoc index: " + e.getMessage());
+		}
+	}
+}
@@ -23,8 +23,12 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
 
 import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
 import javax.xml.bind.Unmarshaller;
 
 import org.apache.log4j.Logger;
@@ -41,40 +45,166 @@ import com.seleniumtests.uipage.IPage;
 
 public class PluginsHelper {
 	private static final Logger logger = TestLogging.getLogger(PluginsHelper.class);
-    private static Map<String, SeleniumTestsPageListener> pageListenerMap = Collections.synchronizedMap(
-            new HashMap<String, SeleniumTestsPageListener>());
+    private static Map<String, SeleniumTestsPageListener> pageListenerMap = new ConcurrentHashMap<String, SeleniumTestsPageListener>();
 
     private static final PluginsHelper instance = new PluginsHelper();
+    
+    // JAXB context is expensive to create, it's created once for all loadings
+    private static volatile JAXBContext jaxbContext = null;
+    private static final Object jaxbContextLock = new Object();
+    
+    // plugins already loaded, by configuration file
+    private static final Map<String, LoadedPlugins> loadedPlugins = new ConcurrentHashMap<String, LoadedPlugins>();
+    
+    // compiled patterns of plugins checked through isPageListenerApplicable
+    private static final Map<Plugin, PluginMatcher> pluginMatchers = Collections.synchronizedMap(new WeakHashMap<Plugin, PluginMatcher>());
 
-    public static synchronized PluginsHelper getInstance() {
+    public static PluginsHelper getInstance() {
         return instance;
     }
 
-    private SeleniumTestsPlugins _seleniumTestsPlugins = null;
+    private volatile LoadedPlugins currentPlugins = null;
+    
+    /**
+     * Plugins read from a configuration file, with their listeners
+     */
+    private static class LoadedPlugins {
+    	private final long lastModified;
+    	private final Map<String, SeleniumTestsPageListener> listeners;
+    	private final List<PluginMatcher> matchers = new ArrayList<PluginMatcher>();
+    	
+    	// listeners to call, by test method (without parameters) and page
+    	private final Map<String, List<SeleniumTestsPageListener>> applicableListeners = new ConcurrentHashMap<String, List<SeleniumTestsPageListener>>();
+    	
+    	public LoadedPlugins(final long lastModified, final SeleniumTestsPlugins plugins, final Map<String, SeleniumTestsPageListener> listeners) {
+    		this.lastModified = lastModified;
+    		this.listeners = listeners;
+    		for (Plugin plugin : plugins.getPlugin()) {
+    			matchers.add(new PluginMatcher(plugin));
+    		}
+    	}
+    	
+    	/**
+    	 * Listeners applicable to this test method and page, searched only once whatever the parameters of the test method
+    	 * @param testMethodSignature
+    	 * @param pageClassName
+    	 * @return
+    	 */
+    	public List<SeleniumTestsPageListener> getApplicableListeners(final String testMethodSignature, final String pageClassName) {
+    		final String testMethodName = getTestMethodName(testMethodSignature);
+    		return applicableListeners.computeIfAbsent((testMethodName == null ? "*" : testMethodName) + "/" + pageClassName, key -> {
+    			List<SeleniumTestsPageListener> pageListenerList = new ArrayList<SeleniumTestsPageListener>();
+    			for (PluginMatcher matcher : matchers) {
+    				SeleniumTestsPageListener listener = listeners.get(matcher.className);
+    				if (listener != null && matcher.isApplicable(testMethodName, pageClassName)) {
+    					pageListenerList.add(listener);
+    				}
+    			}
+    			return Collections.unmodifiableList(pageListenerList);
+    		});
+    	}
+    }
+    
+    /**
+     * Patterns of a plugin, compiled once
+     */
+    private static class PluginMatcher {
+    	private final String className;
+    	private final List<TestMatcher> testMatchers = new ArrayList<TestMatcher>();
+    	
+    	public PluginMatcher(final Plugin plugin) {
+    		className = plugin.getClassName().trim();
+    		for (Test test : plugin.getTest()) {
+    			testMatchers.add(new TestMatcher(test));
+    		}
+    	}
+    	
+    	public boolean isApplicable(final String testMethodSignature, final String pageClassName) {
+    		if (testMethodSignature == null) {
+                return true;
+            }
+    		
+    		for (TestMatcher test : testMatchers) {
+    			if (test.testPattern.matcher(testMethodSignature).matches() && matchesAny(test.pagePatterns, pageClassName)) {
+    				for (int i = 0; i < test.methodPatterns.size(); i++) {
+    					if (test.methodPatterns.get(i).matcher(testMethodSignature).matches()) {
+    						return matchesAny(test.methodPagePatterns.get(i), pageClassName);
+    					}
+    				}
+    				return true;
+    			}
+    		}
+    		return false;
+    	}
+    	
+    	private static boolean matchesAny(final List<Pattern> patterns, final String value) {
+    		for (Pattern pattern : patterns) {
+    			if (pattern.matcher(value).matches()) {
+    				return true;
+    			}
+    		}
+    		return false;
+    	}
+    }
+    
+    private static class TestMatcher {
+    	private final Pattern testPattern;
+    	private final List<Pattern> pagePatterns;
+    	private final List<Pattern> methodPatterns = new ArrayList<Pattern>();
+    	private final List<List<Pattern>> methodPagePatterns = new ArrayList<List<Pattern>>();
+    	
+    	public TestMatcher(final Test test) {
+    		testPattern = Pattern.compile(test.getClassName() + "\\.\\w.*");
+    		pagePatterns = compilePages(test.getPage());
+    		for (Method method : test.getMethod()) {
+    			methodPatterns.add(Pattern.compile(test.getClassName() + "\\." + method.getName() + ".*"));
+    			methodPagePatterns.add(compilePages(method.getPage()));
+    		}
+    	}
+    	
+    	private static List<Pattern> compilePages(final List<Page> pages) {
+    		List<Pattern> patterns = new ArrayList<Pattern>();
+    		for (Page page : pages) {
+    			patterns.add(Pattern.compile(page.getClassName()));
+    		}
+    		return patterns;
+    	}
+    }
 
-    public List<SeleniumTestsPageListener> getPageListeners() {
-        List<SeleniumTestsPageListener> tempPageListenerList = Collections.synchronizedList(
-                new ArrayList<SeleniumTestsPageListener>());
-        tempPageListenerList.addAll(pageListenerMap.values());
+    /**
+     * Returns test class and method name of the signature, without parameters
+     * e.g: 'com.company.MyTest.testLogin' for 'com.company.MyTest.testLogin(java.lang.String)'
+     * @param testMethodSignature
+     * @return
+     */
+    private static String getTestMethodName(final String testMethodSignature) {
+    	if (testMethodSignature == null || testMethodSignature.indexOf('(') < 0) {
+    		return testMethodSignature;
+    	}
+    	return testMethodSignature.substring(0, testMethodSignature.indexOf('('));
+    }
 
-        return tempPageListenerList;
+    public List<SeleniumTestsPageListener> getPageListeners() {
+        return new ArrayList<SeleniumTestsPageListener>(pageListenerMap.values());
+    }
+    
+    /**
+     * Returns the loaded listeners which apply to this test method and page
+     * @param testMethodSignature
+     * @param pageClassName
+     * @return
+     */
+    public List<SeleniumTestsPageListener> getPageListeners(final String testMethodSignature, final String pageClassName) {
+    	LoadedPlugins plugins = currentPlugins;
+    	if (plugins == null) {
+    		return Collections.emptyList();
+    	}
+    	return plugins.getApplicableListeners(testMethodSignature, pageClassName);
     }
 
     public void invokePageListeners(final String testMethodSignature, final IPage page, final boolean isPageLoad) {
 
-        if (_seleniumTestsPlugins == null) {
-            return;
-        }
-
-        List<SeleniumTestsPageListener> pageListenerList = new ArrayList<SeleniumTestsPageListener>();
-
-        for (Plugin plugin : _seleniumTestsPlugins.getPlugin()) {
-            if (isPageListenerApplicable(plugin, testMethodSignature, page.getClass().getCanonicalName())) {
-                pageListenerList.add(pageListenerMap.get(plugin.getClassName().trim()));
-            }
-        }
-
-        for (SeleniumTestsPageListener listener : pageListenerList) {
+        for (SeleniumTestsPageListener listener : getPageListeners(testMethodSignature, page.getClass().getCanonicalName())) {
             try {
                 if (isPageLoad) {
                     listener.onPageLoad(page);
@@ -89,39 +219,7 @@ public class PluginsHelper {
 
     public boolean isPageListenerApplicable(final Plugin plugin, final String testMethodSignature,
             final String pageClassName) {
-        if (testMethodSignature == null) {
-            return true;
-        }
-
-        boolean testFound = false;
-        for (Test test : plugin.getTest()) {
-            if (testMethodSignature.matches(test.getClassName() + "\\.\\w.*")) {
-                for (Page page : test.getPage()) {
-                    if (pageClassName.matches(page.getClassName())) {
-                        testFound = true;
-                        break;
-                    }
-                }
-
-                if (testFound) {
-                    for (Method method : test.getMethod()) {
-                        if (testMethodSignature.matches(test.getClassName() + "\\." + method.getName() + ".*")) {
-                            for (Page page : method.getPage()) {
-                                if (pageClassName.matches(page.getClassName())) {
-                                    return true;
-                                }
-                            }
-
-                            return false;
-                        }
-                    }
-
-                    return true;
-                }
-            }
-        }
-
-        return false;
+        return pluginMatchers.computeIfAbsent(plugin, PluginMatcher::new).isApplicable(getTestMethodName(testMethodSignature), pageClassName);
     }
 
     public boolean isTestResultEffected(final String pageListenerClassName) {
@@ -133,25 +231,59 @@ public class PluginsHelper {
         return false;
     }
 
+    /**
+     * Load plugins from configuration file. File is read and listeners created only once, and again when file changes
+     * @param path
+     */
     public void loadPlugins(final File path) {
+    	final long lastModified = path.lastModified();
+    	LoadedPlugins plugins = loadedPlugins.get(path.getAbsolutePath());
+    	
+    	// concurrent loadings of the same file wait for the first one
+    	if (plugins == null || plugins.lastModified != lastModified) {
+    		plugins = loadedPlugins.compute(path.getAbsolutePath(), (key, previousPlugins) -> 
+    						previousPlugins != null && previousPlugins.lastModified == lastModified ? previousPlugins: readPlugins(path, lastModified));
+    	}
+    	
+    	if (plugins != currentPlugins) {
+    		pageListenerMap.putAll(plugins.listeners);
+    		currentPlugins = plugins;
+    	}
+    }
+    
+    private static JAXBContext getJaxbContext() throws JAXBException {
+    	if (jaxbContext == null) {
+    		synchronized (jaxbContextLock) {
+    			if (jaxbContext == null) {
+    				// model package has no ObjectFactory nor jaxb.index, root class is given so that JAXB finds the other ones
+    				jaxbContext = JAXBContext.newInstance(SeleniumTestsPlugins.class);
+    			}
+    		}
+    	}
+    	return jaxbContext;
+    }
+
+    private LoadedPlugins readPlugins(final File path, final long lastModified) {
         logger.info("Loading Selenium Tests Plugins from path: " + path + " ...");
 
         InputStream is = null;
         try {
             is = new FileInputStream(path);
 
-            JAXBContext jc = JAXBContext.newInstance("com.seleniumtests.reporter.pluginmodel");
-            Unmarshaller u = jc.createUnmarshaller();
-            _seleniumTestsPlugins = (SeleniumTestsPlugins) u.unmarshal(is);
+            Unmarshaller u = getJaxbContext().createUnmarshaller();
+            SeleniumTestsPlugins seleniumTestsPlugins = (SeleniumTestsPlugins) u.unmarshal(is);
+            Map<String, SeleniumTestsPageListener> listeners = new HashMap<String, SeleniumTestsPageListener>();
 
-            for (Plugin plugin : _seleniumTestsPlugins.getPlugin()) {
+            for (Plugin plugin : seleniumTestsPlugins.getPlugin()) {
                 try {
-                    pageListenerMap.put(plugin.getClassName().trim(),
+                    listeners.put(plugin.getClassName().trim(),
                         (SeleniumTestsPageListener) Class.forName(plugin.getClassName().trim()).newInstance());
                 } catch (Exception e) {
                     logger.error("Unable to load Plugins.", e);
                 }
             }
+            
+            return new LoadedPlugins(lastModified, seleniumTestsPlugins, listeners);
 
         } catch (Exception e) {
             throw new ConfigurationException(e.getMessage());
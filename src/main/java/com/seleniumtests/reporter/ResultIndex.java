@@ -0,0 +1,136 @@
+/*
+ * Copyright 2016 www.infotel.com
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.seleniumtests.reporter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.testng.IResultMap;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+
+import com.seleniumtests.util.StringUtility;
+
+/**
+ * Lookup tables on the results of a result map, built once, so that looking for the results of a method
+ * or for a given test run does not scan the whole map
+ */
+public class ResultIndex {
+
+	private final int size;
+	private final Map<ITestNGMethod, List<ITestResult>> resultsByMethod = new HashMap<>();
+	private final Map<String, TreeMap<String, ITestResult>> resultsByMethodName = new HashMap<>();
+	private final Map<RunKey, ITestResult> resultsByRun = new HashMap<>();
+
+	/**
+	 * Identifies a test run: same method on the same instance, with the same parameters, ended at the same time
+	 */
+	private static final class RunKey {
+		private final ITestNGMethod method;
+		private final Object instance;
+		private final Object[] parameters;
+		private final long endMillis;
+		private final int hash;
+
+		private RunKey(final ITestResult result) {
+			method = result.getMethod();
+			instance = result.getInstance();
+			parameters = result.getParameters() == null ? new Object[0] : result.getParameters();
+			endMillis = result.getEndMillis();
+			hash = ((method.hashCode() * 31 + System.identityHashCode(instance)) * 31 + Arrays.deepHashCode(parameters)) * 31
+					+ Long.hashCode(endMillis);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(final Object obj) {
+			if (!(obj instanceof RunKey)) {
+				return false;
+			}
+			RunKey other = (RunKey) obj;
+			return endMillis == other.endMillis && instance == other.instance && method.equals(other.method)
+					&& Arrays.deepEquals(parameters, other.parameters);
+		}
+	}
+
+	public ResultIndex(final IResultMap map) {
+		size = map.size();
+		for (ITestResult result : map.getAllResults()) {
+			List<ITestResult> results = resultsByMethod.get(result.getMethod());
+			if (results == null) {
+				results = new ArrayList<>();
+				resultsByMethod.put(result.getMethod(), results);
+			}
+			results.add(result);
+
+			// results are displayed sorted by signature, only the first one is kept for a given signature
+			TreeMap<String, ITestResult> sortedResults = resultsByMethodName.get(result.getMethod().getMethodName());
+			if (sortedResults == null) {
+				sortedResults = new TreeMap<>();
+				resultsByMethodName.put(result.getMethod().getMethodName(), sortedResults);
+			}
+			String signature = StringUtility.constructMethodSignature(result.getMethod().getConstructorOrMethod().getMethod(),
+																	result.getParameters());
+			if (!sortedResults.containsKey(signature)) {
+				sortedResults.put(signature, result);
+			}
+
+			resultsByRun.put(new RunKey(result), result);
+		}
+	}
+
+	/**
+	 * Index does not follow map changes. Rebuild it if results have been added or removed
+	 */
+	public boolean isUpToDate(final IResultMap map) {
+		return map.size() == size;
+	}
+
+	/**
+	 * Results of the method, in map order
+	 */
+	public List<ITestResult> getResults(final ITestNGMethod method) {
+		List<ITestResult> results = resultsByMethod.get(method);
+		return results == null ? Collections.<ITestResult>emptyList() : Collections.unmodifiableList(results);
+	}
+
+	public boolean hasResults(final ITestNGMethod method) {
+		return resultsByMethod.containsKey(method);
+	}
+
+	/**
+	 * Results of all methods with this name, sorted by signature
+	 */
+	public Collection<ITestResult> getSortedResults(final String methodName) {
+		TreeMap<String, ITestResult> results = resultsByMethodName.get(methodName);
+		return results == null ? Collections.<ITestResult>emptyList() : Collections.unmodifiableCollection(results.values());
+	}
+
+	/**
+	 * Result of the map for the same test run as the given result, or null if there is none
+	 */
+	public ITestResult getResult(final ITestResult result) {
+		return resultsByRun.get(new RunKey(result));
+	}
+}
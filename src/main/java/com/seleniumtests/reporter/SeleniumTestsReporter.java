@@ -16,6 +16,7 @@ package com.seleniumtests.reporter;
 
 import java.io.BufferedWriter;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -23,35 +24,60 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.io.Reader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
 import java.lang.reflect.Method;
+import java.math.BigInteger;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.AbstractMap.SimpleEntry;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Properties;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
 import org.apache.log4j.Logger;
 import org.apache.velocity.Template;
 import org.apache.velocity.VelocityContext;
 import org.apache.velocity.app.VelocityEngine;
+import org.apache.velocity.runtime.Renderable;
 import org.testng.IInvokedMethod;
 import org.testng.IInvokedMethodListener;
 import org.testng.IReporter;
@@ -78,6 +104,8 @@ import com.seleniumtests.driver.TestType;
 import com.seleniumtests.driver.WebUIDriver;
 import com.seleniumtests.driver.screenshots.ScreenShot;
 import com.seleniumtests.driver.screenshots.ScreenshotUtil;
+import com.seleniumtests.driver.stats.CommandStatistics;
+import com.seleniumtests.driver.stats.LatencyHistogram;
 import com.seleniumtests.util.StringUtility;
 import com.thoughtworks.qdox.JavaDocBuilder;
 import com.thoughtworks.qdox.model.JavaClass;
@@ -88,6 +116,9 @@ public class SeleniumTestsReporter implements IReporter, ITestListener, IInvoked
 
     private static Logger logger = TestLogging.getLogger(SeleniumTestsReporter.class);
 
+    public static final String RESOURCE_MANIFEST = "resources.manifest";
+    private static final Map<String, String> resourceDigests = new ConcurrentHashMap<String, String>();
+
     protected class TestMethodSorter<T extends ITestNGMethod> implements Comparator<T> {
 
         /**
@@ -115,6 +146,59 @@ public class SeleniumTestsReporter implements IReporter, ITestListener, IInvoked
         }
     }
 
+    /**
+     * Detail of a test result, at its place in report. When rendered in advance, it's stored in file
+     */
+    protected static class TestFragment {
+        private final ITestResult result;
+        private final ITestNGMethod method;
+        private final String style;
+        private final ISuite suite;
+        private final ITestContext ctx;
+        private final String treeId;
+        private File file = null;
+
+        public TestFragment(final ITestResult result, final ITestNGMethod method, final String style, final ISuite suite,
+                final ITestContext ctx, final String treeId) {
+            this.result = result;
+            this.method = method;
+            this.style = style;
+            this.suite = suite;
+            this.ctx = ctx;
+            this.treeId = treeId;
+        }
+    }
+
+    /**
+     * Renders a range of fragments, splitting it until it's small enough
+     */
+    private class FragmentRenderer extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private static final int FRAGMENTS_PER_TASK = 4;
+
+        private final List<TestFragment> fragments;
+        private final int start;
+        private final int end;
+
+        private FragmentRenderer(final List<TestFragment> fragments, final int start, final int end) {
+            this.fragments = fragments;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start <= FRAGMENTS_PER_TASK) {
+                for (int i = start; i < end; i++) {
+                    renderToFile(fragments.get(i));
+                }
+            } else {
+                int middle = (start + end) >>> 1;
+                invokeAll(new FragmentRenderer(fragments, start, middle), new FragmentRenderer(fragments, middle, end));
+            }
+        }
+    }
+
     protected static String escape(final String string) {
         if (null == string) {
             return string;
@@ -123,30 +207,119 @@ public class SeleniumTestsReporter implements IReporter, ITestListener, IInvoked
         return string.replaceAll("\n", "<br/>");
     }
 
+    /**
+     * Returns logs of the test, rendered from its step events, with the lines logged directly to TestNG reporter where they were logged
+     * @param result
+     * @return
+     */
+    protected static List<String> getTestLogs(final ITestResult result) {
+    	List<String> reporterOutput = Reporter.getOutput(result);
+    	int[] reporterPositions = getReporterPositions(reporterOutput);
+    	List<String> logs = new ArrayList<String>();
+    	int reporterLine = 0;
+    	for (StepEvent event: StepEventWriter.getInstance().readEvents(result)) {
+    		for (; reporterLine < reporterOutput.size() && reporterPositions[reporterLine] < event.getReporterPosition(); reporterLine++) {
+    			logs.add(reporterOutput.get(reporterLine));
+    		}
+    		logs.add(TestLogging.render(event));
+    	}
+    	logs.addAll(reporterOutput.subList(reporterLine, reporterOutput.size()));
+    	return logs;
+    }
+    
+    /**
+     * Positions of the lines of a test in the output of TestNG reporter, which holds lines of all tests. Reporter keeps 
+     * the logged String instances, so lines are found by identity
+     * @param testOutput
+     * @return
+     */
+    private static int[] getReporterPositions(final List<String> testOutput) {
+    	List<String> allOutput = Reporter.getOutput();
+    	int[] positions = new int[testOutput.size()];
+    	int position = 0;
+    	for (int i = 0; i < testOutput.size(); i++) {
+    		while (position < allOutput.size() && allOutput.get(position) != testOutput.get(i)) {
+    			position++;
+    		}
+    		positions[i] = position++;
+    	}
+    	return positions;
+    }
+
     public static void writeResourceToFile(final File file, final String resourceName, final Class<?> aClass)
         throws IOException {
         InputStream inputStream = aClass.getResourceAsStream("/" + resourceName);
         if (inputStream == null) {
             logger.error("can not find resource on the class path: " + resourceName);
         } else {
+            try (ReadableByteChannel source = Channels.newChannel(inputStream);
+                    FileChannel target = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, 
+                    		StandardOpenOption.TRUNCATE_EXISTING)) {
+                long position = 0;
+                long transferred;
+                while ((transferred = target.transferFrom(source, position, Long.MAX_VALUE)) > 0) {
+                    position += transferred;
+                }
+            }
+        }
+    }
 
+    /**
+     * SHA-256 of the resource content, computed once per JVM
+     * @return	null if resource does not exist
+     */
+    protected static String getResourceDigest(final String resourceName, final Class<?> aClass) throws IOException {
+        String digest = resourceDigests.get(resourceName);
+        if (digest == null) {
+            InputStream inputStream = aClass.getResourceAsStream("/" + resourceName);
+            if (inputStream == null) {
+                return null;
+            }
             try {
-                FileOutputStream outputStream = new FileOutputStream(file);
-                try {
-                    int i;
-                    byte[] buffer = new byte[4096];
-                    while (0 < (i = inputStream.read(buffer))) {
-                        outputStream.write(buffer, 0, i);
-                    }
-                } finally {
-                    outputStream.close();
-                }
+                digest = getDigest(inputStream);
             } finally {
                 inputStream.close();
             }
+            resourceDigests.put(resourceName, digest);
         }
+        return digest;
     }
 
+    private static String getDigest(final InputStream inputStream) throws IOException {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(IOUtils.toByteArray(inputStream));
+            return String.format("%064x", new BigInteger(1, hash));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * Tells whether the file written in report folder still has the content of the resource. File is hashed again only
+     * if its size or modification date differ from the ones recorded in manifest
+     * @param file				resource file in report folder
+     * @param digest			SHA-256 of the resource
+     * @param manifestEntry		'<SHA-256> <size> <modification date>' recorded when file was written
+     */
+    private static boolean isResourceUpToDate(final File file, final String digest, final String manifestEntry) throws IOException {
+        if (digest == null || !file.isFile()) {
+            return false;
+        }
+        if (manifestEntry != null && manifestEntry.equals(getManifestEntry(file, digest))) {
+            return true;
+        }
+        try (InputStream inputStream = new FileInputStream(file)) {
+            return digest.equals(getDigest(inputStream));
+        }
+    }
+
+    private static String getManifestEntry(final File file, final String digest) {
+        return String.format("%s %d %d", digest, file.length(), file.lastModified());
+    }
+
+    private VelocityEngine velocityEngine = null;
+    private Map<String, Template> templates = new HashMap<String, Template>();
+
     private Map<String, Boolean> isRetryHandleNeeded = new HashMap<String, Boolean>();
 
     private Map<String, IResultMap> failedTests = new HashMap<String, IResultMap>();
@@ -161,6 +334,23 @@ public class SeleniumTestsReporter implements IReporter, ITestListener, IInvoked
     private String outputDirectory;
     private String resources;
     private JavaDocBuilder builder = null;
+    private final Object javadocLock = new Object();
+    private File fragmentFolder = null;
+    private LinkedList<TestFragment> renderedFragments = null;
+
+    public static final String FINISHED_FRAGMENT_FOLDER = "fragments";
+    public static final String PARTIAL_REPORT_NAME = "PartialTestReport.html";
+    private static final String TREE_ID_PLACEHOLDER = "@@treeId@@";
+    private static final int PARTIAL_REPORT_REFRESH_PERIOD = 10;
+    private final Map<ITestResult, TestFragment> finishedFragments = 
+    		Collections.synchronizedMap(new IdentityHashMap<ITestResult, TestFragment>());
+    private final AtomicInteger finishedFragmentCounter = new AtomicInteger();
+    private File partialReport = null;
+
+    private final Map<IResultMap, ResultIndex> resultIndexes = 
+    		Collections.synchronizedMap(new IdentityHashMap<IResultMap, ResultIndex>());
+    private final Map<ITestContext, Map<String, ITestNGMethod>> methodIndexes = 
+    		Collections.synchronizedMap(new IdentityHashMap<ITestContext, Map<String, ITestNGMethod>>());
 
     private File report;
 
@@ -305,14 +495,73 @@ public class SeleniumTestsReporter implements IReporter, ITestListener, IInvoked
         resources.add("reporter" + File.separator + "js" + File.separator + "report.js");
         resources.add("reporter" + File.separator + "js" + File.separator + "browserdetect.js");
 
+        // resources already written by a previous run or by an other report sharing this folder are kept
+        File manifestFile = new File(outputDirectory + File.separator + "resources", RESOURCE_MANIFEST);
+        Properties manifest = new Properties();
+        if (manifestFile.isFile()) {
+            try (Reader reader = Files.newBufferedReader(manifestFile.toPath(), StandardCharsets.UTF_8)) {
+                manifest.load(reader);
+            } catch (IOException | IllegalArgumentException e) {
+                logger.warn("Resource manifest is not readable, all resources are copied: " + e.getMessage());
+                manifest.clear();
+            }
+        }
+
+        boolean manifestChanged = false;
         for (String resourceName : resources) {
             File f = new File(outputDirectory, resourceName.replace("reporter", "resources"));
             resourceName = resourceName.replaceAll("\\\\", "/");
-            logger.debug("Begin to write resource " + resourceName + " to file " + f.getAbsolutePath());
-            writeResourceToFile(f, resourceName, SeleniumTestsReporter.class);
+            String digest = getResourceDigest(resourceName, SeleniumTestsReporter.class);
+            if (!isResourceUpToDate(f, digest, manifest.getProperty(resourceName))) {
+                logger.debug("Begin to write resource " + resourceName + " to file " + f.getAbsolutePath());
+                writeResourceToFile(f, resourceName, SeleniumTestsReporter.class);
+            }
+            
+            if (digest != null && !getManifestEntry(f, digest).equals(manifest.getProperty(resourceName))) {
+                manifest.setProperty(resourceName, getManifestEntry(f, digest));
+                manifestChanged = true;
+            }
+        }
+
+        // written after resources, so that an interrupted copy is done again
+        if (manifestChanged) {
+            File tmpManifest = File.createTempFile(RESOURCE_MANIFEST, ".tmp", manifestFile.getParentFile());
+            try (Writer writer = Files.newBufferedWriter(tmpManifest.toPath(), StandardCharsets.UTF_8)) {
+                manifest.store(writer, "SHA-256, size and modification date of report resources");
+            }
+            Files.move(tmpManifest.toPath(), manifestFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
         }
     }
 
+    /**
+     * Creates the template engine. Done once per report, templates are then parsed only once
+     */
+    protected synchronized void initVelocityEngine() throws Exception {
+        velocityEngine = new VelocityEngine();
+        velocityEngine.setProperty("resource.loader", "class");
+        velocityEngine.setProperty("class.resource.loader.class",
+            "org.apache.velocity.runtime.resource.loader.ClasspathResourceLoader");
+        velocityEngine.setProperty("class.resource.loader.cache", "true");
+        velocityEngine.init();
+        templates.clear();
+    }
+
+    /**
+     * Returns the parsed template
+     * @param name	name of the template in classpath
+     */
+    protected synchronized Template getTemplate(final String name) throws Exception {
+        if (velocityEngine == null) {
+            initVelocityEngine();
+        }
+        Template template = templates.get(name);
+        if (template == null) {
+            template = velocityEngine.getTemplate(name);
+            templates.put(name, template);
+        }
+        return template;
+    }
+
     protected PrintWriter createWriter(final String outDir) throws IOException, FileNotFoundException {
         System.setProperty("file.encoding", "UTF8");
         uuid = uuid.replaceAll(" ", "-").replaceAll(":", "-");
@@ -381,12 +630,6 @@ public class SeleniumTestsReporter implements IReporter, ITestListener, IInvoked
     protected void generateGlobalErrorHTML(final ITestContext testContext, final StringBuffer errorCountTabs,
             final StringBuffer errorCountHtmls) {
         try {
-            VelocityEngine ve = new VelocityEngine();
-            ve.setProperty("resource.loader", "class");
-            ve.setProperty("class.resource.loader.class",
-                "org.apache.velocity.runtime.resource.loader.ClasspathResourceLoader");
-            ve.init();
-
             List<SeleniumTestsPageListener> pageListenersList = PluginsHelper.getInstance().getPageListeners();
             for (SeleniumTestsPageListener abstractPageListener : pageListenersList) {
 
@@ -406,7 +649,7 @@ public class SeleniumTestsReporter implements IReporter, ITestListener, IInvoked
                                   " ( <font color='red'>");
                 errorCountHtmls.append("<div class='" + abstractPageListener.getClass().getSimpleName()
                         + "' style='width: 98%;margin-left:15px;'>");
-                generateGlobalErrorsPanel(abstractPageListener, ve, errorCountHtmls, "failed", testContext,
+                generateGlobalErrorsPanel(abstractPageListener, errorCountHtmls, "failed", testContext,
                     errorCountTabs);
                 errorCountHtmls.append("</div>");
                 errorCountTabs.append("</font> )</span></a></li>");
@@ -417,7 +660,7 @@ public class SeleniumTestsReporter implements IReporter, ITestListener, IInvoked
     }
 
     private void generateGlobalErrorsPanel(final SeleniumTestsPageListener abstractPageListener,
-            final VelocityEngine ve, final StringBuffer res, final String style, final ITestContext tc,
+            final StringBuffer res, final String style, final ITestContext tc,
             final StringBuffer sbCalcount) {
         int pageCount = 0;
 
@@ -464,7 +707,7 @@ public class SeleniumTestsReporter implements IReporter, ITestListener, IInvoked
                     contentBuffer.append("</tbody></table>");
 
                     try {
-                        Template t = ve.getTemplate("/templates/report.part.singlePageError.html");
+                        Template t = getTemplate("/templates/report.part.singlePageError.html");
                         VelocityContext context = new VelocityContext();
                         context.put("status", style);
                         context.put("pageName", pageEntry.getKey());
@@ -485,205 +728,426 @@ public class SeleniumTestsReporter implements IReporter, ITestListener, IInvoked
         sbCalcount.append(pageCount);
     }
 
-    protected String generateHTML(final ITestContext tc, final boolean envt, final ISuite suite,
+    protected void generateHTML(final Writer out, final ITestContext tc, final boolean envt, final ISuite suite,
             final ITestContext ctx) {
 
-        StringBuffer res = new StringBuffer();
         try {
-            VelocityEngine ve = new VelocityEngine();
-            ve.setProperty("resource.loader", "class");
-            ve.setProperty("class.resource.loader.class",
-                "org.apache.velocity.runtime.resource.loader.ClasspathResourceLoader");
-            ve.init();
-
-            if (envt) {
-                if (tc.getFailedConfigurations().getAllResults().size() > 0) {
-                    generatePanel(ve, tc.getFailedConfigurations(), res, "failed", suite, ctx, envt);
-                }
-
-                generatePanel(ve, failedTests.get(tc.getName()), res, "failed", suite, ctx, envt);
-                if (tc.getFailedConfigurations().getAllResults().size() > 0) {
-                    generatePanel(ve, tc.getSkippedConfigurations(), res, "skipped", suite, ctx, envt);
-                }
-
-                generatePanel(ve, skippedTests.get(tc.getName()), res, "skipped", suite, ctx, envt);
-                generatePanel(ve, tc.getPassedTests(), res, "passed", suite, ctx, envt);
-            } else {
-                generatePanel(ve, failedTests.get(tc.getName()), res, "failed", suite, ctx, envt);
-                generatePanel(ve, skippedTests.get(tc.getName()), res, "skipped", suite, ctx, envt);
-                generatePanel(ve, tc.getPassedTests(), res, "passed", suite, ctx, envt);
+            for (Entry<IResultMap, String> panel : getPanels(tc, envt)) {
+                generatePanel(panel.getKey(), out, panel.getValue(), suite, ctx, envt);
             }
         } catch (Exception e) {
             logger.error(e);
         }
+    }
+
+    /**
+     * Result maps displayed for the test, in report order, with their style
+     */
+    protected List<Entry<IResultMap, String>> getPanels(final ITestContext tc, final boolean envt) {
+        List<Entry<IResultMap, String>> panels = new ArrayList<Entry<IResultMap, String>>();
+        if (envt && tc.getFailedConfigurations().getAllResults().size() > 0) {
+            panels.add(new SimpleEntry<IResultMap, String>(tc.getFailedConfigurations(), "failed"));
+        }
+        panels.add(new SimpleEntry<IResultMap, String>(failedTests.get(tc.getName()), "failed"));
+        if (envt && tc.getFailedConfigurations().getAllResults().size() > 0) {
+            panels.add(new SimpleEntry<IResultMap, String>(tc.getSkippedConfigurations(), "skipped"));
+        }
+        panels.add(new SimpleEntry<IResultMap, String>(skippedTests.get(tc.getName()), "skipped"));
+        panels.add(new SimpleEntry<IResultMap, String>(tc.getPassedTests(), "passed"));
+        return panels;
+    }
 
-        return res.toString();
+    private boolean isInPanel(final ITestNGMethod method, final boolean envt) {
+        return Arrays.asList(method.getGroups()).contains("envt") == envt;
     }
 
-    protected void generatePanel(final VelocityEngine ve, final IResultMap map, final StringBuffer res,
-            final String style, final ISuite suite, final ITestContext ctx, final boolean envt) {
+    /**
+     * Writes the fragment of each test result of the map, as soon as it's rendered. Fragments already rendered
+     * when test finished or by {@link #renderFragments(List, int)} are copied from their file
+     */
+    protected void generatePanel(final IResultMap map, final Writer out, final String style, final ISuite suite, 
+    		final ITestContext ctx, final boolean envt) throws IOException {
 
         Collection<ITestNGMethod> methodSet = getMethodSet(map);
 
         for (ITestNGMethod method : methodSet) {
+            if (isInPanel(method, envt)) {
+                for (ITestResult ans : getResultSet(map, method)) {
+                    String treeId = "tree" + m_treeId++;
+                    TestFragment fragment = getFinishedFragment(ans, style);
+                    if (fragment == null) {
+                        fragment = renderedFragments == null ? null : renderedFragments.peek();
+                        if (fragment != null && fragment.result == ans && fragment.style.equals(style)) {
+                            renderedFragments.poll();
+                        } else {
+                            fragment = null;
+                        }
+                    }
 
-            boolean methodIsValid;
-            if (envt) {
-                methodIsValid = Arrays.asList(method.getGroups()).contains("envt");
-            } else {
-                methodIsValid = !Arrays.asList(method.getGroups()).contains("envt");
+                    if (fragment != null && fragment.file != null) {
+                        copyFragment(fragment, treeId, out);
+                    } else {
+                        generateTestFragment(ans, method, style, suite, ctx, treeId, out);
+                    }
+                }
             }
+        }
 
-            if (methodIsValid) {
+    }
 
-                Collection<ITestResult> resultSet = getResultSet(map, method);
-                String content;
-                for (ITestResult ans : resultSet) {
-                    StringBuffer contentBuffer = new StringBuffer();
-                    String testName = "";
-                    if (ans.getMethod().getXmlTest() != null) {
-                        testName = ans.getMethod().getXmlTest().getName();
-                    } else {
-                        try {
-                            testName = ans.getTestContext().getCurrentXmlTest().getName();
-                        } catch (Exception ex) {
-                            logger.error(ex);
-                            continue;
-                        }
+    /**
+     * Lists test details of the panel, in report order. Tree ids are given here so that they don't depend on rendering order
+     */
+    protected void collectPanelFragments(final IResultMap map, final String style, final ISuite suite, 
+    		final ITestContext ctx, final boolean envt, final List<TestFragment> fragments) {
+        for (ITestNGMethod method : getMethodSet(map)) {
+            if (isInPanel(method, envt)) {
+                for (ITestResult ans : getResultSet(map, method)) {
+                    String treeId = "tree" + m_treeId++;
+                    if (getFinishedFragment(ans, style) == null) {
+                        fragments.add(new TestFragment(ans, method, style, suite, ctx, treeId));
                     }
+                }
+            }
+        }
+    }
 
-                    SeleniumTestsContext testLevelContext = SeleniumTestsContextManager.getTestLevelContext(testName);
-                    if (testLevelContext != null) {
-                        String browser = testLevelContext.getBrowser();
+    /**
+     * Renders fragments to temporary files, in parallel. They are then copied in order by {@link #generatePanel}
+     * so that report is the same as with sequential rendering. A fragment which could not be written is rendered again
+     * sequentially
+     * 
+     * @param fragments		fragments, in the order they will be written
+     * @param threads		size of the fork-join pool
+     */
+    protected void renderFragments(final List<TestFragment> fragments, final int threads) throws IOException {
+        fragmentFolder = Files.createTempDirectory("reportFragments").toFile();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            pool.invoke(new FragmentRenderer(fragments, 0, fragments.size()));
+        } finally {
+            pool.shutdown();
+        }
+        renderedFragments = new LinkedList<TestFragment>(fragments);
+    }
 
-                        String app = testLevelContext.getApp();
-                        String appPackage = testLevelContext.getAppPackage();
-                        String appActivity = testLevelContext.getAppActivity();
-                        TestType testType = testLevelContext.getTestType();
+    /**
+     * Removes fragment files which have not been written to report
+     */
+    protected void cleanRenderedFragments() {
+        renderedFragments = null;
+        if (fragmentFolder != null) {
+            FileUtils.deleteQuietly(fragmentFolder);
+            fragmentFolder = null;
+        }
+    }
 
-                        if (browser != null) {
-                            browser = browser.replace("*", "");
-                        }
+    private void renderToFile(final TestFragment fragment) {
+        try {
+            File file = File.createTempFile("fragment", ".html", fragmentFolder);
+            try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+                generateTestFragment(fragment.result, fragment.method, fragment.style, fragment.suite, fragment.ctx,
+                        fragment.treeId, writer);
+            }
+            fragment.file = file;
+        } catch (Exception e) {
+            logger.error("Cannot render detail of test " + fragment.result.getName() + ": " + e.getMessage());
+        }
+    }
 
-                        String browserVersion = (String) testLevelContext.getWebBrowserVersion();
-                        if (browserVersion != null) {
-                            browser = browser + browserVersion;
-                        }
+    /**
+     * Renders the detail of a test as soon as it's finished, so that final report only has to copy it. Fragment is
+     * also appended to the partial report.
+     * Skipped tests with dependencies are rendered with report, as their dependency tree shows the final result of other tests
+     * 
+     * @param result
+     * @param style		passed, failed or skipped
+     */
+    protected void renderFinishedTest(final ITestResult result, final String style) {
+        try {
+            String testOutputDirectory = SeleniumTestsContextManager.getGlobalContext().getOutputDirectory();
+            if (testOutputDirectory == null || (result.getStatus() == ITestResult.SKIP && hasDependencies(result.getMethod()))) {
+                return;
+            }
 
-                        // Log URL for web test and app info for app test
-                        if (testType.family().equals(TestType.WEB)) {
-                            contentBuffer.append("<div><i>Browser: <b>" + browser
-                                    + "</b></i></div>");
-                        } else if (testType.family().equals(TestType.APP)) {
-
-                            // Either app Or app package and app activity is specified to run test on app
-                            if (StringUtils.isNotBlank(app)) {
-                                contentBuffer.append("<div><i>App:  <b>" + app + "</b></i></div>");
-                            } else if (StringUtils.isNotBlank(appPackage)) {
-                                contentBuffer.append("<div><i>App Package: <b>" + appPackage
-                                        + "</b>, App Activity:  <b>" + appActivity + "</b></i></div>");
-                            }
-                        } else if (testType.family().equals(TestType.NON_GUI)) {
-                            contentBuffer.append("<div><i></i></div>");
+            // tree id is only known when report is written
+            String treeId = result.getStatus() == ITestResult.SKIP ? TREE_ID_PLACEHOLDER : null;
+            TestFragment fragment = new TestFragment(result, result.getMethod(), style, null, result.getTestContext(), treeId);
+            File reportDirectory = new File(testOutputDirectory).getAbsoluteFile().getParentFile();
+            File file = new File(reportDirectory + File.separator + FINISHED_FRAGMENT_FOLDER, 
+            		String.format("%s-%d.html", result.getMethod().getMethodName(), finishedFragmentCounter.incrementAndGet()));
+            file.getParentFile().mkdirs();
+            try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+                generateTestFragment(result, result.getMethod(), style, null, result.getTestContext(), treeId, writer);
+            }
+            fragment.file = file;
+            finishedFragments.put(result, fragment);
+            appendToPartialReport(reportDirectory, file);
+        } catch (Exception e) {
+            logger.error("Cannot render detail of test " + result.getName() + ", it will be rendered with report: " + e.getMessage());
+        }
+    }
 
-                        } else {
-                            contentBuffer.append("<div><i>Invalid Test Type</i></div>");
-                        }
-                    }
+    /**
+     * Adds the fragment to the partial report, which is reloaded by browser until the end of run
+     */
+    private synchronized void appendToPartialReport(final File reportDirectory, final File fragmentFile) throws Exception {
+        if (partialReport == null) {
+            setOutputDirectory(reportDirectory.getAbsolutePath());
+            copyResources();
 
-                    Object[] parameters = ans.getParameters();
-                    List<String> msgs = Reporter.getOutput(ans);
-
-                    boolean hasReporterOutput = msgs.size() > 0;
-                    Throwable exception = ans.getThrowable();
-                    boolean hasThrowable = exception != null;
-                    if (hasReporterOutput || hasThrowable) {
-                        contentBuffer.append("<div class='leftContent' style='float: left; width: 100%;'>");
-                        contentBuffer.append("<h4><a href='javascript:void(0);' class='testloglnk'>Test Steps "
-                                + (style.equals("passed") ? "[+]" : "[ - ]") + "</a></h4>");
-                        contentBuffer.append("<div class='testlog' "
-                                + (style.equals("passed") ? "style='display:none'" : "") + ">");
-                        contentBuffer.append("<ol>");
-                        for (String line : msgs) {
-                            ElaborateLog logLine = new ElaborateLog(line, outputDirectory);
-                            String htmllog;
-                            if (logLine.getHref() != null) {
-                                htmllog = "<a href='" + logLine.getHref() + "' title='" + logLine.getLocation() + "' >"
-                                        + logLine.getMsg() + "</a>";
-                            } else {
-                                htmllog = logLine.getMsg();
-                            }
+            File reportFile = new File(reportDirectory, PARTIAL_REPORT_NAME);
+            Template t = getTemplate("/templates/report.part.partialHeader.html");
+            VelocityContext context = new VelocityContext();
+            context.put("refreshPeriod", PARTIAL_REPORT_REFRESH_PERIOD);
+            context.put("currentDate", new Date().toString());
+            try (Writer writer = Files.newBufferedWriter(reportFile.toPath(), StandardCharsets.UTF_8)) {
+                t.merge(context, writer);
+            }
+            partialReport = reportFile;
+        }
+        Files.write(partialReport.toPath(), Files.readAllBytes(fragmentFile.toPath()), StandardOpenOption.APPEND);
+    }
+    
+    /**
+     * Replaces the partial report, which would be reloaded forever, by a redirection to the final report
+     * @param reportName	file name of the final report, in the same folder
+     */
+    protected synchronized void closePartialReport(final String reportName) throws Exception {
+        if (partialReport == null) {
+            return;
+        }
+        Template t = getTemplate("/templates/report.part.partialRedirect.html");
+        VelocityContext context = new VelocityContext();
+        context.put("reportName", reportName);
+        try (Writer writer = Files.newBufferedWriter(partialReport.toPath(), StandardCharsets.UTF_8)) {
+            t.merge(context, writer);
+        }
+        partialReport = null;
+    }
 
-                            htmllog = htmllog.replaceAll("@@lt@@", "<").replace("^^greaterThan^^", ">");
-                            contentBuffer.append(htmllog);
-                            if (!htmllog.contains("<br>")) {
-                                contentBuffer.append("<br/>");
-                            }
-                        }
+    /**
+     * Fragment rendered when test finished, if it has been rendered with the same style
+     */
+    private TestFragment getFinishedFragment(final ITestResult result, final String style) {
+        TestFragment fragment = finishedFragments.get(result);
+        if (fragment != null && fragment.style.equals(style)) {
+            return fragment;
+        }
+        return null;
+    }
 
-                        contentBuffer.append("</ol>");
+    /**
+     * Removes fragments of finished tests, once report is written
+     */
+    protected void cleanFinishedFragments() {
+        synchronized (finishedFragments) {
+            for (TestFragment fragment : finishedFragments.values()) {
+                FileUtils.deleteQuietly(fragment.file);
+                fragment.file.getParentFile().delete();
+            }
+            finishedFragments.clear();
+        }
+    }
 
-                        String lastLine = "";
-                        for (int lastIdx = msgs.size() - 1; lastIdx >= 0; lastIdx--) {
-                            lastLine = msgs.get(lastIdx).replaceAll("@@lt@@", "<").replace("^^greaterThan^^", ">");
-                            if (lastLine.indexOf(">screenshot</a>") != -1) {
-                                break;
-                            }
-                        }
+    private void copyFragment(final TestFragment fragment, final String treeId, final Writer out) throws IOException {
+        if (TREE_ID_PLACEHOLDER.equals(fragment.treeId)) {
+            out.write(new String(Files.readAllBytes(fragment.file.toPath()), StandardCharsets.UTF_8).replace(TREE_ID_PLACEHOLDER, treeId));
+        } else {
+            try (Reader reader = Files.newBufferedReader(fragment.file.toPath(), StandardCharsets.UTF_8)) {
+                IOUtils.copy(reader, out);
+            }
+        }
+        Files.delete(fragment.file.toPath());
+    }
 
-                        if (hasThrowable) {
-                            generateExceptionReport(exception, method, contentBuffer, lastLine);
-                        }
+    /**
+     * Renders the detail of one test result
+     * 
+     * @param ans		test result
+     * @param method	
+     * @param style		passed, failed or skipped
+     * @param suite
+     * @param ctx
+     * @param treeId	id of dependency tree, unique in report
+     * @param out		writer to which fragment is written
+     */
+    protected void generateTestFragment(final ITestResult ans, final ITestNGMethod method, final String style, final ISuite suite,
+    		final ITestContext ctx, final String treeId, final Writer out) throws IOException {
+        StringBuffer contentBuffer = new StringBuffer();
+        String testName = "";
+        if (ans.getMethod().getXmlTest() != null) {
+            testName = ans.getMethod().getXmlTest().getName();
+        } else {
+            try {
+                testName = ans.getTestContext().getCurrentXmlTest().getName();
+            } catch (Exception ex) {
+                logger.error(ex);
+                return;
+            }
+        }
 
-                        contentBuffer.append("</div></div>");
-                    }
+        SeleniumTestsContext testLevelContext = SeleniumTestsContextManager.getTestLevelContext(testName);
+        if (testLevelContext != null) {
+            String browser = testLevelContext.getBrowser();
 
-                    String treeId = "tree" + m_treeId;
-                    m_treeId++;
-                    if (ans.getStatus() == 3) {
-                        contentBuffer.append("<br>method skipped, because of its dependencies :<br>");
-                        takeCareOfDirectDependencies(suite, method, 0, ctx, treeId, contentBuffer);
-                    }
+            String app = testLevelContext.getApp();
+            String appPackage = testLevelContext.getAppPackage();
+            String appActivity = testLevelContext.getAppActivity();
+            TestType testType = testLevelContext.getTestType();
 
-                    contentBuffer.append("<div class='clear_both'></div>");
-                    content = contentBuffer.toString();
+            if (browser != null) {
+                browser = browser.replace("*", "");
+            }
 
-                    try {
-                        Template t = ve.getTemplate("/templates/report.part.singleTest.html");
-                        VelocityContext context = new VelocityContext();
-                        context.put("status", style);
+            String browserVersion = (String) testLevelContext.getWebBrowserVersion();
+            if (browserVersion != null) {
+                browser = browser + browserVersion;
+            }
+            if (Boolean.TRUE.equals(testLevelContext.isHeadlessBrowser())) {
+                browser = browser + " (headless)";
+            }
 
-                        String javadoc = getJavadocComments(method);
-                        String desc = method.getDescription();
+            // Log URL for web test and app info for app test
+            if (testType.family().equals(TestType.WEB)) {
+                contentBuffer.append("<div><i>Browser: <b>" + browser
+                        + "</b></i></div>");
+            } else if (testType.family().equals(TestType.APP)) {
+
+                // Either app Or app package and app activity is specified to run test on app
+                if (StringUtils.isNotBlank(app)) {
+                    contentBuffer.append("<div><i>App:  <b>" + app + "</b></i></div>");
+                } else if (StringUtils.isNotBlank(appPackage)) {
+                    contentBuffer.append("<div><i>App Package: <b>" + appPackage
+                            + "</b>, App Activity:  <b>" + appActivity + "</b></i></div>");
+                }
+            } else if (testType.family().equals(TestType.NON_GUI)) {
+                contentBuffer.append("<div><i></i></div>");
 
-                        String toDisplay = "neither javadoc nor description for this method.";
-                        if (!"".equals(javadoc) && javadoc != null) {
-                            toDisplay = javadoc;
-                        } else if (!"".equals(desc) && desc != null) {
-                            toDisplay = desc;
-                        }
+            } else {
+                contentBuffer.append("<div><i>Invalid Test Type</i></div>");
+            }
+        }
 
-                        String methodSignature = StringUtility.constructMethodSignature(method.getConstructorOrMethod().getMethod(), parameters);
-                        if (methodSignature.length() > 500) {
-                            context.put("methodName", methodSignature.substring(0, 500) + "...");
-                        } else {
-                            context.put("methodName", methodSignature);
-                        }
+        Object[] parameters = ans.getParameters();
+        List<String> msgs = getTestLogs(ans);
+
+        boolean hasReporterOutput = msgs.size() > 0;
+        Throwable exception = ans.getThrowable();
+        boolean hasThrowable = exception != null;
+        if (hasReporterOutput || hasThrowable) {
+            contentBuffer.append("<div class='leftContent' style='float: left; width: 100%;'>");
+            contentBuffer.append("<h4><a href='javascript:void(0);' class='testloglnk'>Test Steps "
+                    + (style.equals("passed") ? "[+]" : "[ - ]") + "</a></h4>");
+            contentBuffer.append("<div class='testlog' "
+                    + (style.equals("passed") ? "style='display:none'" : "") + ">");
+            contentBuffer.append("<ol>");
+            for (String line : msgs) {
+                ElaborateLog logLine = new ElaborateLog(line, outputDirectory);
+                String htmllog;
+                if (logLine.getHref() != null) {
+                    htmllog = "<a href='" + logLine.getHref() + "' title='" + logLine.getLocation() + "' >"
+                            + logLine.getMsg() + "</a>";
+                } else {
+                    htmllog = logLine.getMsg();
+                }
 
-                        context.put("desc", toDisplay.replaceAll("\r\n\r\n", "\r\n").replaceAll("\n\n", "\n"));
-                        context.put("content", content);
-                        context.put("time", "Time: " + ((ans.getEndMillis() - ans.getStartMillis()) / 1000) + "sec.");
+                htmllog = TestLogging.unEscapeMarkup(htmllog);
+                contentBuffer.append(htmllog);
+                if (!htmllog.contains("<br>")) {
+                    contentBuffer.append("<br/>");
+                }
+            }
 
-                        StringWriter writer = new StringWriter();
-                        t.merge(context, writer);
-                        res.append(writer.toString());
-                    } catch (Exception e) {
-                        logger.error("Exception creating a singleTest.", e);
-                    }
+            contentBuffer.append("</ol>");
+
+            String lastLine = "";
+            for (int lastIdx = msgs.size() - 1; lastIdx >= 0; lastIdx--) {
+                lastLine = TestLogging.unEscapeMarkup(msgs.get(lastIdx));
+                if (lastLine.indexOf(">screenshot</a>") != -1) {
+                    break;
                 }
             }
+
+            if (hasThrowable) {
+                generateExceptionReport(exception, method, contentBuffer, lastLine);
+            }
+
+            contentBuffer.append("</div></div>");
+        }
+
+        generateCommandStatistics(ans, contentBuffer);
+
+        if (ans.getStatus() == 3) {
+            contentBuffer.append("<br>method skipped, because of its dependencies :<br>");
+            takeCareOfDirectDependencies(suite, method, 0, ctx, treeId, contentBuffer);
+        }
+
+        contentBuffer.append("<div class='clear_both'></div>");
+
+        try {
+            Template t = getTemplate("/templates/report.part.singleTest.html");
+            VelocityContext context = new VelocityContext();
+            context.put("status", style);
+
+            String javadoc = getJavadocComments(method);
+            String desc = method.getDescription();
+
+            String toDisplay = "neither javadoc nor description for this method.";
+            if (!"".equals(javadoc) && javadoc != null) {
+                toDisplay = javadoc;
+            } else if (!"".equals(desc) && desc != null) {
+                toDisplay = desc;
+            }
+
+            String methodSignature = StringUtility.constructMethodSignature(method.getConstructorOrMethod().getMethod(), parameters);
+            if (methodSignature.length() > 500) {
+                context.put("methodName", methodSignature.substring(0, 500) + "...");
+            } else {
+                context.put("methodName", methodSignature);
+            }
+
+            context.put("desc", toDisplay.replaceAll("\r\n\r\n", "\r\n").replaceAll("\n\n", "\n"));
+            context.put("content", contentBuffer);
+            context.put("time", "Time: " + ((ans.getEndMillis() - ans.getStartMillis()) / 1000) + "sec.");
+
+            t.merge(context, out);
+        } catch (IOException e) {
+        	throw e;
+        } catch (Exception e) {
+            logger.error("Exception creating a singleTest.", e);
         }
+    }
 
+    /**
+     * Table of driver command latencies for this test
+     * @param result
+     * @param contentBuffer
+     */
+    protected void generateCommandStatistics(final ITestResult result, final StringBuffer contentBuffer) {
+        CommandStatistics statistics = CommandStatistics.getExistingTestStatistics(result);
+        if (statistics == null) {
+            return;
+        }
+        
+        contentBuffer.append("<div class='leftContent' style='float: left; width: 100%;'>");
+        contentBuffer.append("<h4><a href='javascript:void(0);' class='testloglnk'>Driver commands: " 
+                + statistics.getCommandCount() + " [+]</a></h4>");
+        contentBuffer.append("<div class='testlog' style='display:none'>");
+        contentBuffer.append("<table><tr><th>Command</th><th>Count</th><th>Mean (ms)</th><th>p50 (ms)</th>"
+                + "<th>p90 (ms)</th><th>p99 (ms)</th><th>Max (ms)</th></tr>");
+        for (Entry<String, LatencyHistogram> entry : statistics.getHistograms().entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            contentBuffer.append(String.format("<tr><td>%s</td><td>%d</td><td>%.1f</td><td>%.1f</td><td>%.1f</td><td>%.1f</td><td>%.1f</td></tr>",
+                    entry.getKey(),
+                    histogram.getTotalCount(),
+                    histogram.getMean() / 1000,
+                    histogram.getValueAtPercentile(50) / 1000.0,
+                    histogram.getValueAtPercentile(90) / 1000.0,
+                    histogram.getValueAtPercentile(99) / 1000.0,
+                    histogram.getMax() / 1000.0));
+        }
+        contentBuffer.append("</table></div></div>");
     }
 
     public void generateReport(final List<XmlSuite> xml, final List<ISuite> suites, final String outdir) {
@@ -696,8 +1160,10 @@ public class SeleniumTestsReporter implements IReporter, ITestListener, IInvoked
         File f = new File(SeleniumTestsContextManager.getGlobalContext().getOutputDirectory());
         setOutputDirectory(f.getParentFile().getAbsolutePath());
         setResources(getOutputDirectory() + "\\resources");
+        long start = System.currentTimeMillis();
+        resetPeakHeapUsage();
         try {
-
+            initVelocityEngine();
             m_out = createWriter(getOutputDirectory());
             startHtml(testCtx, m_out);
 
@@ -721,8 +1187,12 @@ public class SeleniumTestsReporter implements IReporter, ITestListener, IInvoked
             endHtml(m_out);
             m_out.flush();
             m_out.close();
+            cleanFinishedFragments();
+            closePartialReport(getReportLocation().getName());
             copyResources();
-            logger.info("Completed Report Generation.");
+            CommandStatistics.exportToJson(new File(getOutputDirectory(), "commandStatistics.json"));
+            logger.info(String.format("Completed Report Generation in %d ms, peak heap usage: %d MB", 
+            		System.currentTimeMillis() - start, getPeakHeapUsage() / (1024 * 1024)));
 
             String browserPath = (String) SeleniumTestsContextManager.getGlobalContext().getOpenReportInBrowser();
             if (browserPath != null && browserPath.trim().length() > 0) {
@@ -734,17 +1204,32 @@ public class SeleniumTestsReporter implements IReporter, ITestListener, IInvoked
 
     }
 
+    private void resetPeakHeapUsage() {
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    /**
+     * Peak heap usage since last reset, sum of the peaks of heap memory pools
+     */
+    private long getPeakHeapUsage() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                peak += pool.getPeakUsage().getUsed();
+            }
+        }
+        return peak;
+    }
+
     protected void generateReportDetailsContainer(final String name, final int envtp, final int envtf, final int envts,
-            final int testp, final int testf, final int tests, final String envthtml, final String testhtml,
+            final int testp, final int testf, final int tests, final Renderable envthtml, final Renderable testhtml,
             final String globalErrorTabs, final String globalErrorHtmls) {
         try {
-            VelocityEngine ve = new VelocityEngine();
-            ve.setProperty("resource.loader", "class");
-            ve.setProperty("class.resource.loader.class",
-                "org.apache.velocity.runtime.resource.loader.ClasspathResourceLoader");
-            ve.init();
-
-            Template t = ve.getTemplate("/templates/report.part.testDetail.html");
+            Template t = getTemplate("/templates/report.part.testDetail.html");
             VelocityContext context = new VelocityContext();
             context.put("testId", StringUtility.md5(name));
             context.put("testName", name);
@@ -759,9 +1244,7 @@ public class SeleniumTestsReporter implements IReporter, ITestListener, IInvoked
             context.put("globalerrortabs", globalErrorTabs);
             context.put("globalerrorhtmls", globalErrorHtmls);
 
-            StringWriter writer = new StringWriter();
-            t.merge(context, writer);
-            m_out.write(writer.toString());
+            t.merge(context, m_out);
 
         } catch (Exception e) {
             logger.error(e);
@@ -773,6 +1256,30 @@ public class SeleniumTestsReporter implements IReporter, ITestListener, IInvoked
 
         m_out.println("<div id='reports'>");
 
+        int threads = SeleniumTestsContextManager.getGlobalContext().getReportRenderingThreads();
+        if (threads > 1) {
+            int firstTreeId = m_treeId;
+            try {
+                List<TestFragment> fragments = new ArrayList<TestFragment>();
+                for (ISuite suite : suites) {
+                    for (ISuiteResult r2 : suite.getResults().values()) {
+                        ITestContext tc = r2.getTestContext();
+                        for (boolean envt : new boolean[] {true, false}) {
+                            for (Entry<IResultMap, String> panel : getPanels(tc, envt)) {
+                                collectPanelFragments(panel.getKey(), panel.getValue(), suite, tc, envt, fragments);
+                            }
+                        }
+                    }
+                }
+                renderFragments(fragments, threads);
+            } catch (Exception e) {
+                logger.error("Cannot render test details in parallel, they will be rendered sequentially: " + e.getMessage());
+                cleanRenderedFragments();
+            } finally {
+                m_treeId = firstTreeId;
+            }
+        }
+
         for (ISuite suite : suites) {
             Map<String, ISuiteResult> r = suite.getResults();
             for (ISuiteResult r2 : r.values()) {
@@ -789,8 +1296,15 @@ public class SeleniumTestsReporter implements IReporter, ITestListener, IInvoked
                 int testf = getNbInstanceForGroup(false, failedTests.get(tc.getName()));
                 int tests = getNbInstanceForGroup(false, skippedTests.get(tc.getName()));
 
-                String envthtml = generateHTML(tc, true, suite, tc);
-                String testhtml = generateHTML(tc, false, suite, tc);
+                // test details are written to report while template is merged
+                Renderable envthtml = (context, writer) -> {
+                	generateHTML(writer, tc, true, suite, tc);
+                	return true;
+                };
+                Renderable testhtml = (context, writer) -> {
+                	generateHTML(writer, tc, false, suite, tc);
+                	return true;
+                };
 
                 StringBuffer globalErrorTabs = new StringBuffer();
                 StringBuffer globalErrorHtmls = new StringBuffer();
@@ -805,6 +1319,7 @@ public class SeleniumTestsReporter implements IReporter, ITestListener, IInvoked
         }
 
         m_out.println("</div>");
+        cleanRenderedFragments();
 
     }
 
@@ -857,13 +1372,7 @@ public class SeleniumTestsReporter implements IReporter, ITestListener, IInvoked
         total.setInstancesSkipped(qty_skip);
 
         try {
-            VelocityEngine ve = new VelocityEngine();
-            ve.setProperty("resource.loader", "class");
-            ve.setProperty("class.resource.loader.class",
-                "org.apache.velocity.runtime.resource.loader.ClasspathResourceLoader");
-            ve.init();
-
-            Template t = ve.getTemplate("/templates/report.part.summary.html");
+            Template t = getTemplate("/templates/report.part.summary.html");
             VelocityContext context = new VelocityContext();
             context.put("suiteName", suiteName);
             context.put("totalRunTime", formatter.format((time_end - time_start) / 1000.) + " sec");
@@ -873,9 +1382,7 @@ public class SeleniumTestsReporter implements IReporter, ITestListener, IInvoked
             context.put("tests", tests2);
             context.put("total", total);
 
-            StringWriter writer = new StringWriter();
-            t.merge(context, writer);
-            m_out.write(writer.toString());
+            t.merge(context, m_out);
 
         } catch (Exception e) {
             logger.error(e);
@@ -929,23 +1436,28 @@ public class SeleniumTestsReporter implements IReporter, ITestListener, IInvoked
     }
 
     protected ITestResult getFailedOrSkippedResult(final ITestContext ctx, final ITestNGMethod method) {
-        List<ITestResult> res = new LinkedList<ITestResult>();
-        res.addAll(failedTests.get(ctx.getName()).getResults(method));
-        if (res.size() != 0) {
-            return res.get(0);
+        for (IResultMap map : new IResultMap[] {failedTests.get(ctx.getName()), ctx.getPassedTests(), skippedTests.get(ctx.getName())}) {
+            List<ITestResult> res = getResultIndex(map).getResults(method);
+            if (!res.isEmpty()) {
+                return res.get(0);
+            }
         }
 
-        res.addAll(ctx.getPassedTests().getResults(method));
-        if (res.size() != 0) {
-            return res.get(0);
-        }
+        return null;
+    }
 
-        res.addAll(skippedTests.get(ctx.getName()).getResults(method));
-        if (res.size() != 0) {
-            return res.get(0);
+    /**
+     * Index of the results of the map. It's built on first use and rebuilt when map size changes
+     */
+    protected ResultIndex getResultIndex(final IResultMap map) {
+        synchronized (resultIndexes) {
+            ResultIndex index = resultIndexes.get(map);
+            if (index == null || !index.isUpToDate(map)) {
+                index = new ResultIndex(map);
+                resultIndexes.put(map, index);
+            }
+            return index;
         }
-
-        return null;
     }
 
     protected JavaDocBuilder getJavaDocBuilder(final Class clz) throws URISyntaxException {
@@ -972,9 +1484,15 @@ public class SeleniumTestsReporter implements IReporter, ITestListener, IInvoked
 
         try {
             Method m = method.getConstructorOrMethod().getMethod();
+
+            // description extracted at compile time. Sources are only parsed if method is not indexed
+            String description = JavadocIndex.getInstance().getDescription(m);
+            if (description != null) {
+                return description;
+            }
+
             String javaClass = m.getDeclaringClass().getName();
             String javaMethod = m.getName();
-            JavaClass jc = getJavaDocBuilder(m.getDeclaringClass()).getClassByName(javaClass);
             Class<?>[] types = method.getConstructorOrMethod().getMethod().getParameterTypes();
             Type[] qdoxTypes = new Type[types.length];
             for (int i = 0; i < types.length; i++) {
@@ -983,8 +1501,12 @@ public class SeleniumTestsReporter implements IReporter, ITestListener, IInvoked
                 qdoxTypes[i] = new Type(type, dim);
             }
 
-            JavaMethod jm = jc.getMethodBySignature(javaMethod, qdoxTypes);
-            return jm.getComment();
+            // QDox builder is not thread safe and parses sources lazily
+            synchronized (javadocLock) {
+                JavaClass jc = getJavaDocBuilder(m.getDeclaringClass()).getClassByName(javaClass);
+                JavaMethod jm = jc.getMethodBySignature(javaMethod, qdoxTypes);
+                return jm.getComment();
+            }
         } catch (Exception e) {
             logger.error("Exception loading the javadoc comments for : " + method.getMethodName() + e);
             return null;
@@ -1042,37 +1564,50 @@ public class SeleniumTestsReporter implements IReporter, ITestListener, IInvoked
      * @return
      */
     protected Collection<ITestResult> getResultSet(final IResultMap tests, final ITestNGMethod method) {
-        Set<ITestResult> r = new TreeSet<ITestResult>(new TestResultSorter<ITestResult>());
-        for (ITestResult result : tests.getAllResults()) {
-            if (result.getMethod().getMethodName().equals(method.getMethodName())) {
-                r.add(result);
-            }
-        }
-
-        return r;
+        return getResultIndex(tests).getSortedResults(method.getMethodName());
     }
 
     protected ITestNGMethod getTestNGMethod(final ITestContext ctx, final String method) {
-        Collection<ITestNGMethod> methods = new HashSet<ITestNGMethod>();
-
         int index = method.substring(0, method.lastIndexOf(".")).lastIndexOf(".");
         String localMethod = method.substring(index + 1);
 
-        ITestNGMethod[] all = ctx.getAllTestMethods();
-        for (int i = 0; i < all.length; i++) {
-            methods.add(all[i]);
+        ITestNGMethod m = getMethodIndex(ctx).get(localMethod);
+        if (m != null) {
+            return m;
         }
 
-        for (ITestNGMethod m : methods) {
-
-            if (m.toString().startsWith(localMethod)) {
-                return m;
+        for (ITestNGMethod testMethod : ctx.getAllTestMethods()) {
+            if (testMethod.toString().startsWith(localMethod)) {
+                return testMethod;
             }
         }
 
         throw new ScenarioException("method " + method + " not found. Should not happen. Suite " + ctx.getName());
     }
 
+    /**
+     * Test methods of the context, by 'Class.method' name
+     */
+    private Map<String, ITestNGMethod> getMethodIndex(final ITestContext ctx) {
+        synchronized (methodIndexes) {
+            Map<String, ITestNGMethod> methods = methodIndexes.get(ctx);
+            if (methods == null) {
+                methods = new HashMap<String, ITestNGMethod>();
+                for (ITestNGMethod testMethod : ctx.getAllTestMethods()) {
+                    String name = testMethod.toString();
+                    if (name.indexOf('(') >= 0) {
+                        name = name.substring(0, name.indexOf('('));
+                    }
+                    if (!methods.containsKey(name)) {
+                        methods.put(name, testMethod);
+                    }
+                }
+                methodIndexes.put(ctx, methods);
+            }
+            return methods;
+        }
+    }
+
     protected String getType(Class<?> cls) {
 
         while (cls.isArray()) {
@@ -1117,7 +1652,20 @@ public class SeleniumTestsReporter implements IReporter, ITestListener, IInvoked
      * @param argO
      * 
      **/
-    public synchronized void onTestFailure(final ITestResult arg0) {
+    public void onTestFailure(final ITestResult arg0) {
+        recordFailure(arg0);
+
+        // test which will be retried is not reported. Rendering is done outside of lock so that failing tests do not wait for each other
+        if (arg0.getStatus() == ITestResult.FAILURE) {
+            renderFinishedTest(arg0, "failed");
+        }
+    }
+
+    /**
+     * Prepares retry of the failed test and logs a screenshot
+     * @param arg0
+     */
+    private synchronized void recordFailure(final ITestResult arg0) {
         if (arg0.getMethod().getRetryAnalyzer() != null) {
             ITestRetryAnalyzer testRetryAnalyzer = (ITestRetryAnalyzer) arg0.getMethod().getRetryAnalyzer();
 
@@ -1141,7 +1689,9 @@ public class SeleniumTestsReporter implements IReporter, ITestListener, IInvoked
         }
     }
 
-    public void onTestSkipped(final ITestResult arg0) { }
+    public void onTestSkipped(final ITestResult arg0) {
+        renderFinishedTest(arg0, "skipped");
+    }
 
     public void onTestStart(final ITestResult arg0) { }
 
@@ -1158,6 +1708,7 @@ public class SeleniumTestsReporter implements IReporter, ITestListener, IInvoked
             ScreenShot screenShot = new ScreenshotUtil().captureWebPageSnapshot();
             TestLogging.logWebOutput(screenShot.getTitle(), screenShot.getTitle()+" ("+ TestLogging.buildScreenshotLog(screenShot)+")", false);
         }
+        renderFinishedTest(arg0, "passed");
     }
 
     /**
@@ -1169,36 +1720,17 @@ public class SeleniumTestsReporter implements IReporter, ITestListener, IInvoked
      */
     private void removeFailedTestsInTestNG(final ITestContext tc) {
         IResultMap returnValue = tc.getFailedTests();
-        ResultMap removeMap = new ResultMap();
+        ResultIndex finalFailures = getResultIndex(failedTests.get(tc.getName()));
+        List<ITestResult> removeResults = new ArrayList<ITestResult>();
         for (ITestResult result : returnValue.getAllResults()) {
-            boolean isFailed = false;
-            for (ITestResult resultToCheck : failedTests.get(tc.getName()).getAllResults()) {
-                if (result.getMethod().equals(resultToCheck.getMethod())
-                        && result.getEndMillis() == resultToCheck.getEndMillis()) {
-                    isFailed = true;
-                    break;
-                }
-            }
-
-            if (!isFailed) {
+            if (finalFailures.getResult(result) == null) {
                 System.out.println("Removed failed cases:" + result.getMethod().getMethodName());
-                removeMap.addResult(result, result.getMethod());
+                removeResults.add(result);
             }
         }
 
-        for (ITestResult result : removeMap.getAllResults()) {
-            ITestResult removeResult = null;
-            for (ITestResult resultToCheck : returnValue.getAllResults()) {
-                if (result.getMethod().equals(resultToCheck.getMethod())
-                        && result.getEndMillis() == resultToCheck.getEndMillis()) {
-                    removeResult = resultToCheck;
-                    break;
-                }
-            }
-
-            if (removeResult != null) {
-                returnValue.getAllResults().remove(removeResult);
-            }
+        for (ITestResult result : removeResults) {
+            returnValue.getAllResults().remove(result);
         }
     }
 
@@ -1211,22 +1743,14 @@ public class SeleniumTestsReporter implements IReporter, ITestListener, IInvoked
      * @return
      */
     private void removeIncorrectlySkippedTests(final ITestContext tc, final IResultMap map) {
-        List<ITestNGMethod> failsToRemove = new ArrayList<ITestNGMethod>();
+        Set<ITestNGMethod> failsToRemove = new LinkedHashSet<ITestNGMethod>();
         IResultMap returnValue = tc.getSkippedTests();
+        ResultIndex failedIndex = getResultIndex(map);
+        ResultIndex passedIndex = getResultIndex(tc.getPassedTests());
 
         for (ITestResult result : returnValue.getAllResults()) {
-            for (ITestResult resultToCheck : map.getAllResults()) {
-                if (resultToCheck.getMethod().equals(result.getMethod())) {
-                    failsToRemove.add(resultToCheck.getMethod());
-                    break;
-                }
-            }
-
-            for (ITestResult resultToCheck : tc.getPassedTests().getAllResults()) {
-                if (resultToCheck.getMethod().equals(result.getMethod())) {
-                    failsToRemove.add(resultToCheck.getMethod());
-                    break;
-                }
+            if (failedIndex.hasResults(result.getMethod()) || passedIndex.hasResults(result.getMethod())) {
+                failsToRemove.add(result.getMethod());
             }
         }
 
@@ -1255,13 +1779,7 @@ public class SeleniumTestsReporter implements IReporter, ITestListener, IInvoked
      */
     protected void startHtml(final ITestContext ctx, final PrintWriter out) {
         try {
-            VelocityEngine ve = new VelocityEngine();
-            ve.setProperty("resource.loader", "class");
-            ve.setProperty("class.resource.loader.class",
-                "org.apache.velocity.runtime.resource.loader.ClasspathResourceLoader");
-            ve.init();
-
-            Template t = ve.getTemplate("/templates/report.part.header.html");
+            Template t = getTemplate("/templates/report.part.header.html");
             VelocityContext context = new VelocityContext();
 
             String userName = System.getProperty("user.name");
@@ -1286,9 +1804,7 @@ public class SeleniumTestsReporter implements IReporter, ITestListener, IInvoked
 
             context.put("groups", sbGroups.toString());
 
-            StringWriter writer = new StringWriter();
-            t.merge(context, writer);
-            out.write(writer.toString());
+            t.merge(context, out);
 
         } catch (Exception e) {
             logger.error(e);
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2016 www.infotel.com
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.seleniumtests.reporter;
+
+/**
+ * Event logged during a test. It's stored as is by {@link StepEventWriter}, HTML is only rendered at report time
+ * (see {@link TestLogging#render(StepEvent)})
+ */
+public class StepEvent {
+
+	public enum Type {
+		/** action on page or element */
+		STEP,
+		/** result of an action, screenshot */
+		OUTPUT,
+		INFO,
+		WARNING,
+		ERROR,
+		/** free message */
+		LOG
+	}
+
+	private static final char FIELD_SEPARATOR = '\t';
+	private static final int FIELD_COUNT = 8;
+
+	private final long timestamp;
+	private final String thread;
+	private final String test;
+	private final Type type;
+	private final String element;
+	private final boolean failed;
+	private final int reporterPosition;
+	private final String message;
+
+	/**
+	 * Creates an event for the current thread, at current time
+	 * @param test		name of the test
+	 * @param type
+	 * @param element	element on which action is done. null if none
+	 * @param failed
+	 * @param message
+	 */
+	public StepEvent(final String test, final Type type, final String element, final boolean failed, final String message) {
+		this(test, type, element, failed, 0, message);
+	}
+	
+	/**
+	 * Creates an event for the current thread, at current time
+	 * @param test		name of the test
+	 * @param type
+	 * @param element	element on which action is done. null if none
+	 * @param failed
+	 * @param reporterPosition	size of TestNG reporter output (all tests) when event is logged, so that lines logged directly
+	 * 							to reporter can be merged with events in order
+	 * @param message
+	 */
+	public StepEvent(final String test, final Type type, final String element, final boolean failed, 
+			final int reporterPosition, final String message) {
+		this(System.currentTimeMillis(), Thread.currentThread().getName(), test, type, element, failed, reporterPosition, message);
+	}
+
+	private StepEvent(final long timestamp, final String thread, final String test, final Type type, final String element,
+			final boolean failed, final int reporterPosition, final String message) {
+		this.timestamp = timestamp;
+		this.thread = thread;
+		this.test = test;
+		this.type = type;
+		this.element = element;
+		this.failed = failed;
+		this.reporterPosition = reporterPosition;
+		this.message = message == null ? "" : message;
+	}
+
+	/**
+	 * Serialize event on one line, fields separated by tabs
+	 */
+	public String toLine() {
+		StringBuilder line = new StringBuilder(message.length() + 64);
+		line.append(timestamp).append(FIELD_SEPARATOR);
+		appendField(line, thread);
+		appendField(line, test);
+		line.append(type).append(FIELD_SEPARATOR);
+		appendField(line, element);
+		line.append(failed ? "FAILED" : "PASSED").append(FIELD_SEPARATOR);
+		line.append(reporterPosition).append(FIELD_SEPARATOR);
+		appendEscaped(line, message);
+		return line.toString();
+	}
+
+	/**
+	 * Reads an event written by {@link #toLine()}
+	 * @param line
+	 * @return
+	 */
+	public static StepEvent fromLine(final String line) {
+		String[] fields = line.split(String.valueOf(FIELD_SEPARATOR), FIELD_COUNT);
+		if (fields.length != FIELD_COUNT) {
+			throw new IllegalArgumentException("Invalid step event: " + line);
+		}
+		return new StepEvent(Long.parseLong(fields[0]),
+							unEscape(fields[1]),
+							unEscape(fields[2]),
+							Type.valueOf(fields[3]),
+							fields[4].isEmpty() ? null : unEscape(fields[4]),
+							"FAILED".equals(fields[5]),
+							Integer.parseInt(fields[6]),
+							unEscape(fields[7]));
+	}
+
+	private static void appendField(final StringBuilder line, final String value) {
+		if (value != null) {
+			appendEscaped(line, value);
+		}
+		line.append(FIELD_SEPARATOR);
+	}
+
+	private static void appendEscaped(final StringBuilder line, final String value) {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+				case '\\':
+					line.append("\\\\");
+					break;
+				case '\t':
+					line.append("\\t");
+					break;
+				case '\n':
+					line.append("\\n");
+					break;
+				case '\r':
+					line.append("\\r");
+					break;
+				default:
+					line.append(c);
+			}
+		}
+	}
+
+	private static String unEscape(final String value) {
+		if (value.indexOf('\\') < 0) {
+			return value;
+		}
+		StringBuilder unEscaped = new StringBuilder(value.length());
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c == '\\' && i + 1 < value.length()) {
+				char next = value.charAt(++i);
+				switch (next) {
+					case 't':
+						unEscaped.append('\t');
+						break;
+					case 'n':
+						unEscaped.append('\n');
+						break;
+					case 'r':
+						unEscaped.append('\r');
+						break;
+					default:
+						unEscaped.append(next);
+				}
+			} else {
+				unEscaped.append(c);
+			}
+		}
+		return unEscaped.toString();
+	}
+
+	public long getTimestamp() {
+		return timestamp;
+	}
+
+	public String getThread() {
+		return thread;
+	}
+
+	public String getTest() {
+		return test;
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	public String getElement() {
+		return element;
+	}
+
+	public boolean isFailed() {
+		return failed;
+	}
+
+	public int getReporterPosition() {
+		return reporterPosition;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2016 www.infotel.com
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.seleniumtests.reporter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.log4j.Logger;
+import org.testng.ITestResult;
+
+/**
+ * Writes step events to one file per test, from a background thread. Test threads only put events in a bounded
+ * queue. If writer is late and queue is full, the test thread wakes the writer up and waits for free space, so that no
+ * event is lost and test threads never write files
+ */
+public class StepEventWriter {
+
+	private static final Logger logger = TestLogging.getLogger(StepEventWriter.class);
+
+	public static final String TEST_RESULT_ATTRIBUTE = "stepEventFile";
+	public static final String EVENT_FOLDER = "stepEvents";
+	private static final int QUEUE_CAPACITY = 10000;
+	private static final long WRITE_PERIOD = TimeUnit.MILLISECONDS.toNanos(50);
+
+	private static final StepEventWriter instance = new StepEventWriter();
+	private static final AtomicInteger fileCounter = new AtomicInteger();
+
+	// Bounded on purpose: a test thread blocks only if writer is QUEUE_CAPACITY events late (disk stalled). This back pressure
+	// is preferred to dropping events, which would make report lie, or to an unbounded queue, which could exhaust memory
+	private final BlockingQueue<PendingEvent> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+	private final Thread writerThread;
+	
+	// events submitted but not written yet, by file, so that a test can wait for its own events only
+	private final Map<File, AtomicInteger> unwrittenEvents = new ConcurrentHashMap<>();
+	private final Object writtenSignal = new Object();
+
+	private static class PendingEvent {
+		private final File file;
+		private final StepEvent event;
+		private final AtomicInteger unwrittenCounter;
+
+		private PendingEvent(final File file, final StepEvent event, final AtomicInteger unwrittenCounter) {
+			this.file = file;
+			this.event = event;
+			this.unwrittenCounter = unwrittenCounter;
+		}
+	}
+
+	private StepEventWriter() {
+		writerThread = new Thread(this::writeLoop, "StepEventWriter");
+		writerThread.setDaemon(true);
+		writerThread.start();
+	}
+
+	public static StepEventWriter getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Returns the event file of the test, creating its name on first call
+	 * @param result	TestNG result of the test
+	 * @return	null if test has no output directory
+	 */
+	public static File getEventFile(final ITestResult result) {
+		File eventFile = (File) result.getAttribute(TEST_RESULT_ATTRIBUTE);
+		if (eventFile == null) {
+			if (result.getTestContext() == null || result.getTestContext().getOutputDirectory() == null) {
+				return null;
+			}
+			eventFile = new File(result.getTestContext().getOutputDirectory() + File.separator + EVENT_FOLDER,
+									String.format("%s-%d.log", result.getMethod().getMethodName(), fileCounter.incrementAndGet()));
+
+			// file of a previous run in the same output directory
+			eventFile.delete();
+			result.setAttribute(TEST_RESULT_ATTRIBUTE, eventFile);
+		}
+		return eventFile;
+	}
+
+	/**
+	 * Queues the event. Never blocks unless queue is full, then waits for the writer thread to make room
+	 * @param eventFile		file of the test
+	 * @param event
+	 */
+	public void submit(final File eventFile, final StepEvent event) {
+		AtomicInteger unwrittenCounter = unwrittenEvents.computeIfAbsent(eventFile, file -> new AtomicInteger());
+		unwrittenCounter.incrementAndGet();
+		PendingEvent pending = new PendingEvent(eventFile, event, unwrittenCounter);
+		if (queue.offer(pending)) {
+			return;
+		}
+		
+		LockSupport.unpark(writerThread);
+		try {
+			queue.put(pending);
+		} catch (InterruptedException e) {
+			unwrittenCounter.decrementAndGet();
+			Thread.currentThread().interrupt();
+			logger.warn("Interrupted while waiting for step event writer, event is lost: " + event.getMessage());
+		}
+	}
+
+	/**
+	 * Waits for the writer thread to write the events of this file submitted before this call. Events of other tests 
+	 * are neither written nor waited for by the calling thread
+	 * @param eventFile		file of the test
+	 */
+	public void flush(final File eventFile) {
+		AtomicInteger unwrittenCounter = unwrittenEvents.get(eventFile);
+		if (unwrittenCounter == null) {
+			return;
+		}
+		
+		LockSupport.unpark(writerThread);
+		synchronized (writtenSignal) {
+			while (unwrittenCounter.get() > 0) {
+				try {
+					writtenSignal.wait(TimeUnit.NANOSECONDS.toMillis(WRITE_PERIOD));
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					logger.warn("Interrupted while waiting for step events to be written");
+					return;
+				}
+			}
+		}
+		
+		// test is over, counter will be created again if events are still logged for this file
+		unwrittenEvents.remove(eventFile, unwrittenCounter);
+	}
+
+	/**
+	 * Returns events logged during the test, in order
+	 * @param result	TestNG result of the test
+	 * @return
+	 */
+	public List<StepEvent> readEvents(final ITestResult result) {
+		File eventFile = (File) result.getAttribute(TEST_RESULT_ATTRIBUTE);
+		if (eventFile == null) {
+			return Collections.emptyList();
+		}
+
+		flush(eventFile);
+		List<StepEvent> events = new ArrayList<>();
+		try {
+			for (String line: Files.readAllLines(eventFile.toPath(), StandardCharsets.UTF_8)) {
+				events.add(StepEvent.fromLine(line));
+			}
+		} catch (IOException e) {
+			logger.error("Cannot read step events of test: " + e.getMessage());
+		}
+		return events;
+	}
+
+	private void writeLoop() {
+		while (true) {
+			try {
+				writePendingEvents();
+			} catch (RuntimeException e) {
+				logger.error("Cannot write step events: " + e.getMessage());
+			}
+			LockSupport.parkNanos(WRITE_PERIOD);
+		}
+	}
+
+	/**
+	 * Writes queued events, grouped by file. Only called by background thread
+	 */
+	private void writePendingEvents() {
+		List<PendingEvent> pendingEvents = new ArrayList<>();
+		while (queue.drainTo(pendingEvents) > 0) {
+			try {
+				Map<File, StringBuilder> batch = new LinkedHashMap<>();
+				for (PendingEvent pending: pendingEvents) {
+					StringBuilder lines = batch.get(pending.file);
+					if (lines == null) {
+						lines = new StringBuilder();
+						batch.put(pending.file, lines);
+					}
+					lines.append(pending.event.toLine()).append('\n');
+				}
+
+				for (Entry<File, StringBuilder> entry: batch.entrySet()) {
+					try {
+						entry.getKey().getParentFile().mkdirs();
+						Files.write(entry.getKey().toPath(), entry.getValue().toString().getBytes(StandardCharsets.UTF_8),
+								StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+					} catch (IOException e) {
+						logger.error(String.format("Cannot write step events to %s: %s", entry.getKey(), e.getMessage()));
+					}
+				}
+			} finally {
+				// counters are released even if writing failed, so that no test waits for ever
+				for (PendingEvent pending: pendingEvents) {
+					pending.unwrittenCounter.decrementAndGet();
+				}
+				synchronized (writtenSignal) {
+					writtenSignal.notifyAll();
+				}
+				pendingEvents.clear();
+			}
+		}
+	}
+}
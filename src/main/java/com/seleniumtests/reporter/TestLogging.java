@@ -13,11 +13,11 @@
 
 package com.seleniumtests.reporter;
 
-import java.util.Collections;
-import java.util.HashMap;
+import java.io.File;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.log4j.Appender;
 import org.apache.log4j.BasicConfigurator;
@@ -37,8 +37,29 @@ import com.seleniumtests.util.StringUtility;
  */
 public class TestLogging {
 
-    private static Map<String, Map<String, Map<String, List<String>>>> logMap = Collections.synchronizedMap(
-            new HashMap<String, Map<String, Map<String, List<String>>>>());
+    /* markers replacing '<' and '>' in logs so that TestNG does not interpret them */
+    public static final String LT_MARKER = "@@lt@@";
+    public static final String GT_MARKER = "^^greaterThan^^";
+    
+    /* markup surrounding messages, escaped once */
+    private static final String ERROR_START = escape("<li><b><font color='#6600CC'>");
+    private static final String ERROR_END = escape("</font></b></li>");
+    private static final String INFO_START = escape("<li><font color='#00cd00'>");
+    private static final String INFO_END = escape("</font></li>");
+    private static final String WARNING_START = escape("<li><font color='#FFFF00'>");
+    private static final String WARNING_END = INFO_END;
+    private static final String OUTPUT_START = "Output: ";
+    private static final String OUTPUT_END = escape("<br/>");
+    private static final String STEP_START = escape("<li> ");
+    private static final String FAILED_STEP_START = escape("<li><b>FailedStep</b>: ");
+    private static final String STEP_END = escape("</li>");
+    private static final String FAILED_START = escape("<span style=\"font-weight:bold;color:#cc0052;\">");
+    private static final String FAILED_END = escape("</span>");
+    
+    private static final int MAX_KEPT_BUFFER_SIZE = 16 * 1024;
+    private static final ThreadLocal<StringBuilder> LOG_BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    private static Map<String, Map<String, Map<String, List<String>>>> logMap = new ConcurrentHashMap<String, Map<String, Map<String, List<String>>>>();
 
     /**
      * error Logger.
@@ -46,8 +67,7 @@ public class TestLogging {
      * @param  message
      */
     public static void errorLogger(String message) {
-        message = "<li><b><font color='#6600CC'>" + message + "</font></b></li>";
-        log(message, false, false);
+        log(StepEvent.Type.ERROR, message, null, false, false);
     }
     
     public static Logger getLogger(final Class<?> cls) {
@@ -92,8 +112,7 @@ public class TestLogging {
      * @param  message
      */
     public static void logInfo(String message) {
-        message = "<li><font color='#00cd00'>" + message + "</font></li>";
-        log(message, false, false);
+        log(StepEvent.Type.INFO, message, null, false, false);
     }
 
     /**
@@ -123,29 +142,178 @@ public class TestLogging {
      * @param  logToStandardOutput
      */
     public static void log(String message, final boolean failed, final boolean logToStandardOutput) {
+        log(StepEvent.Type.LOG, message, null, failed, logToStandardOutput);
+    }
 
-        if (message == null) {
-            message = "";
+    /**
+     * Logs a step event. Inside a test, event is only queued, it's written to test event file by {@link StepEventWriter} 
+     * and rendered at report time. Outside of a test, it's rendered and logged to TestNG reporter
+     *
+     * @param  type
+     * @param  message
+     * @param  element		element on which action is done, or null
+     * @param  failed
+     * @param  logToStandardOutput
+     */
+    private static void log(final StepEvent.Type type, final String message, final String element, 
+    		final boolean failed, final boolean logToStandardOutput) {
+    	if (logToStandardOutput) {
+    		System.out.println(message);
+    	}
+    	
+    	ITestResult result = Reporter.getCurrentTestResult();
+    	File eventFile = result == null ? null : StepEventWriter.getEventFile(result);
+    	if (eventFile == null) {
+    		Reporter.log(render(new StepEvent(result == null ? null : result.getName(), type, element, failed, message)));
+    	} else {
+    		
+    		// lines logged directly to TestNG reporter by the test are interleaved with events when rendering. Only the size 
+    		// of reporter output is read: Reporter.getOutput(result) would take reporter lock and copy test output on each log
+    		StepEvent event = new StepEvent(result.getName(), type, element, failed, Reporter.getOutput().size(), message);
+    		StepEventWriter.getInstance().submit(eventFile, event);
+    	}
+    }
+    
+    /**
+     * Renders the event as an escaped HTML line, as expected by reporter
+     * Markup surrounding the message has already been escaped, message is escaped in the same pass as the one building the line
+     * 
+     * @param event
+     * @return
+     */
+    public static String render(final StepEvent event) {
+    	String escapedPrefix;
+    	String escapedSuffix;
+    	switch (event.getType()) {
+	    	case STEP:
+	    		escapedPrefix = event.isFailed() ? FAILED_STEP_START : STEP_START;
+	    		escapedSuffix = STEP_END;
+	    		break;
+	    	case OUTPUT:
+	    		escapedPrefix = OUTPUT_START;
+	    		escapedSuffix = OUTPUT_END;
+	    		break;
+	    	case INFO:
+	    		escapedPrefix = INFO_START;
+	    		escapedSuffix = INFO_END;
+	    		break;
+	    	case WARNING:
+	    		escapedPrefix = WARNING_START;
+	    		escapedSuffix = WARNING_END;
+	    		break;
+	    	case ERROR:
+	    		escapedPrefix = ERROR_START;
+	    		escapedSuffix = ERROR_END;
+	    		break;
+	    	default:
+	    		escapedPrefix = "";
+	    		escapedSuffix = "";
+    	}
+    	
+        StringBuilder line = getLogBuffer();
+        if (event.isFailed()) {
+        	line.append(FAILED_START);
         }
-
-        message = message.replaceAll("\\n", "<br/>");
-
-        if (failed) {
-            message = "<span style=\"font-weight:bold;color:#cc0052;\">" + message + "</span>";
+        line.append(escapedPrefix);
+        appendEscaped(line, event.getMessage());
+        line.append(escapedSuffix);
+        if (event.isFailed()) {
+        	line.append(FAILED_END);
         }
-
-        Reporter.log(escape(message), logToStandardOutput);
+        return line.toString();
+    }
+    
+    /**
+     * Returns the buffer of current thread, emptied. A buffer which has grown too much (e.g: page source logged) is not kept
+     */
+    private static StringBuilder getLogBuffer() {
+    	StringBuilder buffer = LOG_BUFFER.get();
+    	if (buffer.capacity() > MAX_KEPT_BUFFER_SIZE) {
+    		buffer = new StringBuilder(256);
+    		LOG_BUFFER.set(buffer);
+    	}
+    	buffer.setLength(0);
+    	return buffer;
     }
 
+    /**
+     * Escapes new lines and markup so that message is not interpreted by TestNG reporter
+     * Markup is restored by {@link #unEscapeMarkup(String)} at report time
+     */
     public static String escape(final String message) {
-        return message.replaceAll("\\n", "<br/>").replaceAll("<", "@@lt@@").replaceAll(">", "^^greaterThan^^");
+    	StringBuilder escaped = new StringBuilder(message.length() + 16);
+    	appendEscaped(escaped, message);
+        return escaped.toString();
+    }
+    
+    private static void appendEscaped(final StringBuilder buffer, final String message) {
+    	int length = message.length();
+    	for (int i = 0; i < length; i++) {
+    		char c = message.charAt(i);
+    		switch (c) {
+    			case '\n':
+    				buffer.append(LT_MARKER).append("br/").append(GT_MARKER);
+    				break;
+    			case '<':
+    				buffer.append(LT_MARKER);
+    				break;
+    			case '>':
+    				buffer.append(GT_MARKER);
+    				break;
+    			default:
+    				buffer.append(c);
+    		}
+    	}
     }
 
-    public static String unEscape(String message) {
-        message = message.replaceAll("<br/>", "\\n").replaceAll("@@lt@@", "<").replaceAll("\\^\\^gt\\^\\^", ">");
+    /**
+     * Restores markup escaped by {@link #escape(String)}
+     */
+    public static String unEscapeMarkup(final String message) {
+    	if (message.indexOf(LT_MARKER.charAt(0)) < 0 && message.indexOf(GT_MARKER.charAt(0)) < 0) {
+    		return message;
+    	}
+    	
+    	int length = message.length();
+    	StringBuilder unEscaped = new StringBuilder(length);
+    	for (int i = 0; i < length; i++) {
+    		char c = message.charAt(i);
+    		if (c == '@' && message.startsWith(LT_MARKER, i)) {
+    			unEscaped.append('<');
+    			i += LT_MARKER.length() - 1;
+    		} else if (c == '^' && message.startsWith(GT_MARKER, i)) {
+    			unEscaped.append('>');
+    			i += GT_MARKER.length() - 1;
+    		} else {
+    			unEscaped.append(c);
+    		}
+    	}
+    	return unEscaped.toString();
+    }
 
-        message = HtmlToText.htmlToPlainText(message);
-        return message;
+    /**
+     * Returns plain text from an escaped message
+     */
+    public static String unEscape(String message) {
+    	int length = message.length();
+    	StringBuilder unEscaped = new StringBuilder(length);
+    	for (int i = 0; i < length; i++) {
+    		char c = message.charAt(i);
+    		if (c == '<' && message.startsWith("<br/>", i)) {
+    			unEscaped.append('\n');
+    			i += "<br/>".length() - 1;
+    		} else if (c == '@' && message.startsWith(LT_MARKER, i)) {
+    			unEscaped.append('<');
+    			i += LT_MARKER.length() - 1;
+    		} else if (c == '^' && message.startsWith(GT_MARKER, i)) {
+    			unEscaped.append('>');
+    			i += GT_MARKER.length() - 1;
+    		} else {
+    			unEscaped.append(c);
+    		}
+    	}
+
+        return HtmlToText.htmlToPlainText(unEscaped.toString());
     }
 
     /**
@@ -156,7 +324,7 @@ public class TestLogging {
      * @param  failed
      */
     public static void logWebOutput(final String url, final String message, final boolean failed) {
-        log("Output: " + message + "<br/>", failed, false);
+        log(StepEvent.Type.OUTPUT, message, null, failed, false);
     }
 
     /**
@@ -167,7 +335,19 @@ public class TestLogging {
      * @param  failed
      */
     public static void logWebStep(final String url, final String message, final boolean failed) {
-        log("<li>" + (failed ? "<b>FailedStep</b>: " : " ") + message + "</li>", failed, false);
+        logWebStep(url, message, null, failed);
+    }
+
+    /**
+     * Log Web Step done on an element
+     *
+     * @param  url
+     * @param  message
+     * @param  element		label of the element on which action is done
+     * @param  failed
+     */
+    public static void logWebStep(final String url, final String message, final String element, final boolean failed) {
+        log(StepEvent.Type.STEP, message, element, failed, false);
     }
 
     /**
@@ -203,7 +383,6 @@ public class TestLogging {
      * @param  message
      */
     public static void warning(String message) {
-        message = "<li><font color='#FFFF00'>" + message + "</font></li>";
-        log(message, false, false);
+        log(StepEvent.Type.WARNING, message, null, false, false);
     }
 }
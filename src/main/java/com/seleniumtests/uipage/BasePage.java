@@ -32,6 +32,7 @@ import com.seleniumtests.customexception.NotCurrentPageException;
 import com.seleniumtests.driver.BrowserType;
 import com.seleniumtests.driver.CustomEventFiringWebDriver;
 import com.seleniumtests.driver.WebUIDriver;
+import com.seleniumtests.driver.WindowTracker;
 import com.seleniumtests.reporter.TestLogging;
 import com.seleniumtests.uipage.htmlelements.HtmlElement;
 import com.seleniumtests.uipage.htmlelements.Table;
@@ -376,7 +377,7 @@ public abstract class BasePage {
         Assert.assertNotNull(element, "Element can't be null");
         TestLogging.logWebStep(null, "wait for " + element.toString() + " to be checked.", false);
 
-        WebDriverWait wait = new WebDriverWait(driver, explictWaitTimeout);
+        WebDriverWait wait = new WebDriverWait(driver, WaitHelper.boundTimeout(explictWaitTimeout));
         wait.until(ExpectedConditions.elementToBeSelected(element.getBy()));
     }
 
@@ -384,14 +385,14 @@ public abstract class BasePage {
         Assert.assertNotNull(element, "Element can't be null");
         TestLogging.logWebStep(null, "wait for " + element.toString() + " to be editable.", false);
 
-        WebDriverWait wait = new WebDriverWait(driver, explictWaitTimeout);
+        WebDriverWait wait = new WebDriverWait(driver, WaitHelper.boundTimeout(explictWaitTimeout));
         wait.until(ExpectedConditions.elementToBeClickable(element.getBy()));
     }
 
     public void waitForElementPresent(final By by) {
         TestLogging.logWebStep(null, "wait for " + by.toString() + " to be present.", false);
 
-        WebDriverWait wait = new WebDriverWait(driver, explictWaitTimeout);
+        WebDriverWait wait = new WebDriverWait(driver, WaitHelper.boundTimeout(explictWaitTimeout));
         wait.until(ExpectedConditions.presenceOfElementLocated(by));
     }
 
@@ -403,7 +404,7 @@ public abstract class BasePage {
     public void waitForElementPresent(final By by, final int timeout) {
         TestLogging.logWebStep(null, "wait for " + by.toString() + " to be present.", false);
 
-        WebDriverWait wait = new WebDriverWait(driver, timeout);
+        WebDriverWait wait = new WebDriverWait(driver, WaitHelper.boundTimeout(timeout));
         wait.until(ExpectedConditions.presenceOfElementLocated(by));
     }
 
@@ -411,7 +412,7 @@ public abstract class BasePage {
         Assert.assertNotNull(element, "Element can't be null");
         TestLogging.logWebStep(null, "wait for " + element.toString() + " to be present.", false);
 
-        WebDriverWait wait = new WebDriverWait(driver, explictWaitTimeout);
+        WebDriverWait wait = new WebDriverWait(driver, WaitHelper.boundTimeout(explictWaitTimeout));
         wait.until(ExpectedConditions.presenceOfElementLocated(element.getBy()));
     }
 
@@ -419,7 +420,7 @@ public abstract class BasePage {
         Assert.assertNotNull(element, "Element can't be null");
         TestLogging.logWebStep(null, "wait for " + element.toString() + " to be visible.", false);
 
-        WebDriverWait wait = new WebDriverWait(driver, explictWaitTimeout);
+        WebDriverWait wait = new WebDriverWait(driver, WaitHelper.boundTimeout(explictWaitTimeout));
         wait.until(ExpectedConditions.visibilityOfElementLocated(element.getBy()));
     }
 
@@ -427,7 +428,7 @@ public abstract class BasePage {
         Assert.assertNotNull(element, "Element can't be null");
         TestLogging.logWebStep(null, "wait for " + element.toString() + " to disappear.", false);
 
-        WebDriverWait wait = new WebDriverWait(driver, explictWaitTimeout);
+        WebDriverWait wait = new WebDriverWait(driver, WaitHelper.boundTimeout(explictWaitTimeout));
         wait.until(ExpectedConditions.invisibilityOfElementLocated(element.getBy()));
     }
 
@@ -436,7 +437,7 @@ public abstract class BasePage {
     }
 
     public void waitForPopUp(final String windowID, final String timeout) {
-        final long millis = Long.parseLong(timeout);
+        final long millis = WaitHelper.boundTimeoutMs(Long.parseLong(timeout));
         final String current = driver.getWindowHandle();
         final Windows windows = new Windows(driver);
 
@@ -476,14 +477,14 @@ public abstract class BasePage {
     }
     
     protected void waitForMs(final int ms) {
-    	WaitHelper.waitForSeconds(ms);
+    	WaitHelper.waitForMilliSeconds(ms);
     }
 
     public void waitForTextPresent(final HtmlElement element, final String text) {
         Assert.assertNotNull(text, "Text can't be null");
         TestLogging.logWebStep(null, "wait for text \"" + text + "\" to be present.", false);
 
-        WebDriverWait wait = new WebDriverWait(driver, explictWaitTimeout);
+        WebDriverWait wait = new WebDriverWait(driver, WaitHelper.boundTimeout(explictWaitTimeout));
         wait.until(ExpectedConditions.textToBePresentInElement(element.getBy(), text));
     }
 
@@ -492,7 +493,8 @@ public abstract class BasePage {
         TestLogging.logWebStep(null, "wait for text \"" + text + "\" to be present.", false);
 
         boolean b = false;
-        for (int millisec = 0; millisec < explictWaitTimeout * 1000; millisec += 1000) {
+        long timeout = WaitHelper.boundTimeoutMs(explictWaitTimeout * 1000L);
+        for (int millisec = 0; millisec < timeout; millisec += 1000) {
             try {
                 if ((isTextPresent(text))) {
                     b = true;
@@ -528,5 +530,18 @@ public abstract class BasePage {
 	public Set<String> getCurrentHandles() {
 		return ((CustomEventFiringWebDriver)driver).getCurrentHandles();
 	}
+	
+	/**
+	 * Records the currently opened windows, before an action which opens a new window. 
+	 * {@link PageObject#selectNewWindow()} will then look for a window not in this list.
+	 * The page is also hooked so that it signals window opening instead of browser being polled.
+	 * Without this call, new window is searched among the windows which were not opened when page was loaded or when
+	 * last window was selected. Clicks never record windows
+	 */
+	public void expectNewWindow() {
+		((CustomEventFiringWebDriver)driver).updateWindowsHandles();
+		((CustomEventFiringWebDriver)driver).setNewWindowExpected(true);
+		new WindowTracker(driver).track();
+	}
 
 }
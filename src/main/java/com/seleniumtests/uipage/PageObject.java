@@ -46,9 +46,12 @@ import com.seleniumtests.core.SeleniumTestsPageListener;
 import com.seleniumtests.customexception.CustomSeleniumTestsException;
 import com.seleniumtests.customexception.NotCurrentPageException;
 import com.seleniumtests.driver.CustomEventFiringWebDriver;
+import com.seleniumtests.driver.DriverConfig;
+import com.seleniumtests.driver.DriverMode;
 import com.seleniumtests.driver.JavaScriptError;
 import com.seleniumtests.driver.WebUIDriver;
 import com.seleniumtests.driver.WebUtility;
+import com.seleniumtests.driver.WindowTracker;
 import com.seleniumtests.driver.screenshots.ScreenShot;
 import com.seleniumtests.driver.screenshots.ScreenshotUtil;
 import com.seleniumtests.reporter.TestLogging;
@@ -195,7 +198,7 @@ public class PageObject extends BasePage implements IPage {
      * @return String
      */
     public static String param(String key) {
-    	String value = SeleniumTestsContextManager.getThreadContext().getConfiguration().get(key);
+    	String value = SeleniumTestsContextManager.getThreadContext().getTestConfiguration().get(key);
     	if (value == null) {
     		TestLogging.errorLogger(String.format("Variable %s is not defined", key));
     		return "";
@@ -528,8 +531,17 @@ public class PageObject extends BasePage implements IPage {
     	return selectNewWindow(6000);
     }
     
+    /**
+     * Switch to the window which is not known yet: opened after {@link BasePage#expectNewWindow()} call, or else, since page
+     * was loaded or last window was selected. If no window has been recorded, any window other than the current one is selected
+     * Once found, all current windows are considered as known, so that the next call looks for an other one
+     * @param waitMs	max time to wait for new window
+     * @return the handle of the window which was active before switching
+     * @throws NotCurrentPageException
+     */
     public final String selectNewWindow(int waitMs) throws NotCurrentPageException {
         TestLogging.logWebStep(null, "select new window", false);
+        waitMs = (int) WaitHelper.boundTimeoutMs(waitMs);
 //        driver.switchTo().window((String) driver.getWindowHandles().toArray()[1]);
 //        waitForSeconds(1);
         
@@ -542,10 +554,23 @@ public class PageObject extends BasePage implements IPage {
  			mainWindowHandle = "";
  		}
 
- 		// wait for window to be displayed
+ 		Set<String> knownHandles = getCurrentHandles();
+ 		if (knownHandles == null) {
+ 			knownHandles = new TreeSet<String>();
+ 			knownHandles.add(mainWindowHandle);
+ 		}
+ 		boolean newWindowExpected = ((CustomEventFiringWebDriver)driver).isNewWindowExpected();
+ 		((CustomEventFiringWebDriver)driver).setNewWindowExpected(false);
+
+ 		// wait for window to be displayed. If page has been tracked (see expectNewWindow), it tells us when window opens
+ 		// else, we poll the browser
+ 		WindowTracker windowTracker = new WindowTracker(driver);
  		long end = systemClock.laterBy(waitMs + 250L);
- 		Set<String> handles = new TreeSet<String>();
+ 		if (newWindowExpected && WindowTracker.OPENED.equals(windowTracker.waitForWindowOpening(waitMs))) {
+ 			end = systemClock.laterBy(1000);
+ 		}
  		
+ 		Set<String> handles = new TreeSet<String>();
  		while (systemClock.isNowBefore(end)) {
  			
  			handles = driver.getWindowHandles();
@@ -553,34 +578,33 @@ public class PageObject extends BasePage implements IPage {
  			for (String handle: handles) {
  				
  				// we already know this handle
- 				if (getCurrentHandles().contains(handle)) {
+ 				if (knownHandles.contains(handle)) {
  					continue;
  				} else {
+ 					((CustomEventFiringWebDriver)driver).setCurrentHandles(handles);
  					selectWindow(handle);
  					
  					// wait for a valid address
- 					String address = "";
- 					long endLoad = systemClock.laterBy(5000);
- 					while (address.equals("") && systemClock.isNowBefore(endLoad)) {
- 						address = driver.getCurrentUrl();
- 						continue;
- 					}
+ 					windowTracker.waitForDocumentReady(5000);
  					
- 					// make window display in foreground
- 					try {
- 						Point windowPosition  = driver.manage().window().getPosition();
- 						Mouse mouse = new DesktopMouse();
- 						mouse.click(new DesktopScreenRegion(windowPosition.x + driver.manage().window().getSize().width / 2, windowPosition.y + 5, 2, 2).getCenter());
- 					} catch (Exception e) {}
+ 					// make window display in foreground. This is only possible when browser is displayed on this computer
+ 					DriverConfig config = WebUIDriver.getWebUIDriver().getConfig();
+ 					if (config.getMode() == DriverMode.LOCAL && !config.isHeadlessBrowser()) {
+	 					try {
+	 						Point windowPosition  = driver.manage().window().getPosition();
+	 						Mouse mouse = new DesktopMouse();
+	 						mouse.click(new DesktopScreenRegion(windowPosition.x + driver.manage().window().getSize().width / 2, windowPosition.y + 5, 2, 2).getCenter());
+	 					} catch (Exception e) {}
+ 					}
  					
  					// new window has been found, stop
  					return mainWindowHandle;
  				}
  			}
- 			waitForMs(300);
+ 			waitForMs(100);
  		}
  		
- 		// on vérifie qu'on a bien changé de fenêtre
+		// on vérifie qu'on a bien changé de fenêtre
  		if (waitMs > 0 && mainWindowHandle.equals(driver.getWindowHandle())) {
  			throw new CustomSeleniumTestsException("new window has not been found. Handles: " + handles);
  		}
@@ -33,7 +33,7 @@ public class ButtonElement extends HtmlElement {
 
     @Override
     public void click() {
-        TestLogging.logWebStep(null, "click on " + toHTML(), false);
+        TestLogging.logWebStep(null, "click on " + toHTML(), getLabel(), false);
 
         BrowserType browser = WebUIDriver.getWebUIDriver().getConfig().getBrowser();
         if (browser == BrowserType.InternetExplore) {
@@ -44,7 +44,7 @@ public class ButtonElement extends HtmlElement {
     }
 
     public void submit() {
-        TestLogging.logWebStep(null, "Submit form by clicking on " + toHTML(), false);
+        TestLogging.logWebStep(null, "Submit form by clicking on " + toHTML(), getLabel(), false);
         findElement();
         element.submit();
     }
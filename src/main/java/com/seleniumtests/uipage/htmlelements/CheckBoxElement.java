@@ -29,7 +29,7 @@ public class CheckBoxElement extends HtmlElement {
     }
 
     public void check() {
-        TestLogging.logWebStep(null, "check " + toHTML(), false);
+        TestLogging.logWebStep(null, "check " + toHTML(), getLabel(), false);
         if (!isSelected()) {
             super.click();
         }
@@ -37,7 +37,7 @@ public class CheckBoxElement extends HtmlElement {
 
     @Override
     public void click() {
-        TestLogging.logWebStep(null, "click on " + toHTML(), false);
+        TestLogging.logWebStep(null, "click on " + toHTML(), getLabel(), false);
         super.click();
     }
 
@@ -47,7 +47,7 @@ public class CheckBoxElement extends HtmlElement {
     }
 
     public void uncheck() {
-        TestLogging.logWebStep(null, "uncheck " + toHTML(), false);
+        TestLogging.logWebStep(null, "uncheck " + toHTML(), getLabel(), false);
         if (isSelected()) {
             super.click();
         }
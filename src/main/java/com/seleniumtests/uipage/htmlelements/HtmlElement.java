@@ -41,6 +41,7 @@ import org.openqa.selenium.support.ui.WebDriverWait;
 import com.seleniumtests.core.SeleniumTestsContextManager;
 import com.seleniumtests.driver.BrowserType;
 import com.seleniumtests.driver.CustomEventFiringWebDriver;
+import com.seleniumtests.driver.DriverExceptionListener;
 import com.seleniumtests.driver.WebUIDriver;
 import com.seleniumtests.reporter.TestLogging;
 import com.seleniumtests.util.helper.WaitHelper;
@@ -129,7 +130,7 @@ public class HtmlElement {
      * @param  value
      */
     public void clickAt(final String value) {
-        TestLogging.logWebStep(null, "click on " + toHTML(), false);
+        TestLogging.logWebStep(null, "click on " + toHTML(), getLabel(), false);
         findElement();
 
         String[] parts = value.split(",");
@@ -610,18 +611,69 @@ public class HtmlElement {
      * @param  arg0
      */
     public void sendKeys(final CharSequence arg0) {
+        typeKeys(arg0, true);
+    }
+    
+    /**
+     * Sends the indicated CharSequence to the WebElement, after clearing it (except for file inputs).
+     * Not public so that it's not replayed, sub classes expose it (see {@link TextFieldElement#sendKeys(String, boolean)})
+     *
+     * @param  arg0
+     * @param  blurAfter	if true, input field loses focus after typing, as when user leaves it, so that 'change' and 'blur' events are fired
+     */
+    protected void sendKeys(final CharSequence arg0, final boolean blurAfter) {
+        typeKeys(arg0, blurAfter);
+    }
+    
+    /**
+     * Clear field and type keys. Not public so that it's not replayed again when called from public methods
+     * Field is blurred here, so the blur done by driver listener is disabled
+     */
+    protected void typeKeys(final CharSequence arg0, final boolean blurAfter) {
         findElement();
+        DriverExceptionListener.setBlurDoneByCaller(true);
+        try {
+        	typeKeysInElement(arg0, blurAfter);
+        } finally {
+        	DriverExceptionListener.setBlurDoneByCaller(false);
+        }
+    }
+    
+    private void typeKeysInElement(final CharSequence arg0, final boolean blurAfter) {
+        String tagName = null;
         
         // on mobile and some fields, this throws an exception which prevents going on
         try {
-        	String elType = element.getAttribute("type");
+        	String elType;
+        	if (SeleniumTestsContextManager.isWebTest()) {
+        		
+        		// get tag and type in one call: type tells if field can be cleared, tag if it must lose focus after typing
+        		List<?> metadata = (List<?>) ((JavascriptExecutor) driver).executeScript("return [arguments[0].tagName, arguments[0].type];", element);
+        		tagName = (String) metadata.get(0);
+        		elType = (String) metadata.get(1);
+        	} else {
+        		elType = element.getAttribute("type");
+        	}
 	        if (elType != null && !elType.equalsIgnoreCase("file")) {
 	        	element.clear();
 	        }
-        } catch (WebDriverException | NullPointerException e) {
+        } catch (WebDriverException | NullPointerException | ClassCastException e) {
         	element.clear();
         }
+        
+        // tag is unknown, driver listener blurs field if it's an input
+        if (tagName == null && blurAfter) {
+        	DriverExceptionListener.setBlurDoneByCaller(false);
+        }
         element.sendKeys(arg0);
+        
+        if (blurAfter && "input".equalsIgnoreCase(tagName)) {
+        	try {
+        		((JavascriptExecutor) driver).executeScript("arguments[0].blur();", element);
+        	} catch (WebDriverException e) { 
+        		logger.debug("Cannot blur element: " + e.getMessage());
+        	}
+        }
     }
 
     /**
@@ -710,9 +762,9 @@ public class HtmlElement {
      * which needs long time to present.
      */
     public void waitForPresent(final int timeout) {
-        TestLogging.logWebStep(null, "wait for " + this.toString() + " to present.", false);
+        TestLogging.logWebStep(null, "wait for " + this.toString() + " to present.", getLabel(), false);
 
-        WebDriverWait wait = new WebDriverWait(driver, timeout);
+        WebDriverWait wait = new WebDriverWait(driver, WaitHelper.boundTimeout(timeout));
         wait.until(ExpectedConditions.presenceOfElementLocated(by));
         
     }
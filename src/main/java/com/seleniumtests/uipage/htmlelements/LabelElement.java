@@ -30,7 +30,7 @@ public class LabelElement extends HtmlElement {
 
     @Override
     public String getText() {
-        TestLogging.logWebStep(null, "get text from " + toHTML(), false);
+        TestLogging.logWebStep(null, "get text from " + toHTML(), getLabel(), false);
         return super.getText();
     }
 
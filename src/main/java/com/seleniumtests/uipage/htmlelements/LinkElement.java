@@ -30,7 +30,7 @@ public class LinkElement extends HtmlElement {
 
     @Override
     public void click() {
-        TestLogging.logWebStep(null, "click on " + toHTML(), false);
+        TestLogging.logWebStep(null, "click on " + toHTML(), getLabel(), false);
         super.click();
     }
 
@@ -29,13 +29,13 @@ public class RadioButtonElement extends HtmlElement {
     }
 
     public void check() {
-        TestLogging.logWebStep(null, "check " + toHTML(), false);
+        TestLogging.logWebStep(null, "check " + toHTML(), getLabel(), false);
         super.click();
     }
 
     @Override
     public void click() {
-        TestLogging.logWebStep(null, "click on " + toHTML(), false);
+        TestLogging.logWebStep(null, "click on " + toHTML(), getLabel(), false);
         super.click();
     }
 
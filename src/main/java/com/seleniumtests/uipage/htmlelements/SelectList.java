@@ -53,7 +53,7 @@ public class SelectList extends HtmlElement {
      * De-selects all options in a multi-select list element.
      */
     public void deselectAll() {
-        TestLogging.logWebStep(null, "deselect all options on " + toHTML(), false);
+        TestLogging.logWebStep(null, "deselect all options on " + toHTML(), getLabel(), false);
         findElement();
         if (!isMultiple()) {
             throw new UnsupportedOperationException("You may only deselect all options of a multi-select");
@@ -65,7 +65,7 @@ public class SelectList extends HtmlElement {
     }
 
     public void deselectByIndex(final int index) {
-        TestLogging.logWebStep(null, "deselect index\"" + index + "\" on " + toHTML(), false);
+        TestLogging.logWebStep(null, "deselect index\"" + index + "\" on " + toHTML(), getLabel(), false);
         findElement();
 
         WebElement option = options.get(index);
@@ -73,7 +73,7 @@ public class SelectList extends HtmlElement {
     }
 
     public void deselectByText(final String text) {
-        TestLogging.logWebStep(null, "deselect text\"" + text + "\" on " + toHTML(), false);
+        TestLogging.logWebStep(null, "deselect text\"" + text + "\" on " + toHTML(), getLabel(), false);
         findElement();
         for (WebElement option : options) {
             if (option.getText().equals(text)) {
@@ -84,7 +84,7 @@ public class SelectList extends HtmlElement {
     }
 
     public void deselectByValue(final String value) {
-        TestLogging.logWebStep(null, "deselect value\"" + value + "\" on " + toHTML(), false);
+        TestLogging.logWebStep(null, "deselect value\"" + value + "\" on " + toHTML(), getLabel(), false);
         findElement();
         for (WebElement option : options) {
             if (option.getAttribute("value").equals(value)) {
@@ -190,7 +190,7 @@ public class SelectList extends HtmlElement {
     }
 
     public void selectByIndex(final int index) {
-        TestLogging.logWebStep(null, "make selection using index\"" + index + "\" on " + toHTML(), false);
+        TestLogging.logWebStep(null, "make selection using index\"" + index + "\" on " + toHTML(), getLabel(), false);
         findElement();
 
         WebElement option = options.get(index);
@@ -198,7 +198,7 @@ public class SelectList extends HtmlElement {
     }
 
     public void selectByIndex(final int[] indexs) {
-        TestLogging.logWebStep(null, "make selection using indexs\"" + Arrays.toString(indexs) + "\" on " + toHTML(), false);
+        TestLogging.logWebStep(null, "make selection using indexs\"" + Arrays.toString(indexs) + "\" on " + toHTML(), getLabel(), false);
         findElement();
         for (int i = 0; i < indexs.length; i++) {
             WebElement option = options.get(indexs[i]);
@@ -212,7 +212,7 @@ public class SelectList extends HtmlElement {
      * @param  text
      */
     public void selectByText(final String text) {
-        TestLogging.logWebStep(null, "make selection using text\"" + text + "\" on " + toHTML(), false);
+        TestLogging.logWebStep(null, "make selection using text\"" + text + "\" on " + toHTML(), getLabel(), false);
         findElement();
         if (options == null) {
             driver.findElement(By.xpath("//li[text()='" + text + "']")).click();
@@ -235,7 +235,7 @@ public class SelectList extends HtmlElement {
     }
 
     public void selectByText(final String[] texts) {
-        TestLogging.logWebStep(null, "make selection using texts\"" + texts + "\" on " + toHTML(), false);
+        TestLogging.logWebStep(null, "make selection using texts\"" + texts + "\" on " + toHTML(), getLabel(), false);
         findElement();
         for (int i = 0; i < texts.length; i++) {
             for (WebElement option : options) {
@@ -253,7 +253,7 @@ public class SelectList extends HtmlElement {
      * @param  text
      */
     public void selectByCorrespondingText(String text) {
-    	TestLogging.logWebStep(null, "make corresponding selection using texts\"" + text + "\" on " + toHTML(), false);
+    	TestLogging.logWebStep(null, "make corresponding selection using texts\"" + text + "\" on " + toHTML(), getLabel(), false);
         findElement();
     	 double score = 0;
     	 WebElement optionToSelect = null;
@@ -273,7 +273,7 @@ public class SelectList extends HtmlElement {
      * @param text
      */
     public void selectByCorrespondingText(String[] text) {
-    	TestLogging.logWebStep(null, "make corresponding selection using texts\"" + text + "\" on " + toHTML(), false);
+    	TestLogging.logWebStep(null, "make corresponding selection using texts\"" + text + "\" on " + toHTML(), getLabel(), false);
     	 findElement();
     	 for (int i = 0; i < text.length; i++) {
     		 double score = 0;
@@ -290,7 +290,7 @@ public class SelectList extends HtmlElement {
     }
 
     public void selectByValue(final String value) {
-        TestLogging.logWebStep(null, "make selection using value\"" + value + "\" on " + toHTML(), false);
+        TestLogging.logWebStep(null, "make selection using value\"" + value + "\" on " + toHTML(), getLabel(), false);
         findElement();
         for (WebElement option : options) {
             if (option.getAttribute("value").equals(value)) {
@@ -301,7 +301,7 @@ public class SelectList extends HtmlElement {
     }
 
     public void selectByValue(final String[] values) {
-        TestLogging.logWebStep(null, "make selection using values\"" + values + "\" on " + toHTML(), false);
+        TestLogging.logWebStep(null, "make selection using values\"" + values + "\" on " + toHTML(), getLabel(), false);
         findElement();
         for (int i = 0; i < values.length; i++) {
             for (WebElement option : options) {
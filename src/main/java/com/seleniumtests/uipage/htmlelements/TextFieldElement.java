@@ -31,7 +31,7 @@ public class TextFieldElement extends HtmlElement {
     }
 
     public void clear() {
-        TestLogging.logWebStep(null, "Remove data From " + toHTML(), false);
+        TestLogging.logWebStep(null, "Remove data From " + toHTML(), getLabel(), false);
         findElement();
         if (!element.getAttribute("type").equalsIgnoreCase("file")) {
             element.clear();
@@ -39,12 +39,22 @@ public class TextFieldElement extends HtmlElement {
     }
 
     public void sendKeys(final String keysToSend) {
-        TestLogging.logWebStep(null, "Enter data: \"" + keysToSend + "\" on " + toHTML(), false);
-        super.sendKeys(keysToSend);
+    	TestLogging.logWebStep(null, "Enter data: \"" + keysToSend + "\" on " + toHTML(), getLabel(), false);
+    	typeKeys(keysToSend, true);
+    }
+    
+    /**
+     * Type text in field
+     * @param keysToSend
+     * @param blurAfter		if true, field loses focus once text is typed
+     */
+    public void sendKeys(final String keysToSend, final boolean blurAfter) {
+    	TestLogging.logWebStep(null, "Enter data: \"" + keysToSend + "\" on " + toHTML(), getLabel(), false);
+    	typeKeys(keysToSend, blurAfter);
     }
     
     public void simulateSendKeys(final String keysToSend) {
-    	TestLogging.logWebStep(null, "Enter data: \"" + keysToSend + "\" on " + toHTML(), false);
+    	TestLogging.logWebStep(null, "Enter data: \"" + keysToSend + "\" on " + toHTML(), getLabel(), false);
     	super.simulateSendKeys(keysToSend);
     }
     
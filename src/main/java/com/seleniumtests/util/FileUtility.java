@@ -30,6 +30,12 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Enumeration;
 import java.util.jar.JarFile;
 import java.util.zip.ZipEntry;
@@ -151,6 +157,50 @@ public class FileUtility {
     public static void copyFile(final String srcPath, final String dstPath) throws IOException {
         copyFile(new File(srcPath), new File(dstPath));
     }
+    
+    /**
+     * Clone a directory tree cheaply. Files which are read-only in source cannot be modified through the clone
+     * so they are hard linked. Other files are copied so that source is never altered.
+     * When links are not supported (e.g: destination on an other file system), files are copied
+     * 
+     * @param srcPath	directory to clone
+     * @param dstPath	destination directory, created if it does not exist
+     * @throws IOException
+     */
+    public static void cloneDirectory(final File srcPath, final File dstPath) throws IOException {
+    	if (!srcPath.isDirectory()) {
+    		throw new IOException("Directory Not Found ::: " + srcPath);
+    	}
+    	
+    	final Path source = srcPath.toPath();
+    	final Path destination = dstPath.toPath();
+    	
+    	Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+    		private boolean linkSupported = true;
+    		
+    		@Override
+    		public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+    			Files.createDirectories(destination.resolve(source.relativize(dir)));
+    			return FileVisitResult.CONTINUE;
+    		}
+    		
+    		@Override
+    		public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+    			Path target = destination.resolve(source.relativize(file));
+    			if (linkSupported && !Files.isWritable(file)) {
+    				try {
+    					Files.createLink(target, file);
+    					return FileVisitResult.CONTINUE;
+    				} catch (UnsupportedOperationException | IOException e) {
+    					logger.debug("Cannot link " + file + ", copying files instead: " + e.getMessage());
+    					linkSupported = false;
+    				}
+    			}
+    			Files.copy(file, target, StandardCopyOption.COPY_ATTRIBUTES);
+    			return FileVisitResult.CONTINUE;
+    		}
+    	});
+    }
 
     /**
      * Deletes Directory with Files.
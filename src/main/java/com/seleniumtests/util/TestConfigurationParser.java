@@ -17,7 +17,12 @@ package com.seleniumtests.util;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
@@ -36,10 +41,22 @@ import org.xml.sax.SAXException;
  */
 public class TestConfigurationParser {
 	
+	// parsed files, by absolute path
+	private static final Map<String, TestConfigurationParser> parsers = new ConcurrentHashMap<String, TestConfigurationParser>();
+	
 	private Document doc;
+	private final long lastModified;
+	private final long length;
+	
+	// data extracted once from document, so that cached parser can be read from several threads
+	private final Map<String, String> parameters;
+	private final Map<String, Map<String, String>> serviceParameters;
+	private final String deviceNodesAsJson;
 	
 	public TestConfigurationParser(final String xmlFileName) {
 		File xmlFile = new File(xmlFileName);
+		lastModified = xmlFile.lastModified();
+		length = xmlFile.length();
         DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
         DocumentBuilder dBuilder;
 		try {
@@ -49,6 +66,72 @@ public class TestConfigurationParser {
 		} catch (ParserConfigurationException | SAXException | IOException e) {
 			doc = null;
 		}
+		
+		parameters = Collections.unmodifiableMap(readParameters(getParameterNodes()));
+		serviceParameters = Collections.unmodifiableMap(readServiceParameters());
+		deviceNodesAsJson = readDeviceNodesAsJson();
+	}
+	
+	/**
+	 * Returns the parser of this file. File is parsed only once and again when it changes
+	 * @param xmlFileName
+	 * @return
+	 */
+	public static TestConfigurationParser getInstance(final String xmlFileName) {
+		File xmlFile = new File(xmlFileName);
+		String key = xmlFile.getAbsolutePath();
+		TestConfigurationParser parser = parsers.get(key);
+		if (parser == null || parser.lastModified != xmlFile.lastModified() || parser.length != xmlFile.length()) {
+			parser = new TestConfigurationParser(xmlFileName);
+			parsers.put(key, parser);
+		}
+		return parser;
+	}
+	
+	private Map<String, String> readParameters(final List<Node> parameterNodes) {
+		Map<String, String> params = new LinkedHashMap<String, String>();
+		for (Node node: parameterNodes) {
+			params.put(node.getAttributes().getNamedItem("name").getNodeValue(),
+     		       	   node.getAttributes().getNamedItem("value").getNodeValue());
+		}
+		return params;
+	}
+	
+	private Map<String, Map<String, String>> readServiceParameters() {
+		Map<String, Map<String, String>> services = new HashMap<String, Map<String, String>>();
+		for (Node node: getServiceNodes()) {
+			String serviceName = node.getAttributes().getNamedItem("name").getNodeValue().toLowerCase();
+			Map<String, String> params = services.containsKey(serviceName) ? new LinkedHashMap<String, String>(services.get(serviceName)) 
+																			: new LinkedHashMap<String, String>();
+			List<Node> parameterNodes = new ArrayList<Node>();
+			NodeList nList = node.getChildNodes();
+    		for (int i = 0; i < nList.getLength(); i++ ) {
+    			if (nList.item(i).getNodeName().equals("parameter")) {
+    				parameterNodes.add(nList.item(i));
+    			}
+    		}
+    		params.putAll(readParameters(parameterNodes));
+			services.put(serviceName, Collections.unmodifiableMap(params));
+		}
+		return services;
+	}
+	
+	/**
+	 * Returns parameters defined at root of the file
+	 * @return	name / value of each parameter
+	 */
+	public Map<String, String> getParameters() {
+		return parameters;
+	}
+	
+	/**
+	 * Returns parameters defined for a service
+	 * @param serviceName	name of the service (case insensitive)
+	 * @return	name / value of each parameter, empty if service is not defined
+	 */
+	public Map<String, String> getServiceParameters(final String serviceName) {
+		Map<String, String> params = serviceParameters.get(serviceName.toLowerCase());
+		return params == null ? Collections.<String, String>emptyMap() : params;
 	}
 
     public List<Node> getParameterNodes() {
@@ -87,6 +170,10 @@ public class TestConfigurationParser {
      * @return
      */
     public String getDeviceNodesAsJson() {
+    	return deviceNodesAsJson;
+    }
+    
+    private String readDeviceNodesAsJson() {
     	JSONObject devices = new JSONObject();
     	for (Node node: getDeviceNodes()) {
     		devices.put(node.getAttributes().getNamedItem("name").getNodeValue(), node.getAttributes().getNamedItem("platform").getNodeValue());
@@ -14,6 +14,9 @@
 
 package com.seleniumtests.util.helper;
 
+import com.seleniumtests.core.SeleniumTestsContext;
+import com.seleniumtests.core.SeleniumTestsContextManager;
+
 public class WaitHelper {
 
     /**
@@ -32,4 +35,35 @@ public class WaitHelper {
     		Thread.sleep(ms);
     	} catch (InterruptedException ignore) { }
     }
+    
+    /**
+     * Bounds a timeout by the time left for the current test (see {@link SeleniumTestsContext#TEST_TIME_BUDGET})
+     *
+     * @param  seconds	timeout of the wait
+     * @return the timeout to use, in seconds
+     */
+    public static int boundTimeout(final int seconds) {
+    	return (int) Math.min(seconds, getRemainingTestTime() / 1000);
+    }
+    
+    /**
+     * Bounds a timeout by the time left for the current test (see {@link SeleniumTestsContext#TEST_TIME_BUDGET})
+     *
+     * @param  ms	timeout of the wait, in milliseconds
+     * @return the timeout to use, in milliseconds
+     */
+    public static long boundTimeoutMs(final long ms) {
+    	return Math.min(ms, getRemainingTestTime());
+    }
+    
+    /**
+     * @return true if test still has time to wait or retry
+     */
+    public static boolean hasRemainingTestTime() {
+    	return getRemainingTestTime() > 0;
+    }
+    
+    private static long getRemainingTestTime() {
+    	return SeleniumTestsContextManager.getThreadContext().getRemainingTestTime();
+    }
 }
@@ -20,6 +20,7 @@ import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.UnhandledAlertException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
 import org.openqa.selenium.firefox.MarionetteDriver;
 import org.testng.Assert;
 import org.testng.ITestContext;
@@ -220,6 +221,27 @@ public class TestDriver {
 		Assert.assertEquals(testPage.onBlurFieldDest.getValue(), "onBlur done");
 	}
 	
+	/**
+	 * Field keeps focus when caller asks for it
+	 */
+	@Test(groups={"it"})
+	public void testSendKeysWithoutBlur() {
+		testPage.onBlurField.sendKeys("onBlur init");
+		testPage.onBlurField.sendKeys("onBlur not done", false);
+		Assert.assertEquals(testPage.onBlurFieldDest.getValue(), "onBlur init");
+	}
+	
+	/**
+	 * Fields typed directly through the driver are blurred by the driver listener
+	 */
+	@Test(groups={"it"})
+	public void testOnBlurWithDriver() {
+		WebElement field = driver.findElement(By.id("textOnBlur"));
+		field.clear();
+		field.sendKeys("onBlur done by driver");
+		Assert.assertEquals(testPage.onBlurFieldDest.getValue(), "onBlur done by driver");
+	}
+	
 	@Test(groups={"it"})
 	public void testFindElements() {
 		// 2 éléments à trouver
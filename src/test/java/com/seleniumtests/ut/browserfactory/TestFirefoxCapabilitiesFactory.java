@@ -0,0 +1,52 @@
+/*
+ * Copyright 2016 www.infotel.com
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.seleniumtests.ut.browserfactory;
+
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.seleniumtests.browserfactory.FirefoxCapabilitiesFactory;
+import com.seleniumtests.driver.DriverConfig;
+import com.seleniumtests.driver.DriverMode;
+
+public class TestFirefoxCapabilitiesFactory {
+
+	private static class HeadlessFactory extends FirefoxCapabilitiesFactory {
+		public DesiredCapabilities headlessCapabilities(final DriverConfig config) {
+			DesiredCapabilities capability = new DesiredCapabilities();
+			configHeadless(capability, config);
+			return capability;
+		}
+	}
+
+	/**
+	 * Firefox binary of this computer must not be sent to grid nodes
+	 */
+	@SuppressWarnings("unchecked")
+	@Test(groups={"ut"})
+	public void testRemoteHeadlessOnlySendsArgument() {
+		DriverConfig config = new DriverConfig();
+		config.setMode(DriverMode.ExistingGrid);
+		DesiredCapabilities capability = new HeadlessFactory().headlessCapabilities(config);
+
+		Assert.assertNull(capability.getCapability(FirefoxDriver.BINARY));
+		Map<String, Object> firefoxOptions = (Map<String, Object>) capability.getCapability("moz:firefoxOptions");
+		Assert.assertTrue(((List<String>) firefoxOptions.get("args")).contains("-headless"));
+	}
+}
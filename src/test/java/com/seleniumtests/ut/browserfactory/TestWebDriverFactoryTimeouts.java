@@ -0,0 +1,98 @@
+/*
+ * Copyright 2016 www.infotel.com
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.seleniumtests.ut.browserfactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.Response;
+import org.openqa.selenium.remote.SessionId;
+import org.testng.Assert;
+import org.testng.ITestContext;
+import org.testng.annotations.Test;
+
+import com.seleniumtests.browserfactory.AbstractWebDriverFactory;
+import com.seleniumtests.core.SeleniumTestsContextManager;
+import com.seleniumtests.driver.DriverConfig;
+
+public class TestWebDriverFactoryTimeouts {
+	
+	/**
+	 * Factory whose driver only records the commands it receives
+	 */
+	private static class RecordingDriverFactory extends AbstractWebDriverFactory {
+		
+		private final List<String> commands = new ArrayList<>();
+
+		public RecordingDriverFactory(final DriverConfig cfg) {
+			super(cfg);
+		}
+
+		@Override
+		protected WebDriver createNativeDriver() {
+			return new RemoteWebDriver(command -> {
+				commands.add(command.getName());
+				Response response = new Response(new SessionId("1"));
+				if (DriverCommand.NEW_SESSION.equals(command.getName())) {
+					response.setValue(new HashMap<String, Object>());
+				}
+				return response;
+			}, DesiredCapabilities.htmlUnit());
+		}
+	}
+	
+	/**
+	 * Starting a test with a driver created before sends no command when timeouts did not change, and restores
+	 * them once a test with a time budget has bounded them
+	 */
+	@Test(groups={"ut"})
+	public void testUnchangedTimeoutsNotSent(final ITestContext testNGCtx) throws Exception {
+		SeleniumTestsContextManager.initThreadContext(testNGCtx);
+		SeleniumTestsContextManager.getThreadContext().setTestTimeBudget(null);
+		
+		DriverConfig config = new DriverConfig();
+		config.setImplicitWaitTimeout(5);
+		config.setPageLoadTimeout(90);
+		RecordingDriverFactory factory = new RecordingDriverFactory(config);
+		factory.createWebDriver();
+		Assert.assertTrue(factory.commands.contains(DriverCommand.SET_TIMEOUT));
+		
+		// test without time budget
+		factory.commands.clear();
+		Assert.assertFalse(factory.updateTimeouts(config));
+		Assert.assertTrue(factory.commands.isEmpty());
+		
+		try {
+			// test with less time left than the implicit wait
+			SeleniumTestsContextManager.getThreadContext().setTestTimeBudget(2);
+			Assert.assertTrue(factory.updateTimeouts(config));
+			Assert.assertTrue(factory.commands.contains(DriverCommand.SET_TIMEOUT));
+		} finally {
+			SeleniumTestsContextManager.getThreadContext().setTestTimeBudget(null);
+		}
+		
+		// next test without budget gets the configured timeouts back, only once
+		factory.commands.clear();
+		Assert.assertTrue(factory.updateTimeouts(config));
+		Assert.assertFalse(factory.commands.isEmpty());
+		factory.commands.clear();
+		Assert.assertFalse(factory.updateTimeouts(config));
+		Assert.assertTrue(factory.commands.isEmpty());
+	}
+}
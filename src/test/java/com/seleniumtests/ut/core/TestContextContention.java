@@ -0,0 +1,99 @@
+/*
+ * Copyright 2016 www.infotel.com
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.seleniumtests.ut.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.testng.Assert;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+import org.testng.annotations.Test;
+import org.testng.internal.TestResult;
+
+import com.seleniumtests.core.SeleniumTestsContext;
+import com.seleniumtests.core.SeleniumTestsContextManager;
+import com.seleniumtests.reporter.StepEvent;
+import com.seleniumtests.reporter.StepEventWriter;
+import com.seleniumtests.reporter.TestLogging;
+
+/**
+ * Contention benchmark of context and step logging: each thread reads its context and its attributes, and logs steps of its own test
+ */
+public class TestContextContention {
+
+	private static final int OPERATIONS_PER_THREAD = 20000;
+	private static final int OPERATIONS_PER_STEP = 100;
+
+	@Test(groups={"ut"})
+	public void testRegistriesContention(final ITestContext testNGCtx) throws Exception {
+		SeleniumTestsContextManager.initThreadContext(testNGCtx);
+		final SeleniumTestsContext sharedContext = SeleniumTestsContextManager.getThreadContext();
+		final ITestResult currentResult = Reporter.getCurrentTestResult();
+
+		for (int threads: new int[] {1, 4, 16, 64}) {
+			ExecutorService executor = Executors.newFixedThreadPool(threads);
+			try {
+				List<Callable<Boolean>> tasks = new ArrayList<Callable<Boolean>>();
+				List<ITestResult> threadResults = new ArrayList<ITestResult>();
+				for (int i = 0; i < threads; i++) {
+					final String threadValue = "value" + i;
+					final ITestResult threadResult = new TestResult(currentResult.getTestClass(), currentResult.getInstance(), 
+													currentResult.getMethod(), null, 0, 0, testNGCtx);
+					threadResults.add(threadResult);
+					tasks.add(() -> {
+						Reporter.setCurrentTestResult(threadResult);
+						SeleniumTestsContextManager.setThreadContext(new SeleniumTestsContext(sharedContext));
+						SeleniumTestsContextManager.getThreadContext().setAttribute("threadValue", threadValue);
+						boolean consistent = true;
+						for (int op = 0; op < OPERATIONS_PER_THREAD; op++) {
+							SeleniumTestsContext context = SeleniumTestsContextManager.getThreadContext();
+							consistent &= threadValue.equals(context.getAttribute("threadValue"));
+							consistent &= context.getAttribute(SeleniumTestsContext.BROWSER) != null;
+							if (op % OPERATIONS_PER_STEP == 0) {
+								TestLogging.logWebStep(null, threadValue + " step " + op, false);
+							}
+						}
+						Reporter.setCurrentTestResult(null);
+						return consistent;
+					});
+				}
+
+				long start = System.nanoTime();
+				for (Future<Boolean> result: executor.invokeAll(tasks)) {
+					Assert.assertTrue(result.get(), "a thread read an other thread value");
+				}
+				long duration = System.nanoTime() - start;
+				TestLogging.getLogger(TestContextContention.class).info(String.format("%d threads: %d ns per operation",
+						threads, duration / ((long) threads * OPERATIONS_PER_THREAD)));
+				
+				// each test only got its own steps, in order
+				for (int i = 0; i < threads; i++) {
+					List<StepEvent> events = StepEventWriter.getInstance().readEvents(threadResults.get(i));
+					Assert.assertEquals(events.size(), OPERATIONS_PER_THREAD / OPERATIONS_PER_STEP);
+					for (int step = 0; step < events.size(); step++) {
+						Assert.assertEquals(events.get(step).getMessage(), String.format("value%d step %d", i, step * OPERATIONS_PER_STEP));
+					}
+				}
+			} finally {
+				executor.shutdown();
+			}
+		}
+	}
+}
@@ -24,6 +24,7 @@ import org.testng.xml.XmlTest;
 import com.seleniumtests.core.SeleniumTestsContext;
 import com.seleniumtests.core.SeleniumTestsContextManager;
 import com.seleniumtests.customexception.ConfigurationException;
+import com.seleniumtests.util.helper.WaitHelper;
 
 /**
  * Test parsing of test options into SeleniumTestContext
@@ -348,6 +349,60 @@ public class TestSeleniumTestContext {
 		Assert.assertEquals(SeleniumTestsContextManager.getThreadContext().getJavascriptEnabled(), (Boolean)true);
 	}
 	
+	@Test(groups="ut context")
+	public void testBrowserCommandTimeout(final ITestContext testNGCtx, final XmlTest xmlTest) {
+		SeleniumTestsContextManager.initThreadContext(testNGCtx, xmlTest);
+		SeleniumTestsContextManager.getThreadContext().setBrowserCommandTimeout(60);
+		Assert.assertEquals(SeleniumTestsContextManager.getThreadContext().getBrowserCommandTimeout(), 60);
+	}
+	@Test(groups="ut context")
+	public void testBrowserCommandTimeoutNull(final ITestContext testNGCtx, final XmlTest xmlTest) {
+		SeleniumTestsContextManager.initThreadContext(testNGCtx, xmlTest);
+		SeleniumTestsContextManager.getThreadContext().setBrowserCommandTimeout(null);
+		Assert.assertEquals(SeleniumTestsContextManager.getThreadContext().getBrowserCommandTimeout(), 180);
+	}
+	
+	@Test(groups="ut context")
+	public void testTestTimeBudget(final ITestContext testNGCtx, final XmlTest xmlTest) {
+		SeleniumTestsContextManager.initThreadContext(testNGCtx, xmlTest);
+		SeleniumTestsContextManager.getThreadContext().setTestTimeBudget(60);
+		Assert.assertEquals(SeleniumTestsContextManager.getThreadContext().getTestTimeBudget(), 60);
+		Assert.assertTrue(SeleniumTestsContextManager.getThreadContext().getRemainingTestTime() <= 60000);
+		Assert.assertTrue(SeleniumTestsContextManager.getThreadContext().getRemainingTestTime() > 55000);
+		
+		// waits are bounded by remaining time
+		Assert.assertTrue(WaitHelper.boundTimeout(300) <= 60);
+		Assert.assertEquals(WaitHelper.boundTimeout(30), 30);
+	}
+	@Test(groups="ut context")
+	public void testTestTimeBudgetNull(final ITestContext testNGCtx, final XmlTest xmlTest) {
+		SeleniumTestsContextManager.initThreadContext(testNGCtx, xmlTest);
+		SeleniumTestsContextManager.getThreadContext().setTestTimeBudget(null);
+		Assert.assertEquals(SeleniumTestsContextManager.getThreadContext().getTestTimeBudget(), 0);
+		Assert.assertEquals(SeleniumTestsContextManager.getThreadContext().getRemainingTestTime(), Long.MAX_VALUE);
+		Assert.assertEquals(WaitHelper.boundTimeout(300), 300);
+	}
+	
+	@Test(groups="ut context")
+	public void testChromeProfileTemplatePath(final ITestContext testNGCtx, final XmlTest xmlTest) {
+		SeleniumTestsContextManager.initThreadContext(testNGCtx, xmlTest);
+		SeleniumTestsContextManager.getThreadContext().setChromeProfileTemplatePath("/home/test/chromeProfile");
+		Assert.assertEquals(SeleniumTestsContextManager.getThreadContext().getChromeProfileTemplatePath(), "/home/test/chromeProfile");
+	}
+	
+	@Test(groups="ut context")
+	public void testHeadlessBrowser(final ITestContext testNGCtx, final XmlTest xmlTest) {
+		SeleniumTestsContextManager.initThreadContext(testNGCtx, xmlTest);
+		SeleniumTestsContextManager.getThreadContext().setHeadlessBrowser(true);
+		Assert.assertEquals(SeleniumTestsContextManager.getThreadContext().isHeadlessBrowser(), (Boolean)true);
+	}
+	@Test(groups="ut context")
+	public void testHeadlessBrowserNull(final ITestContext testNGCtx, final XmlTest xmlTest) {
+		SeleniumTestsContextManager.initThreadContext(testNGCtx, xmlTest);
+		SeleniumTestsContextManager.getThreadContext().setHeadlessBrowser(null);
+		Assert.assertEquals(SeleniumTestsContextManager.getThreadContext().isHeadlessBrowser(), (Boolean)false);
+	}
+	
 	@Test(groups="ut context")
 	public void testJsErrorCollectorExtension(final ITestContext testNGCtx, final XmlTest xmlTest) {
 		SeleniumTestsContextManager.initThreadContext(testNGCtx, xmlTest);
@@ -13,12 +13,15 @@
 
 package com.seleniumtests.ut.core;
 
+import java.lang.management.ManagementFactory;
+
 import org.testng.Assert;
 import org.testng.ITestContext;
 import org.testng.annotations.Test;
 
 import com.seleniumtests.core.SeleniumTestsContext;
 import com.seleniumtests.core.SeleniumTestsContextManager;
+import com.seleniumtests.reporter.TestLogging;
 
 public class TestSeleniumTestContextManager {
 
@@ -70,6 +73,140 @@ public class TestSeleniumTestContextManager {
 		Assert.assertEquals(SeleniumTestsContextManager.getThreadContext().getMobilePlatformVersion(), "4.3");
 	}
 	
+	/**
+	 * Each method gets its own context, but parameters are resolved only once
+	 * @param iTestContext
+	 */
+	@Test(groups={"ut"})
+	public void threadContextIsCreatedFromResolvedContext(ITestContext iTestContext) {
+		SeleniumTestsContextManager.initThreadContext(iTestContext);
+		SeleniumTestsContext firstContext = SeleniumTestsContextManager.getThreadContext();
+		firstContext.setAttribute(SeleniumTestsContext.BROWSER, "opera");
+		
+		SeleniumTestsContextManager.initThreadContext(iTestContext);
+		SeleniumTestsContext secondContext = SeleniumTestsContextManager.getThreadContext();
+		Assert.assertNotSame(secondContext, firstContext);
+		Assert.assertEquals(firstContext.getAttribute(SeleniumTestsContext.BROWSER), "opera");
+		Assert.assertEquals(secondContext.getAttribute(SeleniumTestsContext.BROWSER), "chrome");
+		Assert.assertEquals(secondContext.getPlatform(), "Android");
+	}
+	
+	/**
+	 * Changing a system property used by context makes it resolved again
+	 * @param iTestContext
+	 */
+	@Test(groups={"ut"})
+	public void resolvedContextUpdatedWithProperties(ITestContext iTestContext) {
+		try {
+			SeleniumTestsContextManager.initThreadContext(iTestContext);
+			Assert.assertEquals(SeleniumTestsContextManager.getThreadContext().getDPTagsInclude(), null);
+			
+			System.setProperty(SeleniumTestsContext.DP_TAGS_INCLUDE, "aTag");
+			SeleniumTestsContextManager.initThreadContext(iTestContext);
+			Assert.assertEquals(SeleniumTestsContextManager.getThreadContext().getDPTagsInclude(), "aTag");
+		} finally {
+			System.clearProperty(SeleniumTestsContext.DP_TAGS_INCLUDE);
+		}
+	}
+	
+	/**
+	 * Benchmark: creating the context of a method from the resolved one vs resolving all parameters again
+	 * @param iTestContext
+	 */
+	@Test(groups={"ut"})
+	public void threadContextCreationTime(ITestContext iTestContext) {
+		int iterations = 200;
+		iTestContext = SeleniumTestsContextManager.getContextFromConfigFile(iTestContext);
+		SeleniumTestsContext resolvedContext = new SeleniumTestsContext(iTestContext);
+		com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		
+		long start = System.nanoTime();
+		long allocated = threadBean.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < iterations; i++) {
+			new SeleniumTestsContext(iTestContext);
+		}
+		long resolutionTime = (System.nanoTime() - start) / iterations;
+		long resolutionAllocation = (threadBean.getThreadAllocatedBytes(threadId) - allocated) / iterations;
+		
+		start = System.nanoTime();
+		allocated = threadBean.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < iterations; i++) {
+			new SeleniumTestsContext(resolvedContext);
+		}
+		long copyTime = (System.nanoTime() - start) / iterations;
+		long copyAllocation = (threadBean.getThreadAllocatedBytes(threadId) - allocated) / iterations;
+		
+		TestLogging.getLogger(TestSeleniumTestContextManager.class).info(String.format("context resolution: %d us, %d bytes / context from resolved one: %d us, %d bytes", 
+				resolutionTime / 1000, resolutionAllocation, copyTime / 1000, copyAllocation));
+		Assert.assertTrue(copyTime < resolutionTime);
+		Assert.assertTrue(copyAllocation < resolutionAllocation);
+	}
+	
+	/**
+	 * Known parameters set from strings (e.g: test level parameters) are stored with their type
+	 * @param iTestContext
+	 */
+	@Test(groups={"ut"})
+	public void knownParameterIsTyped(ITestContext iTestContext) {
+		SeleniumTestsContextManager.initThreadContext(iTestContext);
+		SeleniumTestsContext context = SeleniumTestsContextManager.getThreadContext();
+		context.setAttribute(SeleniumTestsContext.EXPLICIT_WAIT_TIME_OUT, "25");
+		context.setAttribute(SeleniumTestsContext.HEADLESS_BROWSER, "true");
+		context.setAttribute("aCustomParam", "25");
+		
+		Assert.assertEquals(context.getExplicitWaitTimeout(), 25);
+		Assert.assertTrue(context.isHeadlessBrowser());
+		Assert.assertEquals(context.getAttribute(SeleniumTestsContext.EXPLICIT_WAIT_TIME_OUT), 25);
+		Assert.assertEquals(context.getAttribute("aCustomParam"), "25");
+	}
 	
+	/**
+	 * Boolean parameters set from strings are parsed as test parameters are: only "true", ignoring case, is true
+	 * @param iTestContext
+	 */
+	@Test(groups={"ut"})
+	public void booleanParameterParsing(ITestContext iTestContext) {
+		SeleniumTestsContextManager.initThreadContext(iTestContext);
+		SeleniumTestsContext context = SeleniumTestsContextManager.getThreadContext();
+		
+		context.setAttribute(SeleniumTestsContext.HEADLESS_BROWSER, "TRUE");
+		Assert.assertTrue(context.isHeadlessBrowser());
+		context.setAttribute(SeleniumTestsContext.HEADLESS_BROWSER, " true");
+		Assert.assertFalse(context.isHeadlessBrowser());
+		context.setAttribute(SeleniumTestsContext.HEADLESS_BROWSER, "yes");
+		Assert.assertFalse(context.isHeadlessBrowser());
+		context.setAttribute(SeleniumTestsContext.HEADLESS_BROWSER, "");
+		Assert.assertFalse(context.isHeadlessBrowser());
+	}
 	
+	/**
+	 * Getters used on hot paths (element search, screenshots) read values set through setters or attributes, 
+	 * and values copied from the resolved context
+	 * @param iTestContext
+	 */
+	@Test(groups={"ut"})
+	public void contextGettersReadKnownParameters(ITestContext iTestContext) {
+		SeleniumTestsContextManager.initThreadContext(iTestContext);
+		SeleniumTestsContext context = SeleniumTestsContextManager.getThreadContext();
+		context.setExplicitWaitTimeout(12);
+		context.setAttribute(SeleniumTestsContext.CAPTURE_SNAPSHOT, "false");
+		context.setBrowser("chrome");
+		context.setAttribute("aCustomParam", 10);
+		
+		Assert.assertEquals(context.getExplicitWaitTimeout(), 12);
+		Assert.assertFalse(context.getCaptureSnapshot());
+		Assert.assertEquals(context.getBrowser(), "chrome");
+		Assert.assertEquals(context.getAttribute(SeleniumTestsContext.BROWSER), "chrome");
+		Assert.assertEquals(context.getAttribute("aCustomParam"), 10);
+		
+		// copy has the same values, and changing it does not change the original
+		SeleniumTestsContext copy = new SeleniumTestsContext(context);
+		Assert.assertEquals(copy.getExplicitWaitTimeout(), 12);
+		Assert.assertFalse(copy.getCaptureSnapshot());
+		Assert.assertEquals(copy.getAttribute("aCustomParam"), 10);
+		copy.setExplicitWaitTimeout(30);
+		Assert.assertEquals(copy.getExplicitWaitTimeout(), 30);
+		Assert.assertEquals(context.getExplicitWaitTimeout(), 12);
+	}
 }
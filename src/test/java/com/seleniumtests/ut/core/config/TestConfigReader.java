@@ -13,7 +13,13 @@
 
 package com.seleniumtests.ut.core.config;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
 
 import org.testng.Assert;
 import org.testng.ITestContext;
@@ -24,6 +30,7 @@ import com.seleniumtests.GenericTest;
 import com.seleniumtests.core.SeleniumTestsContext;
 import com.seleniumtests.core.SeleniumTestsContextManager;
 import com.seleniumtests.core.config.ConfigReader;
+import com.seleniumtests.core.config.LayeredConfiguration;
 
 public class TestConfigReader extends GenericTest {
 
@@ -46,4 +53,75 @@ public class TestConfigReader extends GenericTest {
 
 		Assert.assertEquals(seleniumTestsCtx.getConfiguration().get("variable1"), "value1", "Value has not been get from xml file");
 	}
+	
+	/**
+	 * Configuration is read once per environment and read again when file changes
+	 * @throws IOException 
+	 */
+	@Test(groups={"ut"})
+	public void readCachedConfiguration() throws IOException {
+		File iniFile = Files.createTempFile("config", ".ini").toFile();
+		try {
+			FileUtils.write(iniFile, "[General]\nkey1=value1\n[Dev]\nkey1=value2\n");
+			Map<String, String> config = new ConfigReader().readConfig(iniFile, "Dev");
+			Assert.assertEquals(config.get("key1"), "value2");
+			Assert.assertSame(new ConfigReader().readConfig(iniFile, "Dev"), config);
+			Assert.assertEquals(new ConfigReader().readConfig(iniFile, "VNR").get("key1"), "value1");
+			
+			FileUtils.write(iniFile, "[General]\nkey1=value1\n[Dev]\nkey1=value33\n");
+			Assert.assertEquals(new ConfigReader().readConfig(iniFile, "Dev").get("key1"), "value33");
+		} finally {
+			iniFile.delete();
+		}
+	}
+	
+	@Test(groups={"ut"}, expectedExceptions=IOException.class)
+	public void readMissingConfiguration() throws IOException {
+		new ConfigReader().readConfig(new File("/notExisting/config.ini"), "Dev");
+	}
+	
+	/**
+	 * Test variables override shared configuration, which is never modified
+	 */
+	@Test(groups={"ut"})
+	public void layeredConfiguration() {
+		Map<String, String> baseConfig = new HashMap<String, String>();
+		baseConfig.put("key1", "value1");
+		baseConfig.put("key2", "value2");
+		Map<String, String> testVariables = new HashMap<String, String>();
+		testVariables.put("key2", "value3");
+		
+		Map<String, String> config = new LayeredConfiguration(baseConfig, testVariables);
+		config.put("key4", "value4");
+		Assert.assertEquals(config.get("key1"), "value1");
+		Assert.assertEquals(config.get("key2"), "value3");
+		Assert.assertEquals(config.get("key4"), "value4");
+		Assert.assertEquals(config.size(), 3);
+		Assert.assertFalse(baseConfig.containsKey("key4"));
+	}
+	
+	/**
+	 * Removing a shared key only hides it for the current test
+	 */
+	@Test(groups={"ut"})
+	public void removeFromLayeredConfiguration() {
+		Map<String, String> baseConfig = new HashMap<String, String>();
+		baseConfig.put("key1", "value1");
+		baseConfig.put("key2", "value2");
+		Map<String, String> testVariables = new HashMap<String, String>();
+		testVariables.put("key2", "value3");
+		
+		Map<String, String> config = new LayeredConfiguration(baseConfig, testVariables);
+		Assert.assertEquals(config.remove("key1"), "value1");
+		Assert.assertEquals(config.remove("key2"), "value3");
+		Assert.assertNull(config.get("key1"));
+		Assert.assertFalse(config.containsKey("key2"));
+		Assert.assertTrue(config.isEmpty());
+		Assert.assertEquals(baseConfig.get("key1"), "value1");
+		
+		config.put("key1", "value5");
+		Assert.assertEquals(config.get("key1"), "value5");
+		Assert.assertEquals(config.size(), 1);
+		Assert.assertEquals(new LayeredConfiguration(baseConfig, testVariables).get("key1"), "value1");
+	}
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2016 www.infotel.com
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.seleniumtests.ut.driver;
+
+import java.io.IOException;
+
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.Response;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.seleniumtests.customexception.BrowserHangException;
+import com.seleniumtests.driver.BrowserWatchdog;
+import com.seleniumtests.driver.stats.InstrumentedCommandExecutor;
+
+public class TestBrowserWatchdog {
+
+	private static final long MAX_DURATION = 200;
+
+	private HtmlUnitDriver driver;
+	private BrowserWatchdog watchdog;
+
+	@BeforeMethod(groups={"ut"})
+	public void init() {
+		driver = new HtmlUnitDriver();
+		watchdog = new BrowserWatchdog(driver, MAX_DURATION);
+		watchdog.start();
+	}
+
+	@AfterMethod(groups={"ut"}, alwaysRun=true)
+	public void clean() {
+		watchdog.stop();
+		driver.quit();
+	}
+
+	/**
+	 * Executor whose commands last the given time, or until browser is killed, as when its connection is closed. Quit is immediate
+	 */
+	private InstrumentedCommandExecutor executor(final long commandDuration) {
+		InstrumentedCommandExecutor executor = new InstrumentedCommandExecutor(command -> {
+			if (DriverCommand.QUIT.equals(command.getName())) {
+				return new Response();
+			}
+			long end = System.currentTimeMillis() + commandDuration;
+			while (System.currentTimeMillis() < end) {
+				if (watchdog.isBrowserDead()) {
+					throw new IOException("Connection reset");
+				}
+				try {
+					Thread.sleep(10);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			return new Response();
+		}, "local");
+		executor.setWatchdog(watchdog);
+		return executor;
+	}
+
+	/**
+	 * Any command which does not terminate in time makes the browser declared dead, not only those firing driver events
+	 */
+	@Test(groups={"ut"}, expectedExceptions=BrowserHangException.class)
+	public void testFrozenCommand() throws IOException {
+		try {
+			executor(MAX_DURATION * 20).execute(new Command(null, DriverCommand.GET_PAGE_SOURCE));
+		} finally {
+			Assert.assertTrue(watchdog.isBrowserDead());
+		}
+	}
+
+	@Test(groups={"ut"})
+	public void testCommandInTime() throws IOException {
+		InstrumentedCommandExecutor executor = executor(MAX_DURATION / 4);
+		executor.execute(new Command(null, DriverCommand.GET_ELEMENT_TEXT));
+		executor.execute(new Command(null, DriverCommand.IS_ELEMENT_DISPLAYED));
+		Assert.assertFalse(watchdog.isBrowserDead());
+	}
+
+	/**
+	 * Once browser is dead, commands must fail immediately, except quit
+	 */
+	@Test(groups={"ut"})
+	public void testCommandAfterHang() throws IOException {
+		InstrumentedCommandExecutor executor = executor(MAX_DURATION * 20);
+		try {
+			executor.execute(new Command(null, DriverCommand.SCREENSHOT));
+			Assert.fail("frozen command should fail");
+		} catch (BrowserHangException e) {
+			// expected
+		}
+
+		try {
+			executor.execute(new Command(null, DriverCommand.GET_WINDOW_HANDLES));
+			Assert.fail("command on dead browser should fail");
+		} catch (BrowserHangException e) {
+			Assert.assertTrue(e.getMessage().contains(DriverCommand.SCREENSHOT));
+		}
+
+		executor.execute(new Command(null, DriverCommand.QUIT));
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2016 www.infotel.com
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.seleniumtests.ut.driver;
+
+import org.json.JSONObject;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.seleniumtests.driver.stats.CommandStatistics;
+import com.seleniumtests.driver.stats.LatencyHistogram;
+
+public class TestCommandStatistics {
+
+	@Test(groups={"ut"})
+	public void testEmptyHistogram() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		Assert.assertEquals(histogram.getTotalCount(), 0);
+		Assert.assertEquals(histogram.getValueAtPercentile(99), 0);
+		Assert.assertEquals(histogram.getMin(), 0);
+	}
+	
+	/**
+	 * Percentiles must be exact for small values and within 12.5% for big ones
+	 */
+	@Test(groups={"ut"})
+	public void testPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 1; i <= 100; i++) {
+			histogram.record(i * 1000);
+		}
+		Assert.assertEquals(histogram.getTotalCount(), 100);
+		Assert.assertEquals(histogram.getMin(), 1000);
+		Assert.assertEquals(histogram.getMax(), 100000);
+		Assert.assertEquals(histogram.getMean(), 50500.0);
+		
+		long p50 = histogram.getValueAtPercentile(50);
+		Assert.assertTrue(p50 >= 50000 && p50 <= 50000 * 1.125, "p50 is " + p50);
+		long p99 = histogram.getValueAtPercentile(99);
+		Assert.assertTrue(p99 >= 99000 && p99 <= 100000, "p99 is " + p99);
+		Assert.assertEquals(histogram.getValueAtPercentile(100), 100000);
+	}
+	
+	@Test(groups={"ut"})
+	public void testSmallValues() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(3);
+		histogram.record(5);
+		Assert.assertEquals(histogram.getValueAtPercentile(50), 3);
+		Assert.assertEquals(histogram.getValueAtPercentile(100), 5);
+	}
+	
+	@Test(groups={"ut"})
+	public void testAddHistogram() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(10);
+		LatencyHistogram other = new LatencyHistogram();
+		other.record(20000);
+		histogram.add(other);
+		Assert.assertEquals(histogram.getTotalCount(), 2);
+		Assert.assertEquals(histogram.getMax(), 20000);
+		Assert.assertEquals(histogram.getMin(), 10);
+	}
+	
+	@Test(groups={"ut"})
+	public void testCommandCount() {
+		CommandStatistics statistics = new CommandStatistics();
+		statistics.record("findElement", 1500);
+		statistics.record("findElement", 2500);
+		statistics.record("clickElement", 10000);
+		
+		Assert.assertEquals(statistics.getCommandCount(), 3);
+		Assert.assertEquals(statistics.getHistograms().keySet().toString(), "[clickElement, findElement]");
+		
+		JSONObject json = statistics.toJson();
+		Assert.assertEquals(json.getLong("commandCount"), 3);
+		Assert.assertEquals(json.getJSONObject("commands").getJSONObject("findElement").getLong("count"), 2);
+		Assert.assertEquals(json.getJSONObject("commands").getJSONObject("clickElement").getDouble("max"), 10.0);
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2016 www.infotel.com
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.seleniumtests.ut.driver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.remote.CapabilityType;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.Response;
+import org.openqa.selenium.remote.SessionId;
+import org.openqa.selenium.support.events.WebDriverEventListener;
+import org.testng.Assert;
+import org.testng.ITestContext;
+import org.testng.annotations.Test;
+
+import com.seleniumtests.core.SeleniumTestsContextManager;
+import com.seleniumtests.driver.CustomEventFiringWebDriver;
+import com.seleniumtests.driver.DriverExceptionListener;
+import com.seleniumtests.driver.MulticastEventListener;
+
+public class TestDriverExceptionListener {
+
+	/**
+	 * A click only sends the click command to browser, window handles are not read
+	 */
+	@Test(groups={"ut"})
+	public void testClickSendsOneCommand(final ITestContext testNGCtx) {
+		SeleniumTestsContextManager.initThreadContext(testNGCtx);
+		
+		List<String> commands = new ArrayList<>();
+		RemoteWebDriver remoteDriver = new RemoteWebDriver(command -> {
+			commands.add(command.getName());
+			Response response = new Response(new SessionId("1"));
+			if (DriverCommand.NEW_SESSION.equals(command.getName())) {
+				Map<String, Object> capabilities = new HashMap<>();
+				capabilities.put(CapabilityType.SUPPORTS_JAVASCRIPT, true);
+				response.setValue(capabilities);
+			} else if (DriverCommand.FIND_ELEMENT.equals(command.getName())) {
+				Map<String, Object> element = new HashMap<>();
+				element.put("ELEMENT", "1");
+				element.put("element-6066-11e4-a52e-4f735466cecf", "1");
+				response.setValue(element);
+			}
+			return response;
+		}, DesiredCapabilities.htmlUnit());
+		WebDriver driver = new CustomEventFiringWebDriver(remoteDriver)
+					.register(new MulticastEventListener(Arrays.asList((WebDriverEventListener)new DriverExceptionListener())));
+		
+		WebElement element = driver.findElement(By.id("button"));
+		commands.clear();
+		for (int i = 0; i < 3; i++) {
+			element.click();
+		}
+		Assert.assertEquals(commands, Arrays.asList(DriverCommand.CLICK_ELEMENT, DriverCommand.CLICK_ELEMENT, DriverCommand.CLICK_ELEMENT));
+	}
+}
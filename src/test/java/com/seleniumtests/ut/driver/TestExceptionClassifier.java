@@ -0,0 +1,122 @@
+/*
+ * Copyright 2016 www.infotel.com
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.seleniumtests.ut.driver;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.seleniumtests.customexception.ConfigurationException;
+import com.seleniumtests.driver.ExceptionClassifier;
+import com.seleniumtests.driver.ExceptionClassifier.Action;
+import com.seleniumtests.reporter.TestLogging;
+
+public class TestExceptionClassifier {
+
+	@Test(groups={"ut"})
+	public void testDefaultRules() {
+		ExceptionClassifier classifier = ExceptionClassifier.getDefault();
+		Assert.assertEquals(classifier.classify(new IllegalStateException()), Action.IGNORE);
+		Assert.assertEquals(classifier.classify(new WebDriverException("Element is not clickable at point (10, 20)")), Action.IGNORE);
+		Assert.assertEquals(classifier.classify(new UnsupportedCommandException("foo")), Action.IGNORE);
+		Assert.assertEquals(classifier.classify(new UnreachableBrowserException("foo")), Action.IGNORE);
+		Assert.assertEquals(classifier.classify(new WebDriverException("Error communicating with the remote browser. It may have died.")), Action.END_GRID_SESSION);
+		Assert.assertEquals(classifier.classify(new WebDriverException("Session 1234 was terminated due to TIMEOUT\nfoo")), Action.END_SESSION);
+		Assert.assertEquals(classifier.classify(new WebDriverException("cannot forward the request Connection to http://node:5555")), Action.END_SESSION);
+		Assert.assertEquals(classifier.classify(new NoSuchElementException("Unable to locate element")), Action.REPORT);
+	}
+
+	@Test(groups={"ut"})
+	public void testStackRule() {
+		ExceptionClassifier classifier = ExceptionClassifier.getDefault();
+		WebDriverException ex = new WebDriverException("No response on ECMAScript evaluation command");
+		ex.setStackTrace(new StackTraceElement[] {new StackTraceElement("OperaDriver", "getPageSource", null, 1)});
+		Assert.assertEquals(classifier.classify(ex), Action.IGNORE);
+
+		ex.setStackTrace(new StackTraceElement[] {new StackTraceElement("OperaDriver", "findElement", null, 1)});
+		Assert.assertEquals(classifier.classify(ex), Action.REPORT);
+	}
+
+	/**
+	 * Configured rules are evaluated before default ones, and classifier is built once per configuration
+	 */
+	@Test(groups={"ut"})
+	public void testConfiguredRules() {
+		ExceptionClassifier classifier = ExceptionClassifier.getInstance("ignore=^stale element;END_SESSION=Element is not clickable");
+		Assert.assertSame(ExceptionClassifier.getInstance("ignore=^stale element;END_SESSION=Element is not clickable"), classifier);
+		Assert.assertSame(ExceptionClassifier.getInstance(null), ExceptionClassifier.getDefault());
+
+		Assert.assertEquals(classifier.classify(new StaleElementReferenceException("stale element reference")), Action.IGNORE);
+		Assert.assertEquals(classifier.classify(new WebDriverException("Element is not clickable at point (10, 20)")), Action.END_SESSION);
+		Assert.assertEquals(classifier.classify(new UnsupportedCommandException("foo")), Action.IGNORE);
+	}
+
+	@Test(groups={"ut"}, expectedExceptions=ConfigurationException.class)
+	public void testInvalidConfiguredRule() {
+		ExceptionClassifier.getInstance("DROP=foo");
+	}
+
+	@Test(groups={"ut"})
+	public void testCaptureDetection() {
+		WebDriverException ex = new WebDriverException("foo");
+		ex.setStackTrace(new StackTraceElement[] {new StackTraceElement("ScreenshotUtil", "captureWebPageSnapshot", null, 1)});
+		Assert.assertTrue(ExceptionClassifier.isRaisedByCapture(ex));
+		Assert.assertFalse(ExceptionClassifier.isRaisedByCapture(new WebDriverException("foo")));
+	}
+
+	/**
+	 * Microbenchmark: cost of classification for exceptions usually seen during replay
+	 */
+	@Test(groups={"ut"})
+	public void testClassificationTime() {
+		List<WebDriverException> samples = Arrays.asList(new NoSuchElementException("Unable to locate element: {\"method\":\"id\"}\nBuild info: 2.53.1"),
+				new StaleElementReferenceException("stale element reference: element is not attached to the page document"),
+				new WebDriverException("Element is not clickable at point (10, 20). Other element would receive the click"),
+				new WebDriverException("Session 1234 was terminated due to TIMEOUT"));
+
+		ExceptionClassifier classifier = ExceptionClassifier.getDefault();
+
+		// warm up
+		measureClassificationTime(classifier, samples, 20000);
+		double nanosPerException = measureClassificationTime(classifier, samples, 20000);
+		TestLogging.getLogger(TestExceptionClassifier.class).info(String.format("exception classification: %.0f ns", nanosPerException));
+		Assert.assertTrue(nanosPerException < 100000, "classification is too slow: " + nanosPerException + " ns");
+	}
+
+	/**
+	 * @return mean time to classify one exception of the samples, in nanoseconds
+	 */
+	private double measureClassificationTime(final ExceptionClassifier classifier, final List<? extends Throwable> samples, 
+												final int iterations) {
+		int matched = 0;
+		long start = System.nanoTime();
+		for (int i = 0; i < iterations; i++) {
+			for (Throwable ex: samples) {
+				matched += classifier.classify(ex).ordinal();
+			}
+		}
+		long duration = System.nanoTime() - start;
+
+		// prevents the loop from being optimized away
+		Assert.assertTrue(matched >= 0);
+		return (double) duration / ((long) iterations * samples.size());
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016 www.infotel.com
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.seleniumtests.ut.driver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.AbstractWebDriverEventListener;
+import org.openqa.selenium.support.events.WebDriverEventListener;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.seleniumtests.driver.DriverEvent;
+import com.seleniumtests.driver.MulticastEventListener;
+import com.seleniumtests.driver.SelectiveWebDriverEventListener;
+
+public class TestMulticastEventListener {
+	
+	private List<String> calls = new ArrayList<>();
+	
+	private class RecordingListener extends AbstractWebDriverEventListener {
+		private String name;
+		
+		public RecordingListener(String name) {
+			this.name = name;
+		}
+		
+		@Override
+		public void beforeClickOn(WebElement element, WebDriver driver) {
+			calls.add(name + ".beforeClickOn");
+		}
+		
+		@Override
+		public void afterClickOn(WebElement element, WebDriver driver) {
+			calls.add(name + ".afterClickOn");
+		}
+		
+		@Override
+		public void beforeFindBy(By by, WebElement element, WebDriver driver) {
+			calls.add(name + ".beforeFindBy");
+		}
+	}
+	
+	private class SelectiveListener extends RecordingListener implements SelectiveWebDriverEventListener {
+		public SelectiveListener(String name) {
+			super(name);
+		}
+		
+		@Override
+		public Set<DriverEvent> getHandledEvents() {
+			return EnumSet.of(DriverEvent.BEFORE_CLICK_ON);
+		}
+	}
+
+	/**
+	 * Order is the one of nested event firing drivers: last registered listener is the outer one
+	 */
+	@Test(groups={"ut"})
+	public void testListenersCalledInOrder() {
+		calls.clear();
+		MulticastEventListener multicast = new MulticastEventListener(Arrays.asList((WebDriverEventListener)new RecordingListener("first"), 
+																					new RecordingListener("second")));
+		multicast.beforeClickOn(null, null);
+		multicast.afterClickOn(null, null);
+		Assert.assertEquals(calls, Arrays.asList("second.beforeClickOn", "first.beforeClickOn", "first.afterClickOn", "second.afterClickOn"));
+	}
+	
+	@Test(groups={"ut"})
+	public void testSelectiveListenerSkipped() {
+		calls.clear();
+		MulticastEventListener multicast = new MulticastEventListener(Arrays.asList((WebDriverEventListener)new SelectiveListener("selective"), 
+																					new RecordingListener("all")));
+		multicast.beforeFindBy(null, null, null);
+		multicast.beforeClickOn(null, null);
+		Assert.assertEquals(calls, Arrays.asList("all.beforeFindBy", "all.beforeClickOn", "selective.beforeClickOn"));
+		Assert.assertEquals(multicast.getListeners(DriverEvent.AFTER_SCRIPT).length, 1);
+	}
+}
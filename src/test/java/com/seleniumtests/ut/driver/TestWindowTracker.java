@@ -0,0 +1,111 @@
+/*
+ * Copyright 2016 www.infotel.com
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.seleniumtests.ut.driver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.htmlunit.HtmlUnitDriver;
+import org.openqa.selenium.remote.CapabilityType;
+import org.openqa.selenium.remote.Command;
+import org.openqa.selenium.remote.DesiredCapabilities;
+import org.openqa.selenium.remote.DriverCommand;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.remote.Response;
+import org.openqa.selenium.remote.SessionId;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.seleniumtests.driver.WindowTracker;
+import com.seleniumtests.driver.stats.InstrumentedCommandExecutor;
+
+public class TestWindowTracker {
+	
+	private HtmlUnitDriver driver;
+	
+	@BeforeMethod(groups={"ut"})
+	public void initDriver() {
+		driver = new HtmlUnitDriver(true);
+		driver.get("file:///" + Thread.currentThread().getContextClassLoader().getResource("tu/testIFrame.html").getFile());
+	}
+	
+	@AfterMethod(groups={"ut"}, alwaysRun=true)
+	public void closeDriver() {
+		driver.quit();
+	}
+
+	@Test(groups={"ut"})
+	public void testPageNotTracked() {
+		Assert.assertEquals(new WindowTracker(driver).waitForWindowOpening(500), WindowTracker.NOT_TRACKED);
+	}
+	
+	@Test(groups={"ut"})
+	public void testNoWindowOpened() {
+		WindowTracker tracker = new WindowTracker(driver);
+		tracker.track();
+		Assert.assertEquals(tracker.waitForWindowOpening(500), WindowTracker.TIMEOUT);
+	}
+	
+	/**
+	 * window.open called before we wait must be signaled
+	 */
+	@Test(groups={"ut"})
+	public void testWindowOpened() {
+		WindowTracker tracker = new WindowTracker(driver);
+		tracker.track();
+		((JavascriptExecutor) driver).executeScript("window.open('about:blank', '_blank');");
+		
+		Assert.assertEquals(tracker.waitForWindowOpening(2000), WindowTracker.OPENED);
+		Assert.assertEquals(driver.getWindowHandles().size(), 2);
+	}
+	
+	/**
+	 * Script timeout raised for waiting must be set back to the one configured on session
+	 */
+	@Test(groups={"ut"})
+	public void testScriptTimeoutRestored() {
+		List<Command> commands = new ArrayList<>();
+		RemoteWebDriver remoteDriver = new RemoteWebDriver(command -> {
+			commands.add(command);
+			Response response = new Response(new SessionId("1"));
+			if (DriverCommand.NEW_SESSION.equals(command.getName())) {
+				Map<String, Object> capabilities = new HashMap<>();
+				capabilities.put(CapabilityType.SUPPORTS_JAVASCRIPT, true);
+				response.setValue(capabilities);
+			} else if (command.getName().startsWith(DriverCommand.EXECUTE_ASYNC_SCRIPT)) {
+				response.setValue(WindowTracker.TIMEOUT);
+			}
+			return response;
+		}, DesiredCapabilities.htmlUnit());
+		InstrumentedCommandExecutor.instrument(remoteDriver, "local");
+		remoteDriver.manage().timeouts().setScriptTimeout(5, TimeUnit.SECONDS);
+		
+		Assert.assertEquals(new WindowTracker(remoteDriver).waitForWindowOpening(500), WindowTracker.TIMEOUT);
+		
+		List<Object> scriptTimeouts = new ArrayList<>();
+		for (Command command: commands) {
+			if (DriverCommand.SET_SCRIPT_TIMEOUT.equals(command.getName()) || "script".equals(command.getParameters().get("type"))) {
+				scriptTimeouts.add(command.getParameters().get("ms"));
+			}
+		}
+		Assert.assertEquals(scriptTimeouts, Arrays.asList(5000L, 1500L, 5000L));
+	}
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2016 www.infotel.com
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.seleniumtests.ut.reporter;
+
+import org.testng.Assert;
+import org.testng.ITestContext;
+import org.testng.annotations.Test;
+
+import com.seleniumtests.reporter.JavadocIndex;
+
+public class TestJavadocIndex {
+
+	/**
+	 * Description indexed
+	 * when tests are compiled
+	 * @param testContext	not part of description
+	 */
+	@Test(groups={"ut"})
+	public void testIndexedDescription(final ITestContext testContext) throws Exception {
+		Assert.assertEquals(JavadocIndex.getInstance().getDescription(
+					TestJavadocIndex.class.getMethod("testIndexedDescription", ITestContext.class)),
+				"Description indexed\nwhen tests are compiled");
+	}
+
+	@Test(groups={"ut"})
+	public void testMethodWithoutJavadoc() throws Exception {
+		Assert.assertEquals(JavadocIndex.getInstance().getDescription(TestJavadocIndex.class.getMethod("testMethodWithoutJavadoc")), "");
+	}
+
+	@Test(groups={"ut"})
+	public void testMethodNotIndexed() throws Exception {
+		Assert.assertNull(JavadocIndex.getInstance().getDescription(String.class.getMethod("length")));
+	}
+
+	@Test(groups={"ut"})
+	public void testDescriptionExtraction() {
+		Assert.assertEquals(JavadocIndex.extractDescription(" First line\n   second line\r\n\n @param x value\n @return"),
+							"First line\nsecond line");
+		Assert.assertEquals(JavadocIndex.extractDescription(null), "");
+	}
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright 2016 www.infotel.com
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.seleniumtests.ut.reporter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.seleniumtests.core.SeleniumTestsPageListener;
+import com.seleniumtests.reporter.PluginsHelper;
+import com.seleniumtests.reporter.pluginmodel.Method;
+import com.seleniumtests.reporter.pluginmodel.Page;
+import com.seleniumtests.reporter.pluginmodel.Plugin;
+import com.seleniumtests.uipage.IPage;
+
+public class TestPluginsHelper {
+	
+	private static final AtomicInteger listenerCreations = new AtomicInteger();
+	
+	private File pluginFile;
+	
+	/**
+	 * Listener counting its instances, so that each read of the plugin file can be seen
+	 */
+	public static class CountingListener extends SeleniumTestsPageListener {
+		
+		public CountingListener() {
+			listenerCreations.incrementAndGet();
+			try {
+				// slow creation so that concurrent loadings overlap
+				Thread.sleep(50);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		
+		@Override
+		public void onPageLoad(IPage page) {
+			// nothing to do
+		}
+		
+		@Override
+		public void onPageUnload(IPage page) {
+			// nothing to do
+		}
+	}
+	
+	@BeforeMethod(groups={"ut"})
+	public void init() throws IOException {
+		listenerCreations.set(0);
+		pluginFile = Files.createTempFile("plugins", ".xml").toFile();
+		writePluginFile("com.company.pages.*");
+	}
+	
+	@AfterMethod(groups={"ut"}, alwaysRun=true)
+	public void clean() {
+		pluginFile.delete();
+	}
+	
+	private void writePluginFile(String pagePattern) throws IOException {
+		FileUtils.write(pluginFile, String.format("<plugins><plugin purpose=\"test\" class-name=\"%s\">"
+									+ "<test class-name=\"com.company.MyTest\"><page class-name=\"%s\"/></test>"
+									+ "</plugin></plugins>", CountingListener.class.getName(), pagePattern));
+	}
+	
+	private Page createPage(String className) {
+		Page page = new Page();
+		page.setClassName(className);
+		return page;
+	}
+	
+	/**
+	 * Plugin applies to all pages of MyTest, except for method 'testLogin', where it only applies to LoginPage
+	 */
+	private Plugin createPlugin() {
+		com.seleniumtests.reporter.pluginmodel.Test test = new com.seleniumtests.reporter.pluginmodel.Test();
+		test.setClassName("com.company.MyTest");
+		test.getPage().add(createPage("com\\.company\\.pages\\..*"));
+		
+		Method method = new Method();
+		method.setName("testLogin");
+		method.getPage().add(createPage("com\\.company\\.pages\\.LoginPage"));
+		test.getMethod().add(method);
+		
+		Plugin plugin = new Plugin();
+		plugin.setClassName("com.company.MyListener");
+		plugin.getTest().add(test);
+		return plugin;
+	}
+
+	@Test(groups={"ut"})
+	public void testListenerApplicable() {
+		Plugin plugin = createPlugin();
+		PluginsHelper helper = PluginsHelper.getInstance();
+		Assert.assertTrue(helper.isPageListenerApplicable(plugin, "com.company.MyTest.testSearch()", "com.company.pages.SearchPage"));
+		Assert.assertTrue(helper.isPageListenerApplicable(plugin, "com.company.MyTest.testLogin()", "com.company.pages.LoginPage"));
+		Assert.assertTrue(helper.isPageListenerApplicable(plugin, null, "com.company.pages.SearchPage"));
+	}
+	
+	@Test(groups={"ut"})
+	public void testListenerNotApplicable() {
+		Plugin plugin = createPlugin();
+		PluginsHelper helper = PluginsHelper.getInstance();
+		Assert.assertFalse(helper.isPageListenerApplicable(plugin, "com.company.MyTest.testLogin()", "com.company.pages.SearchPage"));
+		Assert.assertFalse(helper.isPageListenerApplicable(plugin, "com.company.OtherTest.testSearch()", "com.company.pages.SearchPage"));
+		Assert.assertFalse(helper.isPageListenerApplicable(plugin, "com.company.MyTest.testSearch()", "com.other.SearchPage"));
+	}
+	
+	/**
+	 * Plugin file is read, and its listeners created, only once
+	 */
+	@Test(groups={"ut"})
+	public void testPluginsLoadedOnce() {
+		PluginsHelper helper = PluginsHelper.getInstance();
+		helper.loadPlugins(pluginFile);
+		helper.loadPlugins(pluginFile);
+		helper.loadPlugins(new File(pluginFile.getAbsolutePath()));
+		Assert.assertEquals(listenerCreations.get(), 1);
+	}
+	
+	/**
+	 * Plugin file is read again when it has been modified
+	 */
+	@Test(groups={"ut"})
+	public void testPluginsReloadedOnChange() throws IOException {
+		PluginsHelper helper = PluginsHelper.getInstance();
+		helper.loadPlugins(pluginFile);
+		
+		writePluginFile("com.company.otherpages.*");
+		pluginFile.setLastModified(pluginFile.lastModified() + 2000);
+		helper.loadPlugins(pluginFile);
+		helper.loadPlugins(pluginFile);
+		Assert.assertEquals(listenerCreations.get(), 2);
+	}
+	
+	/**
+	 * Threads loading the same file for the first time wait for the one reading it
+	 */
+	@Test(groups={"ut"})
+	public void testConcurrentFirstLoad() throws Exception {
+		final PluginsHelper helper = PluginsHelper.getInstance();
+		final int threads = 8;
+		final CountDownLatch startSignal = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Callable<Boolean>> tasks = new ArrayList<Callable<Boolean>>();
+			for (int i = 0; i < threads; i++) {
+				tasks.add(() -> {
+					startSignal.await();
+					helper.loadPlugins(pluginFile);
+					return true;
+				});
+			}
+			List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+			for (Callable<Boolean> task : tasks) {
+				results.add(executor.submit(task));
+			}
+			startSignal.countDown();
+			for (Future<Boolean> result : results) {
+				Assert.assertTrue(result.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+		Assert.assertEquals(listenerCreations.get(), 1);
+	}
+	
+	/**
+	 * Applicable listeners are searched once per test method and page, whatever the test method parameters
+	 */
+	@Test(groups={"ut"})
+	public void testApplicableListenersMemoized() {
+		PluginsHelper helper = PluginsHelper.getInstance();
+		helper.loadPlugins(pluginFile);
+		
+		List<SeleniumTestsPageListener> listeners = helper.getPageListeners("com.company.MyTest.testSearch(java.lang.String)", "com.company.pages.SearchPage");
+		Assert.assertEquals(listeners.size(), 1);
+		Assert.assertTrue(listeners.get(0) instanceof CountingListener);
+		Assert.assertSame(helper.getPageListeners("com.company.MyTest.testSearch(java.lang.Integer)", "com.company.pages.SearchPage"), listeners);
+		Assert.assertSame(helper.getPageListeners("com.company.MyTest.testSearch()", "com.company.pages.SearchPage"), listeners);
+		
+		// other test method or page has its own entry
+		List<SeleniumTestsPageListener> loginListeners = helper.getPageListeners("com.company.MyTest.testLogin()", "com.company.pages.SearchPage");
+		Assert.assertEquals(loginListeners, listeners);
+		Assert.assertNotSame(loginListeners, listeners);
+		Assert.assertNotSame(helper.getPageListeners("com.company.MyTest.testSearch()", "com.company.pages.LoginPage"), listeners);
+		Assert.assertTrue(helper.getPageListeners("com.company.OtherTest.testSearch()", "com.company.pages.SearchPage").isEmpty());
+	}
+	
+	/**
+	 * Memoized listeners belong to the loaded file, they are searched again once file has changed
+	 */
+	@Test(groups={"ut"})
+	public void testMemoizedListenersResetOnReload() throws IOException {
+		PluginsHelper helper = PluginsHelper.getInstance();
+		helper.loadPlugins(pluginFile);
+		Assert.assertEquals(helper.getPageListeners("com.company.MyTest.testSearch()", "com.company.pages.SearchPage").size(), 1);
+		
+		writePluginFile("com.company.otherpages.*");
+		pluginFile.setLastModified(pluginFile.lastModified() + 2000);
+		helper.loadPlugins(pluginFile);
+		Assert.assertTrue(helper.getPageListeners("com.company.MyTest.testSearch()", "com.company.pages.SearchPage").isEmpty());
+		Assert.assertEquals(helper.getPageListeners("com.company.MyTest.testSearch()", "com.company.otherpages.SearchPage").size(), 1);
+	}
+}
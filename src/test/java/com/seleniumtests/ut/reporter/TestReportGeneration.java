@@ -0,0 +1,264 @@
+/*
+ * Copyright 2016 www.infotel.com
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.seleniumtests.ut.reporter;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.velocity.Template;
+import org.testng.Assert;
+import org.testng.IResultMap;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+import org.testng.annotations.Test;
+import org.testng.internal.ResultMap;
+import org.testng.internal.TestResult;
+
+import com.seleniumtests.core.SeleniumTestsContext;
+import com.seleniumtests.core.SeleniumTestsContextManager;
+import com.seleniumtests.reporter.SeleniumTestsReporter;
+import com.seleniumtests.reporter.TestLogging;
+
+public class TestReportGeneration {
+
+	private static final int RESULT_COUNT = 2000;
+
+	/**
+	 * Reporter giving access to panel generation. Javadoc is not searched as it's not the purpose of these tests
+	 */
+	private static class PanelReporter extends SeleniumTestsReporter {
+
+		private final boolean withJavadoc;
+
+		public PanelReporter() {
+			this(false);
+		}
+
+		public PanelReporter(final boolean withJavadoc) {
+			this.withJavadoc = withJavadoc;
+		}
+
+		@Override
+		protected String getJavadocComments(final ITestNGMethod method) {
+			return withJavadoc ? super.getJavadocComments(method) : "";
+		}
+
+		public void writePanel(final IResultMap results, final Writer out, final ITestContext testContext) throws IOException {
+			writePanel(results, out, testContext, "passed");
+		}
+
+		public void writePanel(final IResultMap results, final Writer out, final ITestContext testContext, final String style)
+				throws IOException {
+			generatePanel(results, out, style, null, testContext, false);
+		}
+
+		public void finishTest(final ITestResult result, final String style) {
+			renderFinishedTest(result, style);
+		}
+
+		public void writePanelInParallel(final IResultMap results, final Writer out, final ITestContext testContext,
+				final int threads) throws IOException {
+			List<TestFragment> fragments = new ArrayList<TestFragment>();
+			collectPanelFragments(results, "passed", null, testContext, false, fragments);
+			renderFragments(fragments, threads);
+			try {
+				writePanel(results, out, testContext);
+			} finally {
+				cleanRenderedFragments();
+			}
+		}
+
+		public void closeReport(final String reportName) throws Exception {
+			closePartialReport(reportName);
+		}
+
+		public void copyReportResources(final File outputDirectory) throws IOException {
+			setOutputDirectory(outputDirectory.getAbsolutePath());
+			copyResources();
+		}
+
+		public Template getReportTemplate(final String name) throws Exception {
+			return getTemplate(name);
+		}
+	}
+
+	/**
+	 * Builds results of the current test method, with different parameters
+	 */
+	public static IResultMap buildResults(final ITestContext testContext, final int count) {
+		ITestResult currentResult = Reporter.getCurrentTestResult();
+		ResultMap results = new ResultMap();
+		for (int i = 0; i < count; i++) {
+			ITestResult result = new TestResult(currentResult.getTestClass(), currentResult.getInstance(), currentResult.getMethod(),
+												null, 0, 1000, testContext);
+			result.setParameters(new Object[] {String.format("param%05d", i)});
+			result.setStatus(ITestResult.SUCCESS);
+			results.addResult(result, currentResult.getMethod());
+		}
+		return results;
+	}
+
+	@Test(groups={"ut"})
+	public void testTemplatesParsedOnce() throws Exception {
+		PanelReporter reporter = new PanelReporter();
+		Assert.assertSame(reporter.getReportTemplate("/templates/report.part.singleTest.html"),
+						reporter.getReportTemplate("/templates/report.part.singleTest.html"));
+	}
+
+	/**
+	 * Benchmark: time and allocation of test details rendering, for a large number of results
+	 */
+	@Test(groups={"ut"})
+	public void testPanelGenerationTime(final ITestContext testContext) throws Exception {
+		IResultMap results = buildResults(testContext, RESULT_COUNT);
+		PanelReporter reporter = new PanelReporter();
+		com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+
+		StringWriter out = new StringWriter();
+		long start = System.currentTimeMillis();
+		long allocated = threadBean.getThreadAllocatedBytes(threadId);
+		reporter.writePanel(results, out, testContext);
+		long duration = System.currentTimeMillis() - start;
+		long allocation = threadBean.getThreadAllocatedBytes(threadId) - allocated;
+
+		TestLogging.getLogger(TestReportGeneration.class).info(String.format("%d test details rendered in %d ms, %d kB allocated, %d kB written",
+				RESULT_COUNT, duration, allocation / 1024, out.getBuffer().length() / 1024));
+		Assert.assertEquals(out.toString().split("yuk_grad_ltitle_passed", -1).length - 1, RESULT_COUNT);
+	}
+
+	/**
+	 * Test details rendered in parallel are written in the same order and with the same content as sequential rendering
+	 */
+	@Test(groups={"ut"})
+	public void testParallelRenderingIsIdentical(final ITestContext testContext) throws Exception {
+		ITestResult currentResult = Reporter.getCurrentTestResult();
+		IResultMap results = buildResults(testContext, 200);
+		try {
+			for (ITestResult result : results.getAllResults()) {
+				Reporter.setCurrentTestResult(result);
+				TestLogging.logWebStep(null, "step of " + result.getParameters()[0], false);
+			}
+		} finally {
+			Reporter.setCurrentTestResult(currentResult);
+		}
+
+		StringWriter sequentialOut = new StringWriter();
+		new PanelReporter(true).writePanel(results, sequentialOut, testContext);
+		StringWriter parallelOut = new StringWriter();
+		new PanelReporter(true).writePanelInParallel(results, parallelOut, testContext, 4);
+
+		Assert.assertTrue(sequentialOut.toString().contains("step of param00199"));
+		Assert.assertEquals(parallelOut.toString(), sequentialOut.toString());
+	}
+
+	/**
+	 * Fragments rendered when tests finish are copied to report, skipped ones with the tree id they have in report
+	 */
+	@Test(groups={"ut"})
+	public void testFinishedTestsAreStitched(final ITestContext testContext) throws Exception {
+		IResultMap results = buildResults(testContext, 20);
+		for (ITestResult result : results.getAllResults()) {
+			result.setStatus(ITestResult.SKIP);
+		}
+
+		// report is written in a temporary folder so that fragments of other runs are not counted
+		SeleniumTestsContext globalContext = SeleniumTestsContextManager.getGlobalContext();
+		String outputDirectory = globalContext.getOutputDirectory();
+		File reportDirectory = Files.createTempDirectory("report").toFile();
+		File fragmentFolder = new File(reportDirectory, SeleniumTestsReporter.FINISHED_FRAGMENT_FOLDER);
+		globalContext.setAttribute(SeleniumTestsContext.OUTPUT_DIRECTORY, new File(reportDirectory, "test-output").getAbsolutePath());
+		try {
+			PanelReporter reporter = new PanelReporter();
+			for (ITestResult result : results.getAllResults()) {
+				reporter.finishTest(result, "skipped");
+			}
+			Assert.assertEquals(countFragments(fragmentFolder), 20);
+			String partialReport = new String(Files.readAllBytes(new File(reportDirectory, SeleniumTestsReporter.PARTIAL_REPORT_NAME).toPath()), 
+											StandardCharsets.UTF_8);
+			Assert.assertTrue(partialReport.contains("param00019"));
+
+			StringWriter stitchedOut = new StringWriter();
+			reporter.writePanel(results, stitchedOut, testContext, "skipped");
+			StringWriter renderedOut = new StringWriter();
+			new PanelReporter().writePanel(results, renderedOut, testContext, "skipped");
+
+			Assert.assertTrue(renderedOut.toString().contains("id=\"tree19\""));
+			Assert.assertEquals(stitchedOut.toString(), renderedOut.toString());
+			Assert.assertEquals(countFragments(fragmentFolder), 0);
+
+			// once report is written, partial report only redirects to it
+			reporter.closeReport("SeleniumTestReport.html");
+			partialReport = new String(Files.readAllBytes(new File(reportDirectory, SeleniumTestsReporter.PARTIAL_REPORT_NAME).toPath()),
+											StandardCharsets.UTF_8);
+			Assert.assertFalse(partialReport.contains("param00019"));
+			Assert.assertTrue(partialReport.contains("url=SeleniumTestReport.html"));
+		} finally {
+			globalContext.setAttribute(SeleniumTestsContext.OUTPUT_DIRECTORY, outputDirectory);
+			FileUtils.deleteDirectory(reportDirectory);
+		}
+	}
+
+	/**
+	 * Resources already copied to report folder with the same content are not written again, modified ones are
+	 */
+	@Test(groups={"ut"})
+	public void testUnchangedResourcesSkipped() throws Exception {
+		File outputDirectory = Files.createTempDirectory("report").toFile();
+		try {
+			new PanelReporter().copyReportResources(outputDirectory);
+			File css = new File(outputDirectory, "resources/css/report.css");
+			File js = new File(outputDirectory, "resources/js/report.js");
+			Assert.assertTrue(new File(outputDirectory, "resources/" + SeleniumTestsReporter.RESOURCE_MANIFEST).isFile());
+			Assert.assertTrue(css.length() > 0);
+
+			long jsLength = js.length();
+			css.setLastModified(1000000000L);
+			Files.write(js.toPath(), new byte[0]);
+			js.setLastModified(1000000000L);
+			new PanelReporter().copyReportResources(outputDirectory);
+
+			// touched file with the same content is kept, truncated one is written again
+			Assert.assertEquals(css.lastModified(), 1000000000L);
+			Assert.assertEquals(js.length(), jsLength);
+			
+			// manifest has been updated with new modification date, so files are not hashed again
+			String manifest = new String(Files.readAllBytes(new File(outputDirectory, "resources/" + SeleniumTestsReporter.RESOURCE_MANIFEST).toPath()), 
+											StandardCharsets.UTF_8);
+			Assert.assertTrue(manifest.contains(String.format(" %d %d", css.length(), 1000000000L)));
+
+			// missing resource is copied again
+			Assert.assertTrue(css.delete());
+			new PanelReporter().copyReportResources(outputDirectory);
+			Assert.assertTrue(css.length() > 0);
+		} finally {
+			FileUtils.deleteDirectory(outputDirectory);
+		}
+	}
+
+	private int countFragments(final File fragmentFolder) {
+		String[] fragments = fragmentFolder.list((folder, name) -> name.startsWith("testFinishedTestsAreStitched-"));
+		return fragments == null ? 0 : fragments.length;
+	}
+}
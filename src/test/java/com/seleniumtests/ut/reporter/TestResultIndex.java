@@ -0,0 +1,101 @@
+/*
+ * Copyright 2016 www.infotel.com
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.seleniumtests.ut.reporter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.IResultMap;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+import org.testng.annotations.Test;
+import org.testng.internal.TestResult;
+
+import com.seleniumtests.reporter.ResultIndex;
+import com.seleniumtests.reporter.TestLogging;
+
+public class TestResultIndex {
+
+	private static final int RESULT_COUNT = 5000;
+
+	@Test(groups={"ut"})
+	public void testResultsSortedBySignature(final ITestContext testContext) {
+		IResultMap results = TestReportGeneration.buildResults(testContext, 100);
+		ResultIndex index = new ResultIndex(results);
+		ITestResult currentResult = Reporter.getCurrentTestResult();
+
+		Collection<ITestResult> sortedResults = index.getSortedResults(currentResult.getMethod().getMethodName());
+		Assert.assertEquals(sortedResults.size(), 100);
+		Assert.assertEquals(sortedResults.iterator().next().getParameters()[0], "param00000");
+		Assert.assertEquals(index.getResults(currentResult.getMethod()).size(), 100);
+		Assert.assertTrue(index.getSortedResults("unknownMethod").isEmpty());
+		Assert.assertTrue(index.isUpToDate(results));
+	}
+
+	/**
+	 * A run is found when method, instance, parameters and end date are the same
+	 */
+	@Test(groups={"ut"})
+	public void testResultOfRun(final ITestContext testContext) {
+		IResultMap results = TestReportGeneration.buildResults(testContext, 10);
+		ResultIndex index = new ResultIndex(results);
+		ITestResult indexedResult = results.getAllResults().iterator().next();
+
+		ITestResult sameRun = copy(indexedResult, testContext, indexedResult.getEndMillis());
+		ITestResult otherRun = copy(indexedResult, testContext, indexedResult.getEndMillis() + 1);
+		ITestResult otherRow = copy(indexedResult, testContext, indexedResult.getEndMillis());
+		otherRow.setParameters(new Object[] {"param99999"});
+
+		Assert.assertSame(index.getResult(indexedResult), indexedResult);
+		Assert.assertSame(index.getResult(sameRun), indexedResult);
+		Assert.assertNull(index.getResult(otherRun));
+		Assert.assertNull(index.getResult(otherRow));
+	}
+
+	/**
+	 * Benchmark: matching every result of a data provider against an other map, as done when removing retried tests
+	 */
+	@Test(groups={"ut"})
+	public void testRunLookupTime(final ITestContext testContext) {
+		IResultMap results = TestReportGeneration.buildResults(testContext, RESULT_COUNT);
+		List<ITestResult> runs = new ArrayList<>();
+		for (ITestResult result : results.getAllResults()) {
+			ITestResult run = copy(result, testContext, result.getEndMillis());
+			run.setParameters(result.getParameters());
+			runs.add(run);
+		}
+
+		long start = System.currentTimeMillis();
+		ResultIndex index = new ResultIndex(results);
+		int found = 0;
+		for (ITestResult run : runs) {
+			if (index.getResult(run) != null) {
+				found++;
+			}
+		}
+		TestLogging.getLogger(TestResultIndex.class).info(String.format("%d runs matched against %d results in %d ms",
+				RESULT_COUNT, RESULT_COUNT, System.currentTimeMillis() - start));
+		Assert.assertEquals(found, RESULT_COUNT);
+	}
+
+	private ITestResult copy(final ITestResult result, final ITestContext testContext, final long endMillis) {
+		ITestResult copy = new TestResult(result.getTestClass(), result.getInstance(), result.getMethod(), null,
+											result.getStartMillis(), endMillis, testContext);
+		copy.setParameters(result.getParameters());
+		return copy;
+	}
+}
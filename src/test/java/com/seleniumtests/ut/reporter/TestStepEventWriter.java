@@ -0,0 +1,149 @@
+/*
+ * Copyright 2016 www.infotel.com
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.seleniumtests.ut.reporter;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.ITestResult;
+import org.testng.Reporter;
+import org.testng.annotations.Test;
+
+import com.seleniumtests.reporter.SeleniumTestsReporter;
+import com.seleniumtests.reporter.StepEvent;
+import com.seleniumtests.reporter.StepEventWriter;
+import com.seleniumtests.reporter.TestLogging;
+
+public class TestStepEventWriter {
+	
+	private static class LogReporter extends SeleniumTestsReporter {
+		public static List<String> getLogs(final ITestResult result) {
+			return getTestLogs(result);
+		}
+	}
+
+	@Test(groups={"ut"})
+	public void testEventSerialization() {
+		StepEvent event = new StepEvent("myTest", StepEvent.Type.STEP, "button\tok", true, "click on\n<button>\\");
+		StepEvent readEvent = StepEvent.fromLine(event.toLine());
+
+		Assert.assertFalse(event.toLine().contains("\n"));
+		Assert.assertEquals(readEvent.getTimestamp(), event.getTimestamp());
+		Assert.assertEquals(readEvent.getThread(), Thread.currentThread().getName());
+		Assert.assertEquals(readEvent.getTest(), "myTest");
+		Assert.assertEquals(readEvent.getType(), StepEvent.Type.STEP);
+		Assert.assertEquals(readEvent.getElement(), "button\tok");
+		Assert.assertTrue(readEvent.isFailed());
+		Assert.assertEquals(readEvent.getMessage(), "click on\n<button>\\");
+		Assert.assertEquals(StepEvent.fromLine(new StepEvent("myTest", StepEvent.Type.LOG, null, false, 3, "").toLine()).getReporterPosition(), 3);
+	}
+
+	@Test(groups={"ut"})
+	public void testNullFieldsSerialization() {
+		StepEvent readEvent = StepEvent.fromLine(new StepEvent(null, StepEvent.Type.LOG, null, false, null).toLine());
+		Assert.assertNull(readEvent.getElement());
+		Assert.assertEquals(readEvent.getMessage(), "");
+		Assert.assertFalse(readEvent.isFailed());
+	}
+
+	/**
+	 * Steps logged during a test are written to its event file, in order, and rendered as before
+	 */
+	@Test(groups={"ut"})
+	public void testStepsWrittenToTestFile() {
+		ITestResult result = Reporter.getCurrentTestResult();
+		for (int i = 0; i < 100; i++) {
+			TestLogging.logWebStep(null, "step " + i, false);
+		}
+		TestLogging.logWebStep(null, "click on <button>", "button", true);
+
+		List<StepEvent> events = StepEventWriter.getInstance().readEvents(result);
+		Assert.assertEquals(events.size(), 101);
+		Assert.assertEquals(events.get(50).getMessage(), "step 50");
+		Assert.assertEquals(events.get(100).getElement(), "button");
+		Assert.assertEquals(events.get(100).getTest(), result.getName());
+		Assert.assertTrue(StepEventWriter.getEventFile(result).getPath().contains(StepEventWriter.EVENT_FOLDER));
+		Assert.assertEquals(TestLogging.render(events.get(100)),
+				TestLogging.escape("<span style=\"font-weight:bold;color:#cc0052;\"><li><b>FailedStep</b>: click on <button></li></span>"));
+	}
+	
+	/**
+	 * When writer is late, test threads wait for room in the queue, without losing nor reordering events
+	 */
+	@Test(groups={"ut"})
+	public void testMoreEventsThanQueueCapacity() {
+		ITestResult result = Reporter.getCurrentTestResult();
+		for (int i = 0; i < 25000; i++) {
+			TestLogging.logWebStep(null, "step " + i, false);
+		}
+		
+		List<StepEvent> events = StepEventWriter.getInstance().readEvents(result);
+		Assert.assertEquals(events.size(), 25000);
+		for (int i = 0; i < events.size(); i++) {
+			Assert.assertEquals(events.get(i).getMessage(), "step " + i);
+		}
+	}
+	
+	/**
+	 * Reading events of a test waits for its own events only: events of other tests are written by writer thread
+	 */
+	@Test(groups={"ut"})
+	public void testFlushLimitedToTestFile() throws IOException {
+		ITestResult result = Reporter.getCurrentTestResult();
+		TestLogging.logWebStep(null, "own step", false);
+		
+		File otherFile = Files.createTempFile("otherTest", ".events").toFile();
+		try {
+			StepEventWriter.getInstance().submit(otherFile, new StepEvent("otherTest", StepEvent.Type.STEP, null, false, "other step"));
+			
+			List<StepEvent> events = StepEventWriter.getInstance().readEvents(result);
+			Assert.assertEquals(events.size(), 1);
+			Assert.assertEquals(events.get(0).getMessage(), "own step");
+			
+			// nothing left to wait for this test, other test is written when it asks for it
+			StepEventWriter.getInstance().flush(StepEventWriter.getEventFile(result));
+			StepEventWriter.getInstance().flush(otherFile);
+			Assert.assertTrue(new String(Files.readAllBytes(otherFile.toPath()), StandardCharsets.UTF_8).contains("other step"));
+		} finally {
+			otherFile.delete();
+		}
+	}
+	
+	/**
+	 * Lines logged directly to TestNG reporter keep their place among steps
+	 */
+	@Test(groups={"ut"})
+	public void testReporterLinesInterleaved() {
+		ITestResult result = Reporter.getCurrentTestResult();
+		Reporter.log("reporter 1");
+		TestLogging.logWebStep(null, "step 1", false);
+		Reporter.log("reporter 2");
+		Reporter.log("reporter 3");
+		TestLogging.logWebStep(null, "step 2", false);
+		Reporter.log("reporter 4");
+		
+		List<String> logs = LogReporter.getLogs(result);
+		Assert.assertEquals(logs.size(), 6);
+		Assert.assertEquals(logs.get(0), "reporter 1");
+		Assert.assertTrue(logs.get(1).contains("step 1"));
+		Assert.assertEquals(logs.get(2), "reporter 2");
+		Assert.assertEquals(logs.get(3), "reporter 3");
+		Assert.assertTrue(logs.get(4).contains("step 2"));
+		Assert.assertEquals(logs.get(5), "reporter 4");
+	}
+}
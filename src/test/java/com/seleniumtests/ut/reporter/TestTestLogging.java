@@ -0,0 +1,81 @@
+/*
+ * Copyright 2016 www.infotel.com
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.seleniumtests.ut.reporter;
+
+import java.lang.management.ManagementFactory;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.seleniumtests.reporter.TestLogging;
+
+public class TestTestLogging {
+
+	private static final String MESSAGE = "<li><b>FailedStep</b>: click on <button id='ok'>\nvalue > 0</li>";
+
+	@Test(groups={"ut"})
+	public void testEscape() {
+		Assert.assertEquals(TestLogging.escape(MESSAGE),
+				MESSAGE.replaceAll("\\n", "<br/>").replaceAll("<", "@@lt@@").replaceAll(">", "^^greaterThan^^"));
+		Assert.assertEquals(TestLogging.escape("no markup"), "no markup");
+	}
+
+	@Test(groups={"ut"})
+	public void testUnEscapeMarkup() {
+		Assert.assertEquals(TestLogging.unEscapeMarkup(TestLogging.escape(MESSAGE)), MESSAGE.replace("\n", "<br/>"));
+		Assert.assertEquals(TestLogging.unEscapeMarkup("@@lt ^^ @"), "@@lt ^^ @");
+	}
+
+	@Test(groups={"ut"})
+	public void testUnEscape() {
+		Assert.assertEquals(TestLogging.unEscape(TestLogging.escape("<b>value</b> 0")), "value 0");
+	}
+
+	/**
+	 * Microbenchmark: single pass escaping compared to the chained regular expressions it replaces
+	 */
+	@Test(groups={"ut"})
+	public void testEscapeTime() {
+		int iterations = 50000;
+		com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+		int checksum = 0;
+
+		// warm up
+		for (int i = 0; i < iterations; i++) {
+			checksum += TestLogging.escape(MESSAGE).length();
+			checksum += MESSAGE.replaceAll("\\n", "<br/>").replaceAll("<", "@@lt@@").replaceAll(">", "^^greaterThan^^").length();
+		}
+
+		long start = System.nanoTime();
+		long allocated = threadBean.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < iterations; i++) {
+			checksum += MESSAGE.replaceAll("\\n", "<br/>").replaceAll("<", "@@lt@@").replaceAll(">", "^^greaterThan^^").length();
+		}
+		long regexTime = (System.nanoTime() - start) / iterations;
+		long regexAllocation = (threadBean.getThreadAllocatedBytes(threadId) - allocated) / iterations;
+
+		start = System.nanoTime();
+		allocated = threadBean.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < iterations; i++) {
+			checksum += TestLogging.escape(MESSAGE).length();
+		}
+		long escapeTime = (System.nanoTime() - start) / iterations;
+		long escapeAllocation = (threadBean.getThreadAllocatedBytes(threadId) - allocated) / iterations;
+
+		TestLogging.getLogger(TestTestLogging.class).info(String.format("regex escaping: %d ns, %d bytes / single pass escaping: %d ns, %d bytes (%d)",
+				regexTime, regexAllocation, escapeTime, escapeAllocation, checksum));
+		Assert.assertTrue(escapeAllocation < regexAllocation);
+	}
+}
@@ -1,17 +1,21 @@
 package com.seleniumtests.ut.uipage;
 
+import java.util.List;
 import java.util.regex.Pattern;
 
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.testng.Assert;
 import org.testng.ITestContext;
+import org.testng.Reporter;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 
 import com.seleniumtests.core.SeleniumTestsContextManager;
 import com.seleniumtests.driver.WebUIDriver;
+import com.seleniumtests.reporter.StepEvent;
+import com.seleniumtests.reporter.StepEventWriter;
 import com.seleniumtests.it.driver.DriverTestPage;
 import com.seleniumtests.it.driver.TestDriver;
 import com.seleniumtests.uipage.htmlelements.HtmlElement;
@@ -87,6 +91,16 @@ public class TestHtmlElement {
 		testDriverIt.testOnBlur();
 	}
 	
+	@Test(groups={"ut"})
+	public void testSendKeysWithoutBlur() {
+		testDriverIt.testSendKeysWithoutBlur();
+	}
+	
+	@Test(groups={"ut"})
+	public void testOnBlurWithDriver() {
+		testDriverIt.testOnBlurWithDriver();
+	}
+	
 	@Test(groups={"ut"})
 	public void testFindElements() {
 		testDriverIt.testFindElements();
@@ -152,4 +166,15 @@ public class TestHtmlElement {
 		Assert.assertFalse(new HtmlElement("", By.id("divNotFound")).isElementPresent(2));
 	}
 	
+	/**
+	 * Steps done on an element record its label
+	 */
+	@Test(groups={"ut"})
+	public void testStepLoggedWithElement() {
+		DriverTestPage.checkElement.click();
+		List<StepEvent> events = StepEventWriter.getInstance().readEvents(Reporter.getCurrentTestResult());
+		Assert.assertEquals(events.get(events.size() - 1).getType(), StepEvent.Type.STEP);
+		Assert.assertEquals(events.get(events.size() - 1).getElement(), "Check");
+	}
+	
 }
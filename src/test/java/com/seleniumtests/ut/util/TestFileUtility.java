@@ -0,0 +1,63 @@
+/*
+ * Copyright 2016 www.infotel.com
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.seleniumtests.ut.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.seleniumtests.util.FileUtility;
+
+public class TestFileUtility {
+
+	/**
+	 * Writable files must be copied so that template is never modified, read-only ones may be shared
+	 * @throws IOException
+	 */
+	@Test(groups={"ut"})
+	public void testCloneDirectory() throws IOException {
+		File template = Files.createTempDirectory("template").toFile();
+		File clone = Files.createTempDirectory("clone").toFile();
+		try {
+			File writable = new File(template, "Default" + File.separator + "Preferences");
+			File readOnly = new File(template, "Default" + File.separator + "Extensions.dat");
+			FileUtils.write(writable, "{}");
+			FileUtils.write(readOnly, "data");
+			readOnly.setWritable(false);
+
+			FileUtility.cloneDirectory(template, clone);
+
+			File clonedWritable = new File(clone, "Default" + File.separator + "Preferences");
+			File clonedReadOnly = new File(clone, "Default" + File.separator + "Extensions.dat");
+			Assert.assertEquals(FileUtils.readFileToString(clonedWritable), "{}");
+			Assert.assertEquals(FileUtils.readFileToString(clonedReadOnly), "data");
+			Assert.assertFalse(Files.isSameFile(writable.toPath(), clonedWritable.toPath()));
+
+			FileUtils.write(clonedWritable, "{\"changed\": true}");
+			Assert.assertEquals(FileUtils.readFileToString(writable), "{}");
+		} finally {
+			FileUtility.deleteDirectory(template);
+			FileUtility.deleteDirectory(clone);
+		}
+	}
+
+	@Test(groups={"ut"}, expectedExceptions=IOException.class)
+	public void testCloneMissingDirectory() throws IOException {
+		FileUtility.cloneDirectory(new File("/notExisting/profile"), Files.createTempDirectory("clone").toFile());
+	}
+}
@@ -14,6 +14,10 @@
 package com.seleniumtests.ut.util;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import org.apache.commons.io.FileUtils;
 
 import org.testng.Assert;
 import org.testng.ITestContext;
@@ -52,4 +56,33 @@ public class TestTestConfigurationParser {
 	public void testDeviceNodesJson() {
 		Assert.assertEquals(configParser.getDeviceNodesAsJson(), "{\"Samsung Galaxy Nexus SPH-L700 4.3\":\"Android 4.3\",\"Android Emulator\":\"Android 5.1\"}");
 	}
+	
+	@Test(groups={"ut"})
+	public void testParameters() {
+		Assert.assertEquals(configParser.getParameters().size(), 10);
+		Assert.assertEquals(configParser.getParameters().get("browser"), "chrome");
+		Assert.assertEquals(configParser.getServiceParameters("testDroid").get("projectName"), "Test_testdroid");
+		Assert.assertTrue(configParser.getServiceParameters("unknown").isEmpty());
+	}
+	
+	/**
+	 * File is parsed again only when it changes
+	 * @throws IOException
+	 */
+	@Test(groups={"ut"})
+	public void testParserCache() throws IOException {
+		File configFile = Files.createTempFile("config", ".xml").toFile();
+		try {
+			FileUtils.write(configFile, "<parameters><parameter name=\"browser\" value=\"chrome\" /></parameters>");
+			TestConfigurationParser parser = TestConfigurationParser.getInstance(configFile.getAbsolutePath());
+			Assert.assertSame(TestConfigurationParser.getInstance(configFile.getAbsolutePath()), parser);
+			
+			FileUtils.write(configFile, "<parameters><parameter name=\"browser\" value=\"firefox\" /></parameters>");
+			TestConfigurationParser updatedParser = TestConfigurationParser.getInstance(configFile.getAbsolutePath());
+			Assert.assertNotSame(updatedParser, parser);
+			Assert.assertEquals(updatedParser.getParameters().get("browser"), "firefox");
+		} finally {
+			configFile.delete();
+		}
+	}
 }